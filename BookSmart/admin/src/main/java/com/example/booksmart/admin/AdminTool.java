@@ -0,0 +1,68 @@
+package com.example.booksmart.admin;
+
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.FirebaseOptions;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point for the admin jobs.
+ * Usage: {@code <command> <databaseUrl> [--dry-run] [--zone <id>]}, where command
+ * is one of backfill-bookings or sweep-slots. A dry run only reports what would
+ * change. The zone, e.g. Europe/London, is the one legacy bookings were made in;
+ * with it backfill-bookings converts their wall-clock strings to epoch times.
+ */
+public final class AdminTool {
+
+    private AdminTool() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            usage();
+            return;
+        }
+        List<String> flags = Arrays.asList(args).subList(2, args.length);
+        boolean dryRun = flags.contains("--dry-run");
+        String legacyZoneId = null;
+        int zoneFlag = flags.indexOf("--zone");
+        if (zoneFlag >= 0) {
+            if (zoneFlag + 1 >= flags.size() || !ZoneId.getAvailableZoneIds().contains(flags.get(zoneFlag + 1))) {
+                usage();
+                return;
+            }
+            legacyZoneId = flags.get(zoneFlag + 1);
+        }
+
+        FirebaseOptions options = FirebaseOptions.builder()
+                .setCredentials(GoogleCredentials.getApplicationDefault())
+                .setDatabaseUrl(args[1])
+                .build();
+        FirebaseApp.initializeApp(options);
+        DatabaseReference rootRef = FirebaseDatabase.getInstance().getReference();
+
+        switch (args[0]) {
+            case "backfill-bookings":
+                new BookingBackfill(rootRef, dryRun, legacyZoneId).run();
+                break;
+            case "sweep-slots":
+                new SlotSweep(rootRef, dryRun).run();
+                break;
+            default:
+                usage();
+                break;
+        }
+        // The SDK keeps non-daemon threads alive
+        System.exit(0);
+    }
+
+    private static void usage() {
+        System.err.println("Usage: AdminTool backfill-bookings|sweep-slots <databaseUrl> [--dry-run] [--zone <id>]");
+        System.exit(2);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.booksmart.admin;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.MutableData;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.Transaction;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.UnaryOperator;
+
+/**
+ * Synchronous wrappers over the callback API; the jobs run one step at a time.
+ */
+final class Blocking {
+    /** Returned from a {@link #transact} change to leave the node as it is */
+    static final Object ABORT = new Object();
+
+    private Blocking() {
+    }
+
+    static DataSnapshot read(Query query) throws InterruptedException, ExecutionException {
+        CompletableFuture<DataSnapshot> result = new CompletableFuture<>();
+        query.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot snapshot) {
+                result.complete(snapshot);
+            }
+
+            @Override
+            public void onCancelled(DatabaseError error) {
+                result.completeExceptionally(error.toException());
+            }
+        });
+        return result.get();
+    }
+
+    static void update(DatabaseReference ref, Map<String, Object> updates)
+            throws InterruptedException, ExecutionException {
+        ref.updateChildrenAsync(updates).get();
+    }
+
+    /**
+     * Runs a transaction on one node
+     *
+     * @param change Maps the current value to the new one (null deletes), or returns
+     *               {@link #ABORT} to leave it alone. It may first see null for a node
+     *               that is simply not cached yet; the server then asks again.
+     * @return The node's value once the transaction settled
+     */
+    static Object transact(DatabaseReference ref, UnaryOperator<Object> change)
+            throws InterruptedException, ExecutionException {
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        ref.runTransaction(new Transaction.Handler() {
+            @Override
+            public Transaction.Result doTransaction(MutableData currentData) {
+                Object next = change.apply(currentData.getValue());
+                if (next == ABORT) {
+                    return Transaction.abort();
+                }
+                currentData.setValue(next);
+                return Transaction.success(currentData);
+            }
+
+            @Override
+            public void onComplete(DatabaseError error, boolean committed, DataSnapshot currentData) {
+                if (error != null) {
+                    result.completeExceptionally(error.toException());
+                } else {
+                    result.complete(currentData.getValue());
+                }
+            }
+        }, false);
+        return result.get();
+    }
+
+    /**
+     * Replaces a value only if it still equals what was read, so a client
+     * writing the same node in the meantime always wins
+     *
+     * @param replacement New value, or null to delete
+     * @return true if the node now holds the replacement
+     */
+    static boolean compareAndSet(DatabaseReference ref, Object expected, Object replacement)
+            throws InterruptedException, ExecutionException {
+        Object settled = transact(ref, current -> {
+            if (current == null) {
+                // Nothing cached yet, so let the server answer with the real value
+                return null;
+            }
+            return Objects.equals(current, expected) ? replacement : ABORT;
+        });
+        return Objects.equals(settled, replacement);
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.booksmart.admin;
+
+import com.example.booksmart.core.BookingDays;
+import com.example.booksmart.core.BookingSlots;
+import com.example.booksmart.models.Booking;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.Query;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.function.UnaryOperator;
+
+/**
+ * One-off backfill of the availability/ day buckets and the slots/ claims for
+ * every booking written before they existed, run once centrally instead of
+ * from every device.
+ * Walks bookings/ in key order, one page at a time. Each booking's buckets are
+ * written in one multi-path update and its slots are claimed one transaction
+ * at a time, taking only free slots or ones it already holds. The booking is
+ * then read again: if a client changed it meanwhile, e.g. cancelled it, the
+ * writes are redone from the new state, so a stale read can never leave a
+ * cancelled booking looking busy; the day entries and slots the earlier state
+ * wrote but the new one no longer covers are removed again.
+ * Bookings still lacking epoch times are converted first when a zone is given:
+ * their legacy wall-clock strings are read in that zone and the times written
+ * to bookings/ and the owner's userBookings/ copy, unless a client converted
+ * or edited them meanwhile. Without a zone they are skipped and counted; their
+ * owners' devices convert them on the next sign-in.
+ */
+final class BookingBackfill {
+    private static final int PAGE_SIZE = 500;
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final DatabaseReference rootRef;
+    private final boolean dryRun;
+    // Zone the legacy strings were written in, null to leave them to the devices
+    private final String legacyZoneId;
+    private int written;
+    private int converted;
+    private int legacy;
+    private int conflicts;
+
+    BookingBackfill(DatabaseReference rootRef, boolean dryRun, String legacyZoneId) {
+        this.rootRef = rootRef;
+        this.dryRun = dryRun;
+        this.legacyZoneId = legacyZoneId;
+    }
+
+    void run() throws InterruptedException, ExecutionException {
+        String lastKey = null;
+        while (true) {
+            // The admin SDK has no startAfter, so each later page repeats the previous last key
+            Query page = lastKey == null
+                    ? rootRef.child("bookings").orderByKey().limitToFirst(PAGE_SIZE)
+                    : rootRef.child("bookings").orderByKey().startAt(lastKey).limitToFirst(PAGE_SIZE + 1);
+            int fresh = 0;
+            for (DataSnapshot booking : Blocking.read(page).getChildren()) {
+                if (booking.getKey().equals(lastKey)) {
+                    continue;
+                }
+                lastKey = booking.getKey();
+                fresh++;
+                backfill(booking);
+            }
+            if (fresh < PAGE_SIZE) {
+                break;
+            }
+        }
+        System.out.println((dryRun ? "Would backfill " : "Backfilled ") + written + " bookings; converted "
+                + converted + (legacyZoneId != null ? " legacy bookings from " + legacyZoneId : " legacy bookings")
+                + "; skipped " + legacy + " without epoch times; " + conflicts
+                + " slots already held by another booking");
+    }
+
+    private void backfill(DataSnapshot booking) throws InterruptedException, ExecutionException {
+        Footprint applied = null;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            booking = convert(booking);
+            applied = apply(booking, applied);
+            if (applied == null || dryRun) {
+                return;
+            }
+            DataSnapshot latest = Blocking.read(booking.getRef());
+            if (Objects.equals(latest.getValue(), booking.getValue())) {
+                return;
+            }
+            // Changed while being backfilled; derive everything again from what is there now
+            booking = latest;
+        }
+        System.out.println("Gave up on " + booking.getKey() + ", it kept changing");
+    }
+
+    /**
+     * Writes the buckets and slots one booking state implies, and removes what
+     * the previously applied state of the same booking wrote outside them
+     *
+     * @param previous What the last attempt wrote, or null on the first one
+     * @return What this state wrote, or null if the booking has nothing to backfill
+     */
+    private Footprint apply(DataSnapshot booking, Footprint previous)
+            throws InterruptedException, ExecutionException {
+        String bookingId = booking.getKey();
+        String spaceType = booking.child("spaceType").getValue(String.class);
+        String userId = booking.child("userId").getValue(String.class);
+        Long start = booking.child("startMillis").getValue(Long.class);
+        Long end = booking.child("endMillis").getValue(Long.class);
+        if (!booking.exists() || spaceType == null || userId == null) {
+            clear(bookingId, previous);
+            return null;
+        }
+        if (start == null || end == null || start <= 0 || end <= 0) {
+            // Still legacy only on a dry run, or when no zone was given or the strings do not parse
+            long[] parsed = parseLegacy(booking);
+            if (parsed == null) {
+                legacy++;
+                clear(bookingId, previous);
+                return null;
+            }
+            start = parsed[0];
+            end = parsed[1];
+        }
+        String status = booking.child("status").getValue(String.class);
+        Long storedVersion = booking.child("version").getValue(Long.class);
+        long version = storedVersion != null ? storedVersion : 0;
+        boolean live = !"cancelled".equals(status);
+        Footprint footprint = new Footprint(spaceType, BookingDays.dayKeys(start, end));
+        written++;
+        if (dryRun) {
+            return footprint;
+        }
+
+        Map<String, Object> updates = new HashMap<>();
+        if (previous != null) {
+            for (String day : previous.days) {
+                if (!footprint.holdsDay(previous.spaceType, day)) {
+                    updates.put("availability/" + previous.spaceType + "/" + day + "/" + bookingId, null);
+                }
+            }
+        }
+        for (String day : footprint.days) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("startMillis", start);
+            entry.put("endMillis", end);
+            entry.put("status", status);
+            updates.put("availability/" + spaceType + "/" + day + "/" + bookingId, entry);
+        }
+        Blocking.update(rootRef, updates);
+
+        List<String> slots = BookingSlots.slotKeys(start, end);
+        if (previous != null) {
+            for (Map.Entry<String, Object> claim : previous.slots.entrySet()) {
+                if (!spaceType.equals(previous.spaceType) || !slots.contains(claim.getKey())) {
+                    release(previous.spaceType, claim.getKey(), claim.getValue());
+                }
+            }
+        }
+        long now = System.currentTimeMillis();
+        for (String slot : slots) {
+            Object settled = Blocking.transact(rootRef.child("slots").child(spaceType).child(slot), current -> {
+                boolean ours = bookingId.equals(BookingSlots.bookingIdOf(current));
+                if (!live) {
+                    return ours ? null : Blocking.ABORT;
+                }
+                if (current != null && !ours) {
+                    return Blocking.ABORT;
+                }
+                return BookingSlots.entry(bookingId, userId, version, now);
+            });
+            if (live && settled != null && !bookingId.equals(BookingSlots.bookingIdOf(settled))) {
+                conflicts++;
+                System.out.println("Slot " + spaceType + "/" + slot + " of " + bookingId + " is held by "
+                        + BookingSlots.bookingIdOf(settled));
+            } else if (live && settled != null) {
+                footprint.slots.put(slot, settled);
+            }
+        }
+        return footprint;
+    }
+
+    /**
+     * Writes epoch times onto a legacy booking and its userBookings/ copy
+     *
+     * @return The booking as it stands afterwards
+     */
+    private DataSnapshot convert(DataSnapshot booking) throws InterruptedException, ExecutionException {
+        Long storedStart = booking.child("startMillis").getValue(Long.class);
+        if (storedStart != null && storedStart > 0) {
+            return booking;
+        }
+        long[] parsed = parseLegacy(booking);
+        if (parsed == null) {
+            return booking;
+        }
+        converted++;
+        if (dryRun) {
+            return booking;
+        }
+        String startTime = booking.child("startTime").getValue(String.class);
+        String endTime = booking.child("endTime").getValue(String.class);
+        String userId = booking.child("userId").getValue(String.class);
+        UnaryOperator<Object> withEpochTimes = current -> {
+            if (current == null) {
+                // Nothing cached yet, so let the server answer with the real value
+                return null;
+            }
+            if (!(current instanceof Map)) {
+                return Blocking.ABORT;
+            }
+            Map<?, ?> fields = (Map<?, ?>) current;
+            // Converted or moved by a client meanwhile
+            if (fields.get("startMillis") instanceof Long && (Long) fields.get("startMillis") > 0
+                    || !Objects.equals(fields.get("startTime"), startTime)
+                    || !Objects.equals(fields.get("endTime"), endTime)) {
+                return Blocking.ABORT;
+            }
+            Map<Object, Object> next = new HashMap<>(fields);
+            next.put("startMillis", parsed[0]);
+            next.put("endMillis", parsed[1]);
+            next.put("timeZoneId", legacyZoneId);
+            return next;
+        };
+        Blocking.transact(booking.getRef(), withEpochTimes);
+        if (userId != null) {
+            Blocking.transact(rootRef.child("userBookings").child(userId).child(booking.getKey()), withEpochTimes);
+        }
+        return Blocking.read(booking.getRef());
+    }
+
+    /**
+     * Reads a booking's legacy wall-clock strings in the zone given to the job
+     *
+     * @return {start, end} in epoch milliseconds, or null without a zone or parseable strings
+     */
+    private long[] parseLegacy(DataSnapshot booking) {
+        if (legacyZoneId == null) {
+            return null;
+        }
+        long start = Booking.parseLegacy(booking.child("startTime").getValue(String.class), legacyZoneId);
+        long end = Booking.parseLegacy(booking.child("endTime").getValue(String.class), legacyZoneId);
+        return start > 0 && end > 0 ? new long[]{start, end} : null;
+    }
+
+    /**
+     * Removes everything an earlier attempt wrote, once the booking is gone or
+     * can no longer be backfilled
+     */
+    private void clear(String bookingId, Footprint previous)
+            throws InterruptedException, ExecutionException {
+        if (previous == null || dryRun) {
+            return;
+        }
+        Map<String, Object> updates = new HashMap<>();
+        for (String day : previous.days) {
+            updates.put("availability/" + previous.spaceType + "/" + day + "/" + bookingId, null);
+        }
+        Blocking.update(rootRef, updates);
+        for (Map.Entry<String, Object> claim : previous.slots.entrySet()) {
+            release(previous.spaceType, claim.getKey(), claim.getValue());
+        }
+    }
+
+    /**
+     * Frees a slot an earlier attempt claimed, unless a client has written it since
+     */
+    private void release(String spaceType, String slot, Object claimed)
+            throws InterruptedException, ExecutionException {
+        Blocking.compareAndSet(rootRef.child("slots").child(spaceType).child(slot), claimed, null);
+    }
+
+    /**
+     * The day entries and slot claims one applied booking state wrote
+     */
+    private static final class Footprint {
+        final String spaceType;
+        final List<String> days;
+        // Slot key to the claim as it settled
+        final Map<String, Object> slots = new HashMap<>();
+
+        Footprint(String spaceType, List<String> days) {
+            this.spaceType = spaceType;
+            this.days = days;
+        }
+
+        boolean holdsDay(String spaceType, String day) {
+            return this.spaceType.equals(spaceType) && days.contains(day);
+        }
+    }
+}
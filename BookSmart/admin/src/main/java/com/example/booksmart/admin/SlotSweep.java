@@ -0,0 +1,108 @@
+package com.example.booksmart.admin;
+
+import com.example.booksmart.core.BookingSlots;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseReference;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Puts every slot under slots/ back in line with the booking it names.
+ * A claim is released if its booking was never written (the app was killed
+ * between reserving and writing), is cancelled, or no longer covers the slot;
+ * a claim left at another version by an abandoned edit is re-stamped with the
+ * booking's current version. Each change is a compare-and-set against the
+ * value read, so a slot a client touches meanwhile is left alone.
+ */
+final class SlotSweep {
+    // Younger claims may still be waiting for their booking write
+    static final long GRACE_MILLIS = 10 * 60 * 1000L;
+
+    private final DatabaseReference rootRef;
+    private final boolean dryRun;
+    // Booking id to its snapshot, which may not exist
+    private final Map<String, DataSnapshot> bookings = new HashMap<>();
+
+    SlotSweep(DatabaseReference rootRef, boolean dryRun) {
+        this.rootRef = rootRef;
+        this.dryRun = dryRun;
+    }
+
+    void run() throws InterruptedException, ExecutionException {
+        long cutoff = System.currentTimeMillis() - GRACE_MILLIS;
+        int released = 0;
+        int restamped = 0;
+        for (DataSnapshot space : Blocking.read(rootRef.child("slots")).getChildren()) {
+            for (DataSnapshot day : space.getChildren()) {
+                for (DataSnapshot slot : day.getChildren()) {
+                    Object value = slot.getValue();
+                    if (BookingSlots.claimedAtOf(value) > cutoff) {
+                        continue;
+                    }
+                    String slotKey = day.getKey() + "/" + slot.getKey();
+                    Object settled = settle(space.getKey(), slotKey, value);
+                    if (Objects.equals(settled, value)) {
+                        continue;
+                    }
+                    if (!dryRun && !Blocking.compareAndSet(slot.getRef(), value, settled)) {
+                        continue;
+                    }
+                    if (settled == null) {
+                        released++;
+                    } else {
+                        restamped++;
+                    }
+                    System.out.println((settled == null ? "release " : "restamp ")
+                            + space.getKey() + "/" + slotKey + " (" + BookingSlots.bookingIdOf(value) + ")");
+                }
+            }
+        }
+        System.out.println((dryRun ? "Would release " : "Released ") + released
+                + " slots and re-stamp " + restamped);
+    }
+
+    /**
+     * @return The value the slot should hold, null if it should be free
+     */
+    private Object settle(String spaceType, String slotKey, Object value)
+            throws InterruptedException, ExecutionException {
+        String bookingId = BookingSlots.bookingIdOf(value);
+        if (bookingId == null) {
+            return null;
+        }
+        DataSnapshot booking = booking(bookingId);
+        if (!booking.exists()
+                || "cancelled".equals(booking.child("status").getValue(String.class))
+                || !spaceType.equals(booking.child("spaceType").getValue(String.class))) {
+            return null;
+        }
+        Long start = booking.child("startMillis").getValue(Long.class);
+        Long end = booking.child("endMillis").getValue(Long.class);
+        if (start == null || end == null) {
+            // Legacy booking without epoch times; the backfill gives it some first
+            return value;
+        }
+        if (!BookingSlots.slotKeys(start, end).contains(slotKey)) {
+            return null;
+        }
+        Long version = booking.child("version").getValue(Long.class);
+        long current = version != null ? version : 0;
+        if (value instanceof Map && BookingSlots.versionOf(value) == current) {
+            return value;
+        }
+        return BookingSlots.entry(bookingId, booking.child("userId").getValue(String.class), current,
+                BookingSlots.claimedAtOf(value));
+    }
+
+    private DataSnapshot booking(String bookingId) throws InterruptedException, ExecutionException {
+        DataSnapshot booking = bookings.get(bookingId);
+        if (booking == null) {
+            booking = Blocking.read(rootRef.child("bookings").child(bookingId));
+            bookings.put(bookingId, booking);
+        }
+        return booking;
+    }
+}
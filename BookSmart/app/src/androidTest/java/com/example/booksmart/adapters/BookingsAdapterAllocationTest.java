@@ -0,0 +1,75 @@
+package com.example.booksmart.adapters;
+
+import android.content.Context;
+import android.os.Debug;
+import android.view.ContextThemeWrapper;
+import android.widget.FrameLayout;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.booksmart.R;
+import com.example.booksmart.core.KeyedList;
+import com.example.booksmart.models.Booking;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that {@link BookingsAdapter} binds rows without allocating once their
+ * models are prepared.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BookingsAdapterAllocationTest {
+    private static final long HOUR = 60 * 60 * 1000L;
+    private static final long BASE = 1_700_000_000_000L;
+    private static final String[] STATUSES = {"confirmed", "pending", "cancelled", "on hold"};
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void bind_allocatesNothing() {
+        int[] allocations = new int[1];
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            Context context = new ContextThemeWrapper(
+                    InstrumentationRegistry.getInstrumentation().getTargetContext(), R.style.Theme_BookSmart);
+            KeyedList<Booking> bookings = new KeyedList<>();
+            BookingsAdapter adapter = new BookingsAdapter(context, bookings);
+            String previousKey = null;
+            for (int i = 0; i < STATUSES.length; i++) {
+                Booking booking = new Booking("user", "Study Room", "user@example.com",
+                        BASE + i * HOUR, BASE + (i + 1) * HOUR, "UTC");
+                booking.setBookingId("booking" + i);
+                booking.setStatus(STATUSES[i]);
+                bookings.onAdded(booking.getBookingId(), booking, previousKey);
+                previousKey = booking.getBookingId();
+            }
+
+            FrameLayout parent = new FrameLayout(context);
+            BookingsAdapter.BookingViewHolder[] holders = {
+                    adapter.onCreateViewHolder(parent, 0),
+                    adapter.onCreateViewHolder(parent, 0)
+            };
+            // Warm up: prepare every model and load every status background once per holder
+            for (BookingsAdapter.BookingViewHolder holder : holders) {
+                for (int position = 0; position < bookings.size(); position++) {
+                    adapter.onBindViewHolder(holder, position);
+                }
+            }
+
+            Debug.startAllocCounting();
+            Debug.resetThreadAllocCount();
+            for (int round = 0; round < 100; round++) {
+                for (BookingsAdapter.BookingViewHolder holder : holders) {
+                    for (int position = 0; position < bookings.size(); position++) {
+                        adapter.onBindViewHolder(holder, position);
+                    }
+                }
+            }
+            Debug.stopAllocCounting();
+            allocations[0] = Debug.getThreadAllocCount();
+        });
+        assertEquals(0, allocations[0]);
+    }
+}
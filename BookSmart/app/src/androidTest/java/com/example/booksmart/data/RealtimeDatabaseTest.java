@@ -0,0 +1,35 @@
+package com.example.booksmart.data;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.google.firebase.database.FirebaseDatabase;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Checks that {@link RealtimeDatabase} creates one configured instance, whether
+ * the warm-up thread or a caller gets there first.
+ */
+@RunWith(AndroidJUnit4.class)
+public class RealtimeDatabaseTest {
+
+    @Test
+    public void get_returnsTheSameInstanceFromAnyThread() throws InterruptedException {
+        AtomicReference<FirebaseDatabase> fromBackground = new AtomicReference<>();
+        Thread warmUp = new Thread(() -> fromBackground.set(RealtimeDatabase.get()));
+        warmUp.start();
+        FirebaseDatabase first = RealtimeDatabase.get();
+        warmUp.join();
+
+        assertNotNull(first);
+        assertSame(first, RealtimeDatabase.get());
+        assertSame(first, fromBackground.get());
+        assertNotNull(first.getReference());
+    }
+}
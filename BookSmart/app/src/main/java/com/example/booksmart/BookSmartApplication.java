@@ -1,13 +1,21 @@
 package com.example.booksmart;
 
 import android.app.Application;
-import com.google.firebase.database.FirebaseDatabase;
+
+import com.example.booksmart.data.RealtimeDatabase;
+import com.example.booksmart.data.local.LocalStore;
+import com.example.booksmart.notifications.ReminderScheduler;
+import com.example.booksmart.spaces.SpaceCatalogue;
 
 public class BookSmartApplication extends Application {
     @Override
     public void onCreate() {
         super.onCreate();
-        // Configure Firebase Database persistence
-        FirebaseDatabase.getInstance().setPersistenceEnabled(true);
+        // These only wire up singletons; their databases open on first use
+        LocalStore.init(this);
+        SpaceCatalogue.init();
+        ReminderScheduler.init(this);
+        // Realtime Database (with persistence) is not needed for the first frame
+        RealtimeDatabase.warmUpInBackground();
     }
-} 
\ No newline at end of file
+}
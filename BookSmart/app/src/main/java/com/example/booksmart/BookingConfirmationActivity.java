@@ -1,23 +1,25 @@
 package com.example.booksmart;
 
 import android.app.DatePickerDialog;
-import android.app.ProgressDialog;
 import android.app.TimePickerDialog;
 import android.content.Intent;
 import android.os.Bundle;
+import android.view.View;
+import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.button.MaterialButton;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
 import com.example.booksmart.models.Booking;
 import com.example.booksmart.models.BookingTemplate;
+import com.example.booksmart.models.Space;
 
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Locale;
 
@@ -26,16 +28,34 @@ import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.ValueEventListener;
 import androidx.annotation.NonNull;
-import java.text.ParseException;
-import java.util.Date;
 
 import androidx.appcompat.app.AlertDialog;
+import android.widget.ArrayAdapter;
 import android.widget.EditText;
+import android.widget.LinearLayout;
+import android.widget.Spinner;
 import android.text.InputType;
 import java.util.ArrayList;
 import java.util.List;
 
-import com.example.booksmart.notifications.NotificationHelper;
+import com.example.booksmart.conflicts.ConflictChecker;
+import com.example.booksmart.conflicts.SlotSuggestions;
+import com.example.booksmart.conflicts.SpaceConflictIndex;
+import com.example.booksmart.core.BookedInterval;
+import com.example.booksmart.core.BookingBatch;
+import com.example.booksmart.core.BookingTimeCodec;
+import com.example.booksmart.core.BookingException;
+import com.example.booksmart.core.BookingRepository;
+import com.example.booksmart.core.BookingSlots;
+import com.example.booksmart.core.OpeningHours;
+import com.example.booksmart.core.Recurrence;
+import com.example.booksmart.core.SeriesConflicts;
+import com.example.booksmart.core.SlotFinder;
+import com.example.booksmart.data.FirebaseBookingRepository;
+import com.example.booksmart.data.RealtimeDatabase;
+import com.example.booksmart.data.local.LocalStore;
+import com.example.booksmart.notifications.ReminderScheduler;
+import com.example.booksmart.spaces.SpaceCatalogue;
 
 /**
  * Activity for confirming and finalizing space bookings.
@@ -43,9 +63,13 @@ import com.example.booksmart.notifications.NotificationHelper;
  */
 public class BookingConfirmationActivity extends AppCompatActivity {
 
+    // Longest series booked in one go; unbounded rules are cut off here
+    private static final int MAX_SERIES_OCCURRENCES = 52;
+    private static final int DEFAULT_SERIES_COUNT = 10;
+
     // UI Components
     private TextInputEditText dateInput, startTimeInput, endTimeInput;
-    private MaterialButton confirmBookingButton, saveTemplateButton;
+    private MaterialButton confirmBookingButton, saveTemplateButton, multiSpaceButton;
     private Calendar selectedDate, startTime, endTime;
 
     // Firebase components
@@ -53,6 +77,18 @@ public class BookingConfirmationActivity extends AppCompatActivity {
     private DatabaseReference bookingsRef, templatesRef;
     private String selectedSpace;
     private BottomNavigationView bottomNav;
+    private final BookingRepository bookingRepository = FirebaseBookingRepository.getInstance();
+    private final BookingTimeCodec timeCodec = BookingTimeCodec.systemDefault();
+
+    // Live availability of the selected space and day
+    private TextView availabilityText;
+    private SpaceConflictIndex availabilityIndex;
+    private final SpaceConflictIndex.OnChangeListener availabilityListener = index -> updateAvailability();
+    private boolean bookingInFlight;
+
+    // Repeat rule of the template the times came from, if it has one
+    @Nullable
+    private Recurrence templateRecurrence;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -61,8 +97,8 @@ public class BookingConfirmationActivity extends AppCompatActivity {
 
         // Initialize Firebase
         firebaseAuth = FirebaseAuth.getInstance();
-        bookingsRef = FirebaseDatabase.getInstance().getReference("bookings");
-        templatesRef = FirebaseDatabase.getInstance().getReference("templates");
+        bookingsRef = RealtimeDatabase.get().getReference("bookings");
+        templatesRef = RealtimeDatabase.get().getReference("templates");
 
         // Initialize calendars first
         selectedDate = Calendar.getInstance();
@@ -85,13 +121,23 @@ public class BookingConfirmationActivity extends AppCompatActivity {
         setupBottomNavigation();
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (availabilityIndex != null) {
+            availabilityIndex.removeOnChangeListener(availabilityListener);
+        }
+    }
+
     private void initializeViews() {
         dateInput = findViewById(R.id.dateInput);
         startTimeInput = findViewById(R.id.startTimeInput);
         endTimeInput = findViewById(R.id.endTimeInput);
         confirmBookingButton = findViewById(R.id.confirmBookingButton);
         saveTemplateButton = findViewById(R.id.saveTemplateButton);
+        multiSpaceButton = findViewById(R.id.multiSpaceButton);
         bottomNav = findViewById(R.id.bottomNav);
+        availabilityText = findViewById(R.id.availabilityText);
     }
 
     private void setupInputListeners() {
@@ -100,6 +146,7 @@ public class BookingConfirmationActivity extends AppCompatActivity {
         endTimeInput.setOnClickListener(v -> showTimePicker(false));
         confirmBookingButton.setOnClickListener(v -> confirmBooking());
         saveTemplateButton.setOnClickListener(v -> showSaveTemplateDialog());
+        multiSpaceButton.setOnClickListener(v -> showMultiSpaceDialog());
     }
 
     private void showDatePicker() {
@@ -110,6 +157,7 @@ public class BookingConfirmationActivity extends AppCompatActivity {
                     startTime.set(year, month, dayOfMonth);
                     endTime.set(year, month, dayOfMonth);
                     updateDateText();
+                    watchAvailability();
                 },
                 selectedDate.get(Calendar.YEAR),
                 selectedDate.get(Calendar.MONTH),
@@ -126,7 +174,10 @@ public class BookingConfirmationActivity extends AppCompatActivity {
                 (view, hourOfDay, minute) -> {
                     calendar.set(Calendar.HOUR_OF_DAY, hourOfDay);
                     calendar.set(Calendar.MINUTE, minute);
+                    // Bookings claim whole 15-minute slots, so any other minute would overlap a neighbour
+                    calendar.setTimeInMillis(BookingSlots.snap(calendar.getTimeInMillis()));
                     updateTimeText(isStartTime);
+                    updateAvailability();
                 },
                 calendar.get(Calendar.HOUR_OF_DAY),
                 calendar.get(Calendar.MINUTE),
@@ -135,16 +186,14 @@ public class BookingConfirmationActivity extends AppCompatActivity {
     }
 
     private void updateDateText() {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
-        dateInput.setText(dateFormat.format(selectedDate.getTime()));
+        dateInput.setText(timeCodec.formatDisplayDate(selectedDate.getTimeInMillis()));
     }
 
     private void updateTimeText(boolean isStartTime) {
-        SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm", Locale.getDefault());
         if (isStartTime) {
-            startTimeInput.setText(timeFormat.format(startTime.getTime()));
+            startTimeInput.setText(timeCodec.formatTime(startTime.getTimeInMillis()));
         } else {
-            endTimeInput.setText(timeFormat.format(endTime.getTime()));
+            endTimeInput.setText(timeCodec.formatTime(endTime.getTimeInMillis()));
         }
     }
 
@@ -155,84 +204,324 @@ public class BookingConfirmationActivity extends AppCompatActivity {
             return;
         }
 
-        if (!validateBookingTimes()) {
+        if (bookingInFlight || !validateBookingTimes() || !validateOpeningHours()) {
+            return;
+        }
+
+        if (templateRecurrence != null) {
+            new AlertDialog.Builder(this)
+                    .setTitle("Repeating Template")
+                    .setMessage("Book every date of the series starting "
+                            + timeCodec.formatDisplayDate(bookingStartMillis()) + ", or just this date?")
+                    .setPositiveButton("Book Series", (dialog, which) -> bookSeries(currentUser))
+                    .setNeutralButton("Just This Date", (dialog, which) -> confirmSingleBooking(currentUser))
+                    .setNegativeButton("Cancel", null)
+                    .show();
+            return;
+        }
+        confirmSingleBooking(currentUser);
+    }
+
+    /**
+     * Books the picked times in this space and any others chosen, e.g. a hall
+     * plus breakout rooms, as one batch
+     */
+    private void showMultiSpaceDialog() {
+        FirebaseUser currentUser = firebaseAuth.getCurrentUser();
+        if (currentUser == null) {
+            Toast.makeText(this, "Please login first", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        if (bookingInFlight || !validateBookingTimes()) {
             return;
         }
 
-        // Show loading dialog
-        ProgressDialog progressDialog = new ProgressDialog(this);
-        progressDialog.setMessage("Checking availability...");
-        progressDialog.show();
+        List<Space> catalogue = SpaceCatalogue.getInstance().spaces();
+        String[] spaces = new String[catalogue.size()];
+        for (int i = 0; i < spaces.length; i++) {
+            spaces[i] = catalogue.get(i).getId();
+        }
+        boolean[] checked = new boolean[spaces.length];
+        for (int i = 0; i < spaces.length; i++) {
+            checked[i] = spaces[i].equals(selectedSpace);
+        }
+        new AlertDialog.Builder(this)
+                .setTitle("Book Several Spaces")
+                .setMultiChoiceItems(spaces, checked, (dialog, which, isChecked) -> checked[which] = isChecked)
+                .setPositiveButton("All or Nothing",
+                        (dialog, which) -> bookSpaces(currentUser, spaces, checked, true))
+                .setNeutralButton("What's Free",
+                        (dialog, which) -> bookSpaces(currentUser, spaces, checked, false))
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
 
-        // Check for conflicts
-        checkBookingConflicts(startTime, endTime, selectedSpace, (hasConflict, conflictTime) -> {
-            progressDialog.dismiss();
+    private void bookSpaces(FirebaseUser currentUser, String[] spaces, boolean[] checked, boolean allOrNothing) {
+        List<String> chosen = new ArrayList<>();
+        for (int i = 0; i < spaces.length; i++) {
+            if (checked[i]) {
+                chosen.add(spaces[i]);
+            }
+        }
+        if (chosen.isEmpty()) {
+            Toast.makeText(this, "No spaces selected", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        setBookingInFlight(true);
+        createMultiSpace(currentUser, chosen, allOrNothing);
+    }
 
-            if (hasConflict) {
-                showConflictDialog(conflictTime);
+    private void confirmSingleBooking(FirebaseUser currentUser) {
+        // A conflict already visible in the live snapshot needs no round trip
+        long startMillis = bookingStartMillis();
+        long endMillis = bookingEndMillis();
+        if (availabilityIndex != null && availabilityIndex.isReady(startMillis, endMillis)) {
+            List<BookedInterval> conflicts = availabilityIndex.findConflicts(startMillis, endMillis, null);
+            if (!conflicts.isEmpty()) {
+                showConflictDialog(availabilityIndex.describe(conflicts.get(0)));
             } else {
-                // Proceed with booking
                 createBooking(currentUser);
             }
+            return;
+        }
+
+        // Slots only exist for newer bookings, so older ones still need the availability check
+        setBookingInFlight(true);
+        ConflictChecker.check(selectedSpace, startMillis, endMillis, null,
+                new ConflictChecker.OnConflictCheckListener() {
+                    @Override
+                    public void onConflictCheckComplete(List<BookedInterval> conflicts, String description) {
+                        if (isFinishing()) {
+                            return;
+                        }
+                        if (conflicts.isEmpty()) {
+                            createBooking(currentUser);
+                        } else {
+                            setBookingInFlight(false);
+                            showConflictDialog(description);
+                        }
+                    }
+
+                    @Override
+                    public void onConflictCheckFailed(String message) {
+                        setBookingInFlight(false);
+                        Toast.makeText(BookingConfirmationActivity.this,
+                                "Could not check availability: " + message, Toast.LENGTH_SHORT).show();
+                    }
+                });
+    }
+
+    /**
+     * Keeps the selected day's availability live and re-checks on every change
+     */
+    private void watchAvailability() {
+        if (selectedSpace == null) {
+            return;
+        }
+        if (availabilityIndex != null) {
+            availabilityIndex.removeOnChangeListener(availabilityListener);
+        }
+        availabilityIndex = SpaceConflictIndex.forSpace(selectedSpace);
+        availabilityIndex.addOnChangeListener(availabilityListener);
+
+        Calendar dayStart = (Calendar) selectedDate.clone();
+        dayStart.set(Calendar.HOUR_OF_DAY, 0);
+        dayStart.set(Calendar.MINUTE, 0);
+        Calendar dayEnd = (Calendar) dayStart.clone();
+        dayEnd.add(Calendar.DAY_OF_MONTH, 1);
+        availabilityIndex.prefetch(dayStart.getTimeInMillis(), dayEnd.getTimeInMillis());
+        updateAvailability();
+    }
+
+    /**
+     * Shows whether the picked times are free, from memory when the day is
+     * loaded and from the local cache while it is still loading
+     */
+    private void updateAvailability() {
+        if (availabilityIndex == null || dateInput.length() == 0
+                || startTimeInput.length() == 0 || endTimeInput.length() == 0) {
+            availabilityText.setVisibility(View.GONE);
+            return;
+        }
+        long startMillis = bookingStartMillis();
+        long endMillis = bookingEndMillis();
+        if (endMillis <= startMillis) {
+            availabilityText.setVisibility(View.GONE);
+            return;
+        }
+        availabilityText.setVisibility(View.VISIBLE);
+
+        if (availabilityIndex.isReady(startMillis, endMillis)) {
+            List<BookedInterval> conflicts = availabilityIndex.findConflicts(startMillis, endMillis, null);
+            showAvailability(conflicts.isEmpty() ? null : conflicts.get(0), false);
+            return;
+        }
+
+        availabilityText.setText("Checking availability...");
+        availabilityText.setTextColor(ContextCompat.getColor(this, R.color.grey_700));
+        SpaceConflictIndex index = availabilityIndex;
+        LocalStore.getInstance().findConflicts(selectedSpace, startMillis, endMillis, null, (cached, syncedAt) -> {
+            // Stale if the picks changed or the live snapshot answered first
+            if (syncedAt == 0 || index != availabilityIndex || startMillis != bookingStartMillis()
+                    || endMillis != bookingEndMillis() || index.isReady(startMillis, endMillis)) {
+                return;
+            }
+            showAvailability(cached.isEmpty() ? null : cached.get(0), true);
         });
     }
 
+    private void showAvailability(@Nullable BookedInterval conflict, boolean cached) {
+        if (conflict != null) {
+            availabilityText.setText("Already booked " + availabilityIndex.describe(conflict));
+            availabilityText.setTextColor(ContextCompat.getColor(this, R.color.red_500));
+        } else {
+            availabilityText.setText(cached ? "Looks available, confirming..." : "Available");
+            availabilityText.setTextColor(ContextCompat.getColor(this, R.color.green_700));
+        }
+    }
+
+    /**
+     * Selected date combined with the start time picker, to the minute
+     */
+    private long bookingStartMillis() {
+        return combine(selectedDate, startTime);
+    }
+
+    private long bookingEndMillis() {
+        return combine(selectedDate, endTime);
+    }
+
+    private static long combine(Calendar date, Calendar time) {
+        Calendar combined = (Calendar) date.clone();
+        combined.set(Calendar.HOUR_OF_DAY, time.get(Calendar.HOUR_OF_DAY));
+        combined.set(Calendar.MINUTE, time.get(Calendar.MINUTE));
+        combined.set(Calendar.SECOND, 0);
+        combined.set(Calendar.MILLISECOND, 0);
+        return combined.getTimeInMillis();
+    }
+
+    private void setBookingInFlight(boolean inFlight) {
+        bookingInFlight = inFlight;
+        confirmBookingButton.setEnabled(!inFlight);
+        multiSpaceButton.setEnabled(!inFlight);
+        confirmBookingButton.setText(inFlight ? "Booking..." : "Confirm Booking");
+    }
+
     private void showConflictDialog(String conflictTime) {
-        new AlertDialog.Builder(this)
-                .setTitle("Booking Conflict")
-                .setMessage("This space is already booked during " + conflictTime +
-                        "\n\nWould you like to:")
-                .setPositiveButton("Choose Another Time", (dialog, which) -> {
-                    // Reset time inputs
-                    startTimeInput.setText("");
-                    endTimeInput.setText("");
-                })
-                .setNeutralButton("Try Another Space", (dialog, which) -> {
-                    // Go back to space selection
-                    navigateToBookingPage();
-                })
-                .setNegativeButton("Cancel", null)
-                .show();
+        long startMillis = bookingStartMillis();
+        long endMillis = bookingEndMillis();
+        SlotSuggestions.find(selectedSpace, startMillis, endMillis, null, (sameSpace, otherSpaces) -> {
+            if (isFinishing()) {
+                return;
+            }
+            List<SlotFinder.Slot> suggestions = new ArrayList<>(sameSpace);
+            suggestions.addAll(otherSpaces);
+            AlertDialog.Builder builder = new AlertDialog.Builder(this)
+                    .setPositiveButton("Choose Another Time", (dialog, which) -> {
+                        // Reset time inputs
+                        startTimeInput.setText("");
+                        endTimeInput.setText("");
+                        updateAvailability();
+                    })
+                    .setNeutralButton("Try Another Space", (dialog, which) -> {
+                        // Go back to space selection
+                        navigateToBookingPage();
+                    })
+                    .setNegativeButton("Cancel", null);
+            if (suggestions.isEmpty()) {
+                builder.setTitle("Booking Conflict")
+                        .setMessage("This space is already booked during " + conflictTime +
+                                "\n\nWould you like to:");
+            } else {
+                // A title rather than a message, so the suggestions can be listed below it
+                builder.setTitle("Booked during " + conflictTime + ". Free instead:")
+                        .setItems(describeSuggestions(suggestions),
+                                (dialog, which) -> applySuggestion(suggestions.get(which)));
+            }
+            builder.show();
+        });
+    }
+
+    private String[] describeSuggestions(List<SlotFinder.Slot> suggestions) {
+        String[] labels = new String[suggestions.size()];
+        for (int i = 0; i < labels.length; i++) {
+            SlotFinder.Slot slot = suggestions.get(i);
+            String time = timeCodec.formatDisplayDate(slot.getStartMillis()) + ", "
+                    + timeCodec.formatTime(slot.getStartMillis()) + " - "
+                    + timeCodec.formatTime(slot.getEndMillis());
+            labels[i] = slot.getSpaceType().equals(selectedSpace) ? time : slot.getSpaceType() + ": " + time;
+        }
+        return labels;
+    }
+
+    /**
+     * Fills the pickers (and the space, if it differs) from a suggestion
+     */
+    private void applySuggestion(SlotFinder.Slot slot) {
+        selectedSpace = slot.getSpaceType();
+        selectedDate.setTimeInMillis(slot.getStartMillis());
+        startTime.setTimeInMillis(slot.getStartMillis());
+        endTime.setTimeInMillis(slot.getEndMillis());
+        updateDateText();
+        updateTimeText(true);
+        updateTimeText(false);
+        watchAvailability();
+        Toast.makeText(this, selectedSpace + " selected, tap Confirm to book", Toast.LENGTH_SHORT).show();
     }
 
     private void createBooking(FirebaseUser currentUser) {
         String bookingId = bookingsRef.push().getKey();
         if (bookingId != null) {
-            // Combine date with time
-            Calendar bookingStart = (Calendar) selectedDate.clone();
-            bookingStart.set(Calendar.HOUR_OF_DAY, startTime.get(Calendar.HOUR_OF_DAY));
-            bookingStart.set(Calendar.MINUTE, startTime.get(Calendar.MINUTE));
-
-            Calendar bookingEnd = (Calendar) selectedDate.clone();
-            bookingEnd.set(Calendar.HOUR_OF_DAY, endTime.get(Calendar.HOUR_OF_DAY));
-            bookingEnd.set(Calendar.MINUTE, endTime.get(Calendar.MINUTE));
-
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault());
-
             Booking booking = new Booking(
                     currentUser.getUid(),
                     selectedSpace,
                     currentUser.getEmail(),
-                    sdf.format(bookingStart.getTime()),
-                    sdf.format(bookingEnd.getTime()));
+                    bookingStartMillis(),
+                    bookingEndMillis(),
+                    selectedDate.getTimeZone().getID());
             booking.setBookingId(bookingId);
             booking.setStatus("confirmed");
 
-            bookingsRef.child(bookingId).setValue(booking)
-                    .addOnSuccessListener(aVoid -> {
-                        Toast.makeText(this, "Booking confirmed successfully",
-                                Toast.LENGTH_SHORT).show();
-                        navigateToBookingDetails(booking);
-                    })
-                    .addOnFailureListener(e -> {
-                        Toast.makeText(this, "Failed to save booking: " + e.getMessage(),
-                                Toast.LENGTH_SHORT).show();
-                    });
+            // Slots are claimed before the write, so a concurrent Confirm for the same time loses cleanly
+            setBookingInFlight(true);
+            bookingRepository.create(booking, new BookingRepository.Callback<Booking>() {
+                @Override
+                public void onSuccess(Booking created) {
+                    Toast.makeText(BookingConfirmationActivity.this, "Booking confirmed successfully",
+                            Toast.LENGTH_SHORT).show();
+
+                    ReminderScheduler.getInstance().schedule(created);
+
+                    navigateToBookingDetails(created);
+                }
+
+                @Override
+                public void onFailure(BookingException error) {
+                    setBookingInFlight(false);
+                    if (error.getReason() == BookingException.Reason.SLOT_TAKEN) {
+                        SpaceConflictIndex index = SpaceConflictIndex.forSpace(selectedSpace);
+                        BookedInterval conflict = index.find(error.getConflictingBookingId());
+                        showConflictDialog(conflict != null ? index.describe(conflict) : "the selected time");
+                    } else {
+                        Toast.makeText(BookingConfirmationActivity.this,
+                                "Failed to save booking: " + error.getMessage(), Toast.LENGTH_SHORT).show();
+                    }
+                }
+            });
+        }
+    }
 
-            // Schedule notification
-            NotificationHelper notificationHelper = new NotificationHelper(this);
-            notificationHelper.scheduleBookingReminder(booking);
+    /**
+     * Checks the picked times against the space's opening hours, from the
+     * cached catalogue. A series repeats the same times, so its first date stands for all.
+     */
+    private boolean validateOpeningHours() {
+        OpeningHours hours = SpaceCatalogue.getInstance().hoursOf(selectedSpace);
+        if (!hours.covers(bookingStartMillis(), bookingEndMillis(), selectedDate.getTimeZone())) {
+            Toast.makeText(this, selectedSpace + " is only open " + hours, Toast.LENGTH_SHORT).show();
+            return false;
         }
+        return true;
     }
 
     private boolean validateBookingTimes() {
@@ -249,6 +538,11 @@ public class BookingConfirmationActivity extends AppCompatActivity {
             return false;
         }
 
+        if (!BookingSlots.isAligned(bookingStartMillis(), bookingEndMillis())) {
+            Toast.makeText(this, "Please pick times on the quarter hour", Toast.LENGTH_SHORT).show();
+            return false;
+        }
+
         return true;
     }
 
@@ -285,53 +579,6 @@ public class BookingConfirmationActivity extends AppCompatActivity {
         });
     }
 
-    private void checkBookingConflicts(Calendar startTime, Calendar endTime, String spaceType,
-            OnConflictCheckListener listener) {
-        DatabaseReference bookingsRef = FirebaseDatabase.getInstance().getReference("bookings");
-
-        bookingsRef.orderByChild("spaceType").equalTo(spaceType)
-                .addListenerForSingleValueEvent(new ValueEventListener() {
-                    @Override
-                    public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-                        boolean hasConflict = false;
-                        String conflictTime = "";
-
-                        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault());
-
-                        for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
-                            Booking existingBooking = snapshot.getValue(Booking.class);
-                            if (existingBooking != null && !"cancelled".equals(existingBooking.getStatus())) {
-                                try {
-                                    Date existingStart = sdf.parse(existingBooking.getStartTime());
-                                    Date existingEnd = sdf.parse(existingBooking.getEndTime());
-
-                                    if (existingStart != null && existingEnd != null) {
-                                        // Check for overlap
-                                        if (!(endTime.getTime().before(existingStart) ||
-                                                startTime.getTime().after(existingEnd))) {
-                                            hasConflict = true;
-                                            conflictTime = String.format("%s - %s",
-                                                    existingBooking.getStartTime(),
-                                                    existingBooking.getEndTime());
-                                            break;
-                                        }
-                                    }
-                                } catch (ParseException e) {
-                                    e.printStackTrace();
-                                }
-                            }
-                        }
-
-                        listener.onConflictCheckComplete(hasConflict, conflictTime);
-                    }
-
-                    @Override
-                    public void onCancelled(@NonNull DatabaseError error) {
-                        listener.onConflictCheckComplete(false, "");
-                    }
-                });
-    }
-
     private void showSaveTemplateDialog() {
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
         builder.setTitle("Save as Template");
@@ -340,12 +587,29 @@ public class BookingConfirmationActivity extends AppCompatActivity {
         final EditText input = new EditText(this);
         input.setInputType(InputType.TYPE_CLASS_TEXT);
         input.setHint("Enter template name");
-        builder.setView(input);
+
+        // Repeat options, anchored on the selected date's weekday
+        String weekday = selectedDate.getDisplayName(Calendar.DAY_OF_WEEK, Calendar.LONG, Locale.getDefault());
+        final Spinner repeat = new Spinner(this);
+        repeat.setAdapter(new ArrayAdapter<>(this, android.R.layout.simple_spinner_dropdown_item, new String[]{
+                "Does not repeat", "Every day", "Every week on " + weekday, "Every weekday"}));
+        final EditText occurrences = new EditText(this);
+        occurrences.setInputType(InputType.TYPE_CLASS_NUMBER);
+        occurrences.setHint("Number of dates");
+        occurrences.setText(String.valueOf(DEFAULT_SERIES_COUNT));
+
+        LinearLayout form = new LinearLayout(this);
+        form.setOrientation(LinearLayout.VERTICAL);
+        form.addView(input);
+        form.addView(repeat);
+        form.addView(occurrences);
+        builder.setView(form);
 
         builder.setPositiveButton("Save", (dialog, which) -> {
             String templateName = input.getText().toString().trim();
             if (!templateName.isEmpty()) {
-                saveBookingTemplate(templateName);
+                saveBookingTemplate(templateName,
+                        repeatRule(repeat.getSelectedItemPosition(), occurrences.getText().toString()));
             }
         });
         builder.setNegativeButton("Cancel", (dialog, which) -> dialog.cancel());
@@ -353,7 +617,35 @@ public class BookingConfirmationActivity extends AppCompatActivity {
         builder.show();
     }
 
-    private void saveBookingTemplate(String templateName) {
+    /**
+     * Builds the rule for a repeat option of the save dialog
+     *
+     * @return RRULE text, or null for "Does not repeat"
+     */
+    @Nullable
+    private String repeatRule(int option, String countText) {
+        if (option == 0) {
+            return null;
+        }
+        int count;
+        try {
+            count = Math.max(1, Math.min(MAX_SERIES_OCCURRENCES, Integer.parseInt(countText.trim())));
+        } catch (NumberFormatException e) {
+            count = DEFAULT_SERIES_COUNT;
+        }
+        switch (option) {
+            case 1:
+                return Recurrence.every(Recurrence.Frequency.DAILY, 1, count).toRule();
+            case 2:
+                return Recurrence.every(Recurrence.Frequency.WEEKLY, 1, count,
+                        selectedDate.get(Calendar.DAY_OF_WEEK)).toRule();
+            default:
+                return Recurrence.every(Recurrence.Frequency.WEEKLY, 1, count, Calendar.MONDAY, Calendar.TUESDAY,
+                        Calendar.WEDNESDAY, Calendar.THURSDAY, Calendar.FRIDAY).toRule();
+        }
+    }
+
+    private void saveBookingTemplate(String templateName, @Nullable String recurrence) {
         FirebaseUser currentUser = firebaseAuth.getCurrentUser();
         if (currentUser == null)
             return;
@@ -363,14 +655,14 @@ public class BookingConfirmationActivity extends AppCompatActivity {
         if (templateId == null)
             return;
 
-        SimpleDateFormat sdf = new SimpleDateFormat("HH:mm", Locale.getDefault());
         BookingTemplate template = new BookingTemplate(
                 currentUser.getUid(),
                 templateName,
                 selectedSpace,
-                sdf.format(startTime.getTime()),
-                sdf.format(endTime.getTime()));
+                timeCodec.formatTime(startTime.getTimeInMillis()),
+                timeCodec.formatTime(endTime.getTimeInMillis()));
         template.setTemplateId(templateId);
+        template.setRecurrence(recurrence);
 
         // Save directly under templates node
         templatesRef.child(templateId).setValue(template)
@@ -426,80 +718,238 @@ public class BookingConfirmationActivity extends AppCompatActivity {
     }
 
     private void loadTemplateData(BookingTemplate template) {
-        try {
-            SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm", Locale.getDefault());
-
-            // Set start time
-            Date startDate = timeFormat.parse(template.getStartTime());
-            if (startDate != null) {
-                startTime.set(Calendar.HOUR_OF_DAY, startDate.getHours());
-                startTime.set(Calendar.MINUTE, startDate.getMinutes());
-                startTimeInput.setText(template.getStartTime());
-            }
-
-            // Set end time
-            Date endDate = timeFormat.parse(template.getEndTime());
-            if (endDate != null) {
-                endTime.set(Calendar.HOUR_OF_DAY, endDate.getHours());
-                endTime.set(Calendar.MINUTE, endDate.getMinutes());
-                endTimeInput.setText(template.getEndTime());
-            }
-        } catch (ParseException e) {
-            e.printStackTrace();
+        templateRecurrence = parseRecurrence(template.getRecurrence());
+        long startOffset = BookingTimeCodec.parseTimeOfDay(template.getStartTime());
+        long endOffset = BookingTimeCodec.parseTimeOfDay(template.getEndTime());
+        if (startOffset == BookingTimeCodec.INVALID || endOffset == BookingTimeCodec.INVALID) {
             Toast.makeText(this, "Error loading template times", Toast.LENGTH_SHORT).show();
+            return;
         }
+
+        // Set start and end time
+        applyTimeOfDay(startTime, startOffset);
+        startTimeInput.setText(template.getStartTime());
+        applyTimeOfDay(endTime, endOffset);
+        endTimeInput.setText(template.getEndTime());
+        updateAvailability();
     }
 
     private void loadTemplateFromIntent(Intent intent) {
         String startTimeStr = intent.getStringExtra("startTime");
         String endTimeStr = intent.getStringExtra("endTime");
 
+        long startOffset = BookingTimeCodec.parseTimeOfDay(startTimeStr);
+        long endOffset = BookingTimeCodec.parseTimeOfDay(endTimeStr);
+        if (startOffset == BookingTimeCodec.INVALID || endOffset == BookingTimeCodec.INVALID) {
+            Toast.makeText(this, "Error loading template times", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        // Set today's date
+        selectedDate = Calendar.getInstance();
+        dateInput.setText(timeCodec.formatDisplayDate(selectedDate.getTimeInMillis()));
+
+        // Apply the template times to today's date
+        startTime = (Calendar) selectedDate.clone();
+        applyTimeOfDay(startTime, startOffset);
+        startTimeInput.setText(startTimeStr);
+
+        endTime = (Calendar) selectedDate.clone();
+        applyTimeOfDay(endTime, endOffset);
+        endTimeInput.setText(endTimeStr);
+
+        // Set selected space
+        selectedSpace = intent.getStringExtra("spaceType");
+        templateRecurrence = parseRecurrence(intent.getStringExtra("recurrence"));
+        watchAvailability();
+    }
+
+    @Nullable
+    private static Recurrence parseRecurrence(@Nullable String rule) {
+        if (rule == null) {
+            return null;
+        }
         try {
-            SimpleDateFormat sdf = new SimpleDateFormat("HH:mm", Locale.getDefault());
-            SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy", Locale.getDefault());
-
-            // Set today's date
-            selectedDate = Calendar.getInstance();
-            dateInput.setText(dateFormat.format(selectedDate.getTime()));
-
-            // Set start time
-            startTime = Calendar.getInstance();
-            Date parsedStartTime = sdf.parse(startTimeStr);
-            if (parsedStartTime != null) {
-                // Copy today's date components to startTime
-                startTime.set(Calendar.YEAR, selectedDate.get(Calendar.YEAR));
-                startTime.set(Calendar.MONTH, selectedDate.get(Calendar.MONTH));
-                startTime.set(Calendar.DAY_OF_MONTH, selectedDate.get(Calendar.DAY_OF_MONTH));
-                // Set the time components
-                startTime.set(Calendar.HOUR_OF_DAY, parsedStartTime.getHours());
-                startTime.set(Calendar.MINUTE, parsedStartTime.getMinutes());
+            return Recurrence.parse(rule);
+        } catch (IllegalArgumentException e) {
+            // A rule this version does not understand books like a one-off template
+            return null;
+        }
+    }
+
+    /**
+     * Expands the template's series from the selected date and checks every
+     * upcoming occurrence against one read of the space's bookings
+     */
+    private void bookSeries(FirebaseUser currentUser) {
+        long now = System.currentTimeMillis();
+        List<Recurrence.Occurrence> occurrences = new ArrayList<>();
+        for (Recurrence.Occurrence occurrence : templateRecurrence.occurrences(selectedDate.getTimeInMillis(),
+                minuteOffset(startTime), minuteOffset(endTime), selectedDate.getTimeZone())) {
+            if (occurrences.size() == MAX_SERIES_OCCURRENCES) {
+                break;
             }
-            startTimeInput.setText(startTimeStr);
-
-            // Set end time
-            endTime = Calendar.getInstance();
-            Date parsedEndTime = sdf.parse(endTimeStr);
-            if (parsedEndTime != null) {
-                // Copy today's date components to endTime
-                endTime.set(Calendar.YEAR, selectedDate.get(Calendar.YEAR));
-                endTime.set(Calendar.MONTH, selectedDate.get(Calendar.MONTH));
-                endTime.set(Calendar.DAY_OF_MONTH, selectedDate.get(Calendar.DAY_OF_MONTH));
-                // Set the time components
-                endTime.set(Calendar.HOUR_OF_DAY, parsedEndTime.getHours());
-                endTime.set(Calendar.MINUTE, parsedEndTime.getMinutes());
+            if (occurrence.getStartMillis() > now) {
+                occurrences.add(occurrence);
             }
-            endTimeInput.setText(endTimeStr);
+        }
+        if (occurrences.isEmpty()) {
+            Toast.makeText(this, "No upcoming dates in this series", Toast.LENGTH_SHORT).show();
+            return;
+        }
 
-            // Set selected space
-            selectedSpace = intent.getStringExtra("spaceType");
+        setBookingInFlight(true);
+        String spaceType = selectedSpace;
+        long spanStart = occurrences.get(0).getStartMillis();
+        long spanEnd = occurrences.get(occurrences.size() - 1).getEndMillis();
+        SpaceConflictIndex.forSpace(spaceType).loadBusy(spanStart, spanEnd, (busy, error) -> {
+            if (isFinishing()) {
+                return;
+            }
+            if (error != null) {
+                setBookingInFlight(false);
+                Toast.makeText(this, "Failed to check availability: " + error.getMessage(),
+                        Toast.LENGTH_SHORT).show();
+                return;
+            }
+            showSeriesReview(currentUser, spaceType, occurrences, SeriesConflicts.find(occurrences, busy));
+        });
+    }
 
-        } catch (ParseException e) {
-            Toast.makeText(this, "Error loading template times", Toast.LENGTH_SHORT).show();
+    private void showSeriesReview(FirebaseUser currentUser, String spaceType,
+            List<Recurrence.Occurrence> occurrences, List<List<BookedInterval>> conflicts) {
+        List<Recurrence.Occurrence> free = new ArrayList<>();
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < occurrences.size(); i++) {
+            Recurrence.Occurrence occurrence = occurrences.get(i);
+            String when = timeCodec.formatDisplayDate(occurrence.getStartMillis()) + ", "
+                    + timeCodec.formatTime(occurrence.getStartMillis()) + " - "
+                    + timeCodec.formatTime(occurrence.getEndMillis());
+            if (conflicts.get(i).isEmpty()) {
+                free.add(occurrence);
+                lines.append(when).append("  Free\n");
+            } else {
+                BookedInterval conflict = conflicts.get(i).get(0);
+                lines.append(when).append("  Booked ").append(timeCodec.formatTime(conflict.getStartMillis()))
+                        .append(" - ").append(timeCodec.formatTime(conflict.getEndMillis())).append('\n');
+            }
         }
+
+        AlertDialog.Builder builder = new AlertDialog.Builder(this)
+                .setTitle(free.size() + " of " + occurrences.size() + " dates free in " + spaceType)
+                .setMessage(lines.toString().trim())
+                .setNegativeButton("Cancel", (dialog, which) -> setBookingInFlight(false))
+                .setOnCancelListener(dialog -> setBookingInFlight(false));
+        if (!free.isEmpty()) {
+            builder.setPositiveButton(free.size() == occurrences.size() ? "Book All" : "Book Free Dates",
+                    (dialog, which) -> createSeries(currentUser, spaceType, free));
+        }
+        builder.show();
+    }
+
+    /**
+     * Books the free occurrences as one best-effort batch. Each booking still
+     * reserves its slots, so a date taken since the check is reported rather than double booked.
+     */
+    private void createSeries(FirebaseUser currentUser, String spaceType, List<Recurrence.Occurrence> occurrences) {
+        List<Booking> bookings = new ArrayList<>();
+        for (Recurrence.Occurrence occurrence : occurrences) {
+            bookings.add(newBooking(currentUser, spaceType, occurrence.getStartMillis(), occurrence.getEndMillis()));
+        }
+        createBatch(bookings, BookingBatch.Mode.BEST_EFFORT, "dates");
+    }
+
+    /**
+     * Books the same times in several spaces at once
+     *
+     * @param allOrNothing Whether to book none of the spaces unless all are free
+     */
+    private void createMultiSpace(FirebaseUser currentUser, List<String> spaceTypes, boolean allOrNothing) {
+        List<Booking> bookings = new ArrayList<>();
+        for (String spaceType : spaceTypes) {
+            bookings.add(newBooking(currentUser, spaceType, bookingStartMillis(), bookingEndMillis()));
+        }
+        createBatch(bookings, allOrNothing ? BookingBatch.Mode.ALL_OR_NOTHING : BookingBatch.Mode.BEST_EFFORT,
+                "spaces");
+    }
+
+    private Booking newBooking(FirebaseUser currentUser, String spaceType, long startMillis, long endMillis) {
+        Booking booking = new Booking(
+                currentUser.getUid(),
+                spaceType,
+                currentUser.getEmail(),
+                startMillis,
+                endMillis,
+                selectedDate.getTimeZone().getID());
+        booking.setStatus("confirmed");
+        return booking;
+    }
+
+    /**
+     * @param noun What the bookings differ by, for the summary toast
+     */
+    private void createBatch(List<Booking> bookings, BookingBatch.Mode mode, String noun) {
+        bookingRepository.createAll(bookings, mode, new BookingRepository.Callback<BookingBatch>() {
+            @Override
+            public void onSuccess(BookingBatch batch) {
+                int taken = 0;
+                int closed = 0;
+                int aborted = 0;
+                for (BookingBatch.Outcome outcome : batch.getOutcomes()) {
+                    if (outcome.isBooked()) {
+                        ReminderScheduler.getInstance().schedule(outcome.getBooking());
+                    } else if (outcome.getError().getReason() == BookingException.Reason.SLOT_TAKEN) {
+                        taken++;
+                    } else if (outcome.getError().getReason() == BookingException.Reason.CLOSED) {
+                        closed++;
+                    } else if (outcome.getError().getReason() == BookingException.Reason.BATCH_ABORTED) {
+                        aborted++;
+                    }
+                }
+                List<Booking> created = batch.getBooked();
+                int failed = bookings.size() - created.size() - taken - closed - aborted;
+                StringBuilder message = new StringBuilder("Booked ").append(created.size()).append(" of ")
+                        .append(bookings.size()).append(' ').append(noun);
+                if (taken > 0) {
+                    message.append(", ").append(taken).append(" taken");
+                }
+                if (closed > 0) {
+                    message.append(", ").append(closed).append(" closed then");
+                }
+                if (failed > 0) {
+                    message.append(", ").append(failed).append(" failed");
+                }
+                if (aborted > 0) {
+                    message.append(", nothing else was booked");
+                }
+                Toast.makeText(BookingConfirmationActivity.this, message, Toast.LENGTH_LONG).show();
+                if (created.isEmpty()) {
+                    setBookingInFlight(false);
+                } else {
+                    navigateToBookingDetails(created.get(0));
+                }
+            }
+
+            @Override
+            public void onFailure(BookingException error) {
+                setBookingInFlight(false);
+                Toast.makeText(BookingConfirmationActivity.this,
+                        "Failed to save booking: " + error.getMessage(), Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    private static long minuteOffset(Calendar time) {
+        return (time.get(Calendar.HOUR_OF_DAY) * 60L + time.get(Calendar.MINUTE)) * 60 * 1000;
     }
 
-    // Interface for conflict check callback
-    interface OnConflictCheckListener {
-        void onConflictCheckComplete(boolean hasConflict, String conflictTime);
+    private static void applyTimeOfDay(Calendar calendar, long offsetMillis) {
+        int minuteOfDay = (int) (offsetMillis / (60 * 1000));
+        calendar.set(Calendar.HOUR_OF_DAY, minuteOfDay / 60);
+        calendar.set(Calendar.MINUTE, minuteOfDay % 60);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        // Templates saved before times were snapped may sit between slots
+        calendar.setTimeInMillis(BookingSlots.snap(calendar.getTimeInMillis()));
     }
 }
\ No newline at end of file
@@ -15,30 +15,42 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
+import com.google.firebase.database.Query;
 import com.example.booksmart.adapters.BookingsAdapter;
+import com.example.booksmart.core.KeyedList;
+import com.example.booksmart.data.BookingHistoryPager;
+import com.example.booksmart.data.BookingWrites;
+import com.example.booksmart.data.ChildListSync;
+import com.example.booksmart.data.RealtimeDatabase;
+import com.example.booksmart.data.local.LocalMirror;
+import com.example.booksmart.data.local.LocalStore;
 import com.example.booksmart.models.Booking;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class BookingDetailsActivity extends AppCompatActivity {
+    // Start fetching the next history page this many rows before the end
+    private static final int PREFETCH_DISTANCE = 5;
 
     private RecyclerView bookingsRecyclerView;
+    private LinearLayoutManager layoutManager;
     private BookingsAdapter bookingsAdapter;
-    private List<Booking> bookingsList;
     private BottomNavigationView bottomNav;
     private FirebaseAuth firebaseAuth;
     private FirebaseDatabase database;
-    private DatabaseReference bookingsRef;
     private TextView noBookingsText;
-    private ValueEventListener bookingsListener;
+    private final KeyedList<Booking> bookings = new KeyedList<>(
+            booking -> !"cancelled".equalsIgnoreCase(booking.getStatus()), BookingsAdapter::sameContent);
+    private ChildListSync<Booking> bookingsSync;
+    private BookingHistoryPager historyPager;
+    private LocalMirror bookingsMirror;
     private DatabaseReference userBookingsRef;
     private BroadcastReceiver logoutReceiver;
+    // Booking a reminder was tapped for, scrolled to once the list loads
+    private String focusBookingId;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -47,8 +59,7 @@ public class BookingDetailsActivity extends AppCompatActivity {
 
         // Initialize Firebase
         firebaseAuth = FirebaseAuth.getInstance();
-        database = FirebaseDatabase.getInstance();
-        bookingsRef = database.getReference("bookings");
+        database = RealtimeDatabase.get();
 
         // Initialize Views
         noBookingsText = findViewById(R.id.noBookingsText);
@@ -56,10 +67,31 @@ public class BookingDetailsActivity extends AppCompatActivity {
 
         // Initialize RecyclerView
         bookingsRecyclerView = findViewById(R.id.bookingsRecyclerView);
-        bookingsRecyclerView.setLayoutManager(new LinearLayoutManager(this));
-        bookingsList = new ArrayList<>();
-        bookingsAdapter = new BookingsAdapter(this, bookingsList);
+        layoutManager = new LinearLayoutManager(this);
+        bookingsRecyclerView.setLayoutManager(layoutManager);
+        bookingsAdapter = new BookingsAdapter(this, bookings);
+        bookingsAdapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                updateEmptyState();
+            }
+
+            @Override
+            public void onItemRangeRemoved(int positionStart, int itemCount) {
+                updateEmptyState();
+            }
+        });
         bookingsRecyclerView.setAdapter(bookingsAdapter);
+        bookingsRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy > 0) {
+                    loadMoreHistoryIfNeeded();
+                }
+            }
+        });
+
+        focusBookingId = getIntent().getStringExtra("bookingId");
 
         // Load bookings
         loadUserBookings();
@@ -100,42 +132,111 @@ public class BookingDetailsActivity extends AppCompatActivity {
 
     private void loadUserBookings() {
         String userId = firebaseAuth.getCurrentUser().getUid();
-        
-        bookingsListener = new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-                bookingsList.clear();
-                for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
+        // Only this user's fan-out index, not the whole bookings node
+        userBookingsRef = database.getReference(BookingWrites.USER_BOOKINGS).child(userId);
+        Query byStartTime = userBookingsRef.orderByChild("startMillis");
+        long now = System.currentTimeMillis();
+
+        // Upcoming bookings stay live: each change deserializes and rebinds only the booking it touches
+        bookingsSync = new ChildListSync<>(byStartTime.startAt(now), bookings,
+                snapshot -> {
                     Booking booking = snapshot.getValue(Booking.class);
-                    if (booking != null && 
-                        booking.getUserId().equals(userId) && 
-                        !"cancelled".equalsIgnoreCase(booking.getStatus())) {
-                        bookingsList.add(booking);
+                    if (booking != null) {
+                        booking.setBookingId(snapshot.getKey());
                     }
+                    return booking;
+                },
+                new ChildListSync.Callback() {
+                    @Override
+                    public void onLoaded() {
+                        updateEmptyState();
+                        scrollToFocusedBooking();
+                        // History goes below the upcoming bookings, a page at a time
+                        loadMoreHistoryIfNeeded();
+                    }
+
+                    @Override
+                    public void onError(DatabaseError error) {
+                        showLoadError(error);
+                    }
+                });
+        historyPager = new BookingHistoryPager(byStartTime, now, BookingHistoryPager.DEFAULT_PAGE_SIZE);
+        bookingsSync.start();
+
+        // Paint cached rows straight away; the sync confirms or drops them when it loads
+        ChildListSync<Booking> sync = bookingsSync;
+        LocalStore localStore = LocalStore.getInstance();
+        localStore.loadUpcoming(userId, now, BookingHistoryPager.DEFAULT_PAGE_SIZE, (cached, syncedAt) -> {
+            if (sync != bookingsSync) {
+                return;
+            }
+            for (Booking booking : cached) {
+                sync.seed(booking.getBookingId(), booking);
+            }
+        });
+        bookingsMirror = localStore.mirrorUpcoming(byStartTime.startAt(now), userId, now);
+        bookingsMirror.start();
+    }
+
+    private void scrollToFocusedBooking() {
+        if (focusBookingId == null) {
+            return;
+        }
+        int position = bookings.positionOf(focusBookingId);
+        focusBookingId = null;
+        if (position >= 0) {
+            bookingsRecyclerView.scrollToPosition(position);
+        }
+    }
+
+    /**
+     * Fetches the next page of past bookings once the list is scrolled near its end
+     */
+    private void loadMoreHistoryIfNeeded() {
+        if (historyPager == null || historyPager.isLoading() || historyPager.isExhausted()) {
+            return;
+        }
+        int lastVisible = layoutManager.findLastVisibleItemPosition();
+        if (lastVisible < bookingsAdapter.getItemCount() - PREFETCH_DISTANCE) {
+            return;
+        }
+        BookingHistoryPager pager = historyPager;
+        pager.loadNextPage(new BookingHistoryPager.Callback() {
+            @Override
+            public void onPage(List<Booking> page) {
+                if (pager != historyPager) {
+                    return;
                 }
-                
-                // Update UI based on bookings list
-                if (bookingsList.isEmpty()) {
-                    noBookingsText.setVisibility(View.VISIBLE);
-                    bookingsRecyclerView.setVisibility(View.GONE);
-                } else {
-                    noBookingsText.setVisibility(View.GONE);
-                    bookingsRecyclerView.setVisibility(View.VISIBLE);
+                for (Booking booking : page) {
+                    bookings.append(booking.getBookingId(), booking);
                 }
-                
-                bookingsAdapter.notifyDataSetChanged();
+                LocalStore.getInstance().putBookings(page);
+                updateEmptyState();
+                // A page of cancelled bookings adds no rows, so check again after layout
+                bookingsRecyclerView.post(BookingDetailsActivity.this::loadMoreHistoryIfNeeded);
             }
 
             @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                Toast.makeText(BookingDetailsActivity.this,
-                        "Error loading bookings: " + error.getMessage(),
-                        Toast.LENGTH_SHORT).show();
+            public void onError(DatabaseError error) {
+                showLoadError(error);
             }
-        };
-        
-        // Listen to all bookings and filter in the ValueEventListener
-        bookingsRef.addValueEventListener(bookingsListener);
+        });
+    }
+
+    private void showLoadError(DatabaseError error) {
+        Toast.makeText(this, "Error loading bookings: " + error.getMessage(),
+                Toast.LENGTH_SHORT).show();
+    }
+
+    private void updateEmptyState() {
+        // Nothing upcoming is not "no bookings" until the history has been checked too
+        if (bookings.isEmpty() && historyPager != null && historyPager.isExhausted()) {
+            noBookingsText.setVisibility(View.VISIBLE);
+            bookingsRecyclerView.setVisibility(View.GONE);
+        } else {
+            noBookingsText.setVisibility(View.GONE);
+            bookingsRecyclerView.setVisibility(View.VISIBLE);
+        }
     }
 
     @Override
@@ -153,9 +254,14 @@ public class BookingDetailsActivity extends AppCompatActivity {
     }
 
     private void removeBookingsListener() {
-        if (bookingsListener != null && bookingsRef != null) {
-            bookingsRef.removeEventListener(bookingsListener);
-            bookingsListener = null;
+        if (bookingsSync != null) {
+            bookingsSync.stop();
+            bookingsSync = null;
+        }
+        if (bookingsMirror != null) {
+            bookingsMirror.stop();
+            bookingsMirror = null;
         }
+        historyPager = null;
     }
 }
@@ -7,10 +7,10 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
 import android.os.Bundle;
+import android.os.Looper;
 import android.widget.TextView;
 import android.widget.Toast;
 import android.view.View;
-import android.widget.ImageButton;
 import android.app.AlertDialog;
 
 import androidx.appcompat.app.AppCompatActivity;
@@ -19,23 +19,28 @@ import com.google.android.material.button.MaterialButton;
 import com.google.android.material.card.MaterialCardView;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
+import com.google.firebase.database.Query;
 
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.List;
 import java.util.Locale;
 
-import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
+import com.example.booksmart.adapters.SpacesAdapter;
 import com.example.booksmart.adapters.TemplatesAdapter;
+import com.example.booksmart.core.KeyedList;
+import com.example.booksmart.core.OpeningHours;
+import com.example.booksmart.data.ChildListSync;
+import com.example.booksmart.data.local.LocalMirror;
+import com.example.booksmart.data.local.LocalStore;
+import com.example.booksmart.data.RealtimeDatabase;
+import com.example.booksmart.data.BookingTimeMigration;
+import com.example.booksmart.data.UserBookingsBackfill;
 import com.example.booksmart.models.BookingTemplate;
+import com.example.booksmart.models.Space;
+import com.example.booksmart.spaces.SpaceCatalogue;
 import com.google.android.material.bottomsheet.BottomSheetDialog;
 
 /**
@@ -48,18 +53,22 @@ public class BookingPageActivity extends AppCompatActivity {
     private MaterialButton submitButton;
     private Calendar startTime, endTime;
     private FirebaseAuth firebaseAuth;
-    private FirebaseDatabase firebaseDatabase;
     private String selectedSpace;
     private BottomNavigationView bottomNav;
-    private RecyclerView templatesRecyclerView;
     private TemplatesAdapter templatesAdapter;
-    private List<BookingTemplate> templatesList;
     private TextView noTemplatesText;
-    private DatabaseReference templatesRef;
     private MaterialButton savedTemplatesButton;
     private BottomSheetDialog templatesBottomSheet;
     private BroadcastReceiver logoutReceiver;
-    private ValueEventListener templatesListener;
+    private SpacesAdapter spacesAdapter;
+    private final SpaceCatalogue.OnCatalogueChangedListener catalogueListener = spaces -> {
+        if (spacesAdapter != null) {
+            spacesAdapter.setSpaces(spaces);
+        }
+    };
+    private final KeyedList<BookingTemplate> templates = new KeyedList<>(null, TemplatesAdapter::sameContent);
+    private ChildListSync<BookingTemplate> templatesSync;
+    private LocalMirror templatesMirror;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -68,12 +77,20 @@ public class BookingPageActivity extends AppCompatActivity {
         
         // Initialize Firebase services
         firebaseAuth = FirebaseAuth.getInstance();
-        firebaseDatabase = FirebaseDatabase.getInstance();
-        templatesRef = FirebaseDatabase.getInstance().getReference("templates");
 
         // Initialize lists and adapters
-        templatesList = new ArrayList<>();
-        templatesAdapter = new TemplatesAdapter(this, templatesList);
+        templatesAdapter = new TemplatesAdapter(this, templates);
+        templatesAdapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                updateTemplatesEmptyState();
+            }
+
+            @Override
+            public void onItemRangeRemoved(int positionStart, int itemCount) {
+                updateTemplatesEmptyState();
+            }
+        });
 
         // Initialize views
         savedTemplatesButton = findViewById(R.id.savedTemplatesButton);
@@ -87,10 +104,25 @@ public class BookingPageActivity extends AppCompatActivity {
 
         setupSpaceSelection();
         setupBottomNavigation();
-        setupTemplatesBottomSheet();
-        loadUserTemplates();
-        setupTooltips();
+        // The sheet is built on first open; most visits never show it
+        savedTemplatesButton.setOnClickListener(v -> showTemplatesBottomSheet());
         registerLogoutReceiver();
+
+        // Nothing below is needed for the first frame
+        Looper.myQueue().addIdleHandler(() -> {
+            if (isFinishing() || isDestroyed()) {
+                return false;
+            }
+            // Backfill the user's numeric booking times, then their per-user index, once per device.
+            // The index copies whole bookings, so it waits for the times to be converted first
+            Context appContext = getApplicationContext();
+            String userId = currentUser.getUid();
+            BookingTimeMigration.runIfNeeded(appContext, userId,
+                    () -> UserBookingsBackfill.runIfNeeded(appContext, userId));
+            loadUserTemplates();
+            SpaceCatalogue.getInstance().refresh();
+            return false;
+        });
     }
 
     private void setupBottomNavigation() {
@@ -122,44 +154,25 @@ public class BookingPageActivity extends AppCompatActivity {
     }
 
     private void setupSpaceSelection() {
-        // Find all quick book buttons
-        MaterialButton quickBookConference = findViewById(R.id.quickBookConference);
-        MaterialButton quickBookMeeting = findViewById(R.id.quickBookMeeting);
-        MaterialButton quickBookEvent = findViewById(R.id.quickBookEvent);
-        MaterialButton quickBookStudy = findViewById(R.id.quickBookStudy);
-        MaterialButton quickBookRecreational = findViewById(R.id.quickBookRecreational);
-        MaterialButton quickBookWorkshop = findViewById(R.id.quickBookWorkshop);
-
-        // Set up click listeners for quick book buttons
-        quickBookConference.setOnClickListener(v -> {
-            selectedSpace = "Conference Room";
-            navigateToBookingConfirmation();
-        });
-
-        quickBookMeeting.setOnClickListener(v -> {
-            selectedSpace = "Meeting Room";
-            navigateToBookingConfirmation();
-        });
-
-        quickBookEvent.setOnClickListener(v -> {
-            selectedSpace = "Event Hall";
-            navigateToBookingConfirmation();
-        });
-
-        quickBookStudy.setOnClickListener(v -> {
-            selectedSpace = "Study Room";
-            navigateToBookingConfirmation();
-        });
-
-        quickBookRecreational.setOnClickListener(v -> {
-            selectedSpace = "Recreational Space";
-            navigateToBookingConfirmation();
-        });
+        RecyclerView spacesRecyclerView = findViewById(R.id.spacesRecyclerView);
+        spacesRecyclerView.setLayoutManager(new LinearLayoutManager(this));
+        spacesRecyclerView.setHasFixedSize(true);
+        SpaceCatalogue catalogue = SpaceCatalogue.getInstance();
+        spacesAdapter = new SpacesAdapter(catalogue.spaces(),
+                new SpacesAdapter.OnSpaceActionListener() {
+                    @Override
+                    public void onQuickBook(Space space) {
+                        selectedSpace = space.getId();
+                        navigateToBookingConfirmation();
+                    }
 
-        quickBookWorkshop.setOnClickListener(v -> {
-            selectedSpace = "Workshop Space";
-            navigateToBookingConfirmation();
-        });
+                    @Override
+                    public void onShowFeatures(Space space) {
+                        showFeatures(space);
+                    }
+                });
+        spacesRecyclerView.setAdapter(spacesAdapter);
+        catalogue.addListener(catalogueListener);
     }
 
     private void navigateToBookingConfirmation() {
@@ -168,6 +181,13 @@ public class BookingPageActivity extends AppCompatActivity {
         startActivity(intent);
     }
 
+    private void showTemplatesBottomSheet() {
+        if (templatesBottomSheet == null) {
+            setupTemplatesBottomSheet();
+        }
+        templatesBottomSheet.show();
+    }
+
     private void setupTemplatesBottomSheet() {
         templatesBottomSheet = new BottomSheetDialog(this);
         View bottomSheetView = getLayoutInflater().inflate(R.layout.bottom_sheet_templates, null);
@@ -178,8 +198,7 @@ public class BookingPageActivity extends AppCompatActivity {
 
         templatesRecyclerView.setLayoutManager(new LinearLayoutManager(this));
         templatesRecyclerView.setAdapter(templatesAdapter);
-
-        savedTemplatesButton.setOnClickListener(v -> templatesBottomSheet.show());
+        updateTemplatesEmptyState();
     }
 
     private void loadUserTemplates() {
@@ -187,135 +206,91 @@ public class BookingPageActivity extends AppCompatActivity {
         if (currentUser == null) return;
 
         // Remove any existing listener first
-        if (templatesListener != null) {
-            templatesRef.removeEventListener(templatesListener);
-        }
-
-        templatesListener = templatesRef.orderByChild("userId").equalTo(currentUser.getUid())
-            .addValueEventListener(new ValueEventListener() {
-                @Override
-                public void onDataChange(@NonNull DataSnapshot snapshot) {
-                    // Only process if activity is not finishing
-                    if (!isFinishing()) {
-                        templatesList.clear();
-                        for (DataSnapshot templateSnapshot : snapshot.getChildren()) {
-                            BookingTemplate template = templateSnapshot.getValue(BookingTemplate.class);
-                            if (template != null) {
-                                templatesList.add(template);
-                            }
-                        }
-                        
-                        if (templatesList.isEmpty()) {
-                            noTemplatesText.setVisibility(View.VISIBLE);
-                        } else {
-                            noTemplatesText.setVisibility(View.GONE);
-                        }
-                        
-                        templatesAdapter.notifyDataSetChanged();
+        stopTemplatesSync();
+        templates.clear();
+        templatesAdapter.notifyDataSetChanged();
+
+        // Only reached from the idle handler, so the first frame never waits on the database warm-up
+        Query userTemplates = RealtimeDatabase.get().getReference("templates")
+                .orderByChild("userId").equalTo(currentUser.getUid());
+        templatesSync = new ChildListSync<>(userTemplates,
+                templates,
+                templateSnapshot -> {
+                    BookingTemplate template = templateSnapshot.getValue(BookingTemplate.class);
+                    if (template != null) {
+                        template.setTemplateId(templateSnapshot.getKey());
                     }
-                }
-
-                @Override
-                public void onCancelled(@NonNull DatabaseError error) {
-                    if (!isFinishing()) {
-                        Toast.makeText(BookingPageActivity.this,
-                            "Error loading templates: " + error.getMessage(),
-                            Toast.LENGTH_SHORT).show();
+                    return template;
+                },
+                new ChildListSync.Callback() {
+                    @Override
+                    public void onLoaded() {
+                        updateTemplatesEmptyState();
                     }
-                }
-            });
-    }
-
-    private void setupTooltips() {
-        // Conference Room
-        ImageButton conferenceInfoButton = findViewById(R.id.conferenceInfoButton);
-        conferenceInfoButton.setOnClickListener(v -> {
-            new AlertDialog.Builder(this)
-                .setTitle("Conference Room Features")
-                .setMessage("• Full HD projector and screen\n" +
-                           "• Professional sound system\n" +
-                           "• Video conferencing equipment\n" +
-                           "• Adjustable lighting\n" +
-                           "• Complimentary water service\n" +
-                           "• Available 8 AM - 8 PM")
-                .setPositiveButton("Got it", null)
-                .show();
-        });
 
-        // Meeting Room
-        ImageButton meetingInfoButton = findViewById(R.id.meetingInfoButton);
-        meetingInfoButton.setOnClickListener(v -> {
-            new AlertDialog.Builder(this)
-                .setTitle("Meeting Room Features")
-                .setMessage("• Interactive whiteboard\n" +
-                           "• Built-in charging stations\n" +
-                           "• Privacy blinds\n" +
-                           "• Ergonomic seating\n" +
-                           "• Coffee and tea service\n" +
-                           "• Available 24/7")
-                .setPositiveButton("Got it", null)
-                .show();
-        });
-
-        // Event Hall
-        ImageButton eventInfoButton = findViewById(R.id.eventInfoButton);
-        eventInfoButton.setOnClickListener(v -> {
-            new AlertDialog.Builder(this)
-                .setTitle("Event Hall Features")
-                .setMessage("• Stage with lighting\n" +
-                           "• Professional PA system\n" +
-                           "• Catering preparation area\n" +
-                           "• Flexible seating arrangements\n" +
-                           "• Coat check facility\n" +
-                           "• Available weekends & evenings")
-                .setPositiveButton("Got it", null)
-                .show();
+                    @Override
+                    public void onError(DatabaseError error) {
+                        if (!isFinishing()) {
+                            Toast.makeText(BookingPageActivity.this,
+                                "Error loading templates: " + error.getMessage(),
+                                Toast.LENGTH_SHORT).show();
+                        }
+                    }
+                });
+        templatesSync.start();
+
+        // Show cached templates until the sync confirms them
+        ChildListSync<BookingTemplate> sync = templatesSync;
+        LocalStore localStore = LocalStore.getInstance();
+        localStore.loadTemplates(currentUser.getUid(), (cached, syncedAt) -> {
+            if (sync != templatesSync) {
+                return;
+            }
+            for (BookingTemplate template : cached) {
+                sync.seed(template.getTemplateId(), template);
+            }
+            updateTemplatesEmptyState();
         });
+        templatesMirror = localStore.mirrorTemplates(userTemplates, currentUser.getUid());
+        templatesMirror.start();
+    }
 
-        // Study Room
-        ImageButton studyInfoButton = findViewById(R.id.studyInfoButton);
-        studyInfoButton.setOnClickListener(v -> {
-            new AlertDialog.Builder(this)
-                .setTitle("Study Room Features")
-                .setMessage("• High-speed Wi-Fi\n" +
-                           "• Power outlets at every seat\n" +
-                           "• Soundproof walls\n" +
-                           "• Adjustable desk lamps\n" +
-                           "• Print & scan station\n" +
-                           "• 24/7 access for students")
-                .setPositiveButton("Got it", null)
-                .show();
-        });
+    private void updateTemplatesEmptyState() {
+        if (noTemplatesText == null) {
+            return;
+        }
+        noTemplatesText.setVisibility(templates.isEmpty() ? View.VISIBLE : View.GONE);
+    }
 
-        // Recreational Space
-        ImageButton recreationalInfoButton = findViewById(R.id.recreationalInfoButton);
-        recreationalInfoButton.setOnClickListener(v -> {
-            new AlertDialog.Builder(this)
-                .setTitle("Recreational Space Features")
-                .setMessage("• Gaming consoles (PS5, Xbox)\n" +
-                           "• Pool and foosball tables\n" +
-                           "• Lounge seating area\n" +
-                           "• Snack and drink machines\n" +
-                           "• Board game collection\n" +
-                           "• Available 10 AM - 10 PM")
-                .setPositiveButton("Got it", null)
-                .show();
-        });
+    private void stopTemplatesSync() {
+        if (templatesSync != null) {
+            templatesSync.stop();
+            templatesSync = null;
+        }
+        if (templatesMirror != null) {
+            templatesMirror.stop();
+            templatesMirror = null;
+        }
+    }
 
-        // Workshop Space
-        ImageButton workshopInfoButton = findViewById(R.id.workshopInfoButton);
-        workshopInfoButton.setOnClickListener(v -> {
-            new AlertDialog.Builder(this)
-                .setTitle("Workshop Space Features")
-                .setMessage("• Professional tools and equipment\n" +
-                           "• Safety gear provided\n" +
-                           "• Ventilation system\n" +
-                           "• Storage lockers\n" +
-                           "• First aid station\n" +
-                           "• Available 9 AM - 6 PM")
-                .setPositiveButton("Got it", null)
-                .show();
-        });
+    private void showFeatures(Space space) {
+        StringBuilder features = new StringBuilder();
+        for (String feature : space.getFeatures()) {
+            if (features.length() > 0) {
+                features.append('\n');
+            }
+            features.append("• ").append(feature);
+        }
+        if (features.length() > 0) {
+            features.append('\n');
+        }
+        OpeningHours hours = space.openingHours();
+        features.append("• ").append(hours.isAlwaysOpen() ? "Open 24/7" : "Open daily " + hours);
+        new AlertDialog.Builder(this)
+            .setTitle(space.getName() + " Features")
+            .setMessage(features)
+            .setPositiveButton("Got it", null)
+            .show();
     }
 
     private void registerLogoutReceiver() {
@@ -324,10 +299,7 @@ public class BookingPageActivity extends AppCompatActivity {
             public void onReceive(Context context, Intent intent) {
                 if ("com.example.booksmart.LOGOUT".equals(intent.getAction())) {
                     // Remove listeners before finishing
-                    if (templatesListener != null) {
-                        templatesRef.removeEventListener(templatesListener);
-                        templatesListener = null;
-                    }
+                    stopTemplatesSync();
                     // Dismiss bottom sheet if showing
                     if (templatesBottomSheet != null && templatesBottomSheet.isShowing()) {
                         templatesBottomSheet.dismiss();
@@ -343,10 +315,8 @@ public class BookingPageActivity extends AppCompatActivity {
     protected void onDestroy() {
         super.onDestroy();
         // Clean up listeners
-        if (templatesListener != null) {
-            templatesRef.removeEventListener(templatesListener);
-            templatesListener = null;
-        }
+        stopTemplatesSync();
+        SpaceCatalogue.getInstance().removeListener(catalogueListener);
         // Unregister receiver
         if (logoutReceiver != null) {
             unregisterReceiver(logoutReceiver);
@@ -5,6 +5,7 @@ import android.app.ProgressDialog;
 import android.app.TimePickerDialog;
 import android.content.Intent;
 import android.os.Bundle;
+import android.view.View;
 import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AlertDialog;
@@ -14,17 +15,25 @@ import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
 import com.google.firebase.database.ValueEventListener;
 import com.google.android.material.textfield.TextInputEditText;
+import com.example.booksmart.conflicts.ConflictChecker;
+import com.example.booksmart.conflicts.SpaceConflictIndex;
+import com.example.booksmart.core.BookedInterval;
+import com.example.booksmart.core.BookingTimeCodec;
+import com.example.booksmart.core.BookingException;
+import com.example.booksmart.core.BookingRepository;
+import com.example.booksmart.core.BookingSlots;
+import com.example.booksmart.core.OpeningHours;
+import com.example.booksmart.data.FirebaseBookingRepository;
+import com.example.booksmart.data.RealtimeDatabase;
 import com.example.booksmart.models.Booking;
+import com.example.booksmart.notifications.ReminderScheduler;
+import com.example.booksmart.spaces.SpaceCatalogue;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
-import java.util.Date;
-import java.util.Locale;
+import java.util.List;
 
 /**
  * Activity for editing existing bookings.
@@ -42,6 +51,8 @@ public class EditBookingActivity extends AppCompatActivity {
     private String bookingId;
     private Booking currentBooking;
     private BottomNavigationView bottomNav;
+    private final BookingRepository bookingRepository = FirebaseBookingRepository.getInstance();
+    private final BookingTimeCodec timeCodec = BookingTimeCodec.systemDefault();
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -50,7 +61,7 @@ public class EditBookingActivity extends AppCompatActivity {
 
         // Initialize Firebase
         firebaseAuth = FirebaseAuth.getInstance();
-        bookingsRef = FirebaseDatabase.getInstance().getReference("bookings");
+        bookingsRef = RealtimeDatabase.get().getReference("bookings");
 
         // Get booking ID from intent
         bookingId = getIntent().getStringExtra("bookingId");
@@ -69,6 +80,10 @@ public class EditBookingActivity extends AppCompatActivity {
         confirmEditButton = findViewById(R.id.confirmBookingButton);
         confirmEditButton.setText("Update Booking");
         bottomNav = findViewById(R.id.bottomNav);
+
+        // The layout is shared with the create screen; its extra actions and live availability are not wired here
+        findViewById(R.id.createActionsRow).setVisibility(View.GONE);
+        findViewById(R.id.availabilityText).setVisibility(View.GONE);
     }
 
     private void setupCalendars() {
@@ -96,6 +111,9 @@ public class EditBookingActivity extends AppCompatActivity {
             public void onDataChange(@NonNull DataSnapshot snapshot) {
                 currentBooking = snapshot.getValue(Booking.class);
                 if (currentBooking != null) {
+                    currentBooking.setBookingId(snapshot.getKey());
+                    SpaceConflictIndex.forSpace(currentBooking.getSpaceType())
+                            .prefetch(currentBooking.getStartMillis(), currentBooking.getEndMillis());
                     updateUIWithBookingData();
                 }
             }
@@ -119,15 +137,25 @@ public class EditBookingActivity extends AppCompatActivity {
         progressDialog.setMessage("Checking availability...");
         progressDialog.show();
 
-        // Check for conflicts
-        checkBookingConflicts(startTime, endTime, currentBooking.getSpaceType(), bookingId,
-                (hasConflict, conflictTime) -> {
-                    progressDialog.dismiss();
+        // Check for conflicts, skipping the booking being edited
+        ConflictChecker.check(currentBooking.getSpaceType(), startTime.getTimeInMillis(),
+                endTime.getTimeInMillis(), bookingId, new ConflictChecker.OnConflictCheckListener() {
+                    @Override
+                    public void onConflictCheckComplete(List<BookedInterval> conflicts, String description) {
+                        progressDialog.dismiss();
+
+                        if (!conflicts.isEmpty()) {
+                            showConflictDialog(description);
+                        } else {
+                            updateBooking();
+                        }
+                    }
 
-                    if (hasConflict) {
-                        showConflictDialog(conflictTime);
-                    } else {
-                        updateBooking();
+                    @Override
+                    public void onConflictCheckFailed(String message) {
+                        progressDialog.dismiss();
+                        Toast.makeText(EditBookingActivity.this,
+                                "Could not check availability: " + message, Toast.LENGTH_SHORT).show();
                     }
                 });
     }
@@ -151,22 +179,36 @@ public class EditBookingActivity extends AppCompatActivity {
     }
 
     private void updateBooking() {
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault());
-
-        bookingsRef.child(bookingId)
-                .child("startTime").setValue(sdf.format(startTime.getTime()))
-                .addOnSuccessListener(aVoid -> {
-                    bookingsRef.child(bookingId)
-                            .child("endTime").setValue(sdf.format(endTime.getTime()))
-                            .addOnSuccessListener(aVoid2 -> {
-                                Toast.makeText(this, "Booking updated successfully",
+        bookingRepository.reschedule(currentBooking, startTime.getTimeInMillis(), endTime.getTimeInMillis(),
+                startTime.getTimeZone().getID(), new BookingRepository.Callback<Booking>() {
+                    @Override
+                    public void onSuccess(Booking updated) {
+                        ReminderScheduler.getInstance().schedule(updated);
+                        Toast.makeText(EditBookingActivity.this, "Booking updated successfully",
+                                Toast.LENGTH_SHORT).show();
+                        finish();
+                    }
+
+                    @Override
+                    public void onFailure(BookingException error) {
+                        switch (error.getReason()) {
+                            case SLOT_TAKEN:
+                                SpaceConflictIndex index = SpaceConflictIndex.forSpace(currentBooking.getSpaceType());
+                                BookedInterval conflict = index.find(error.getConflictingBookingId());
+                                showConflictDialog(conflict != null ? index.describe(conflict) : "the selected time");
+                                break;
+                            case STALE_VERSION:
+                                Toast.makeText(EditBookingActivity.this,
+                                        "This booking was changed elsewhere. Reloading the latest version.",
                                         Toast.LENGTH_SHORT).show();
-                                finish();
-                            });
-                })
-                .addOnFailureListener(e -> {
-                    Toast.makeText(this, "Failed to update booking: " + e.getMessage(),
-                            Toast.LENGTH_SHORT).show();
+                                loadCurrentBooking();
+                                break;
+                            default:
+                                Toast.makeText(EditBookingActivity.this,
+                                        "Failed to update booking: " + error.getMessage(), Toast.LENGTH_SHORT).show();
+                                break;
+                        }
+                    }
                 });
     }
 
@@ -194,6 +236,10 @@ public class EditBookingActivity extends AppCompatActivity {
                 (view, hourOfDay, minute) -> {
                     calendar.set(Calendar.HOUR_OF_DAY, hourOfDay);
                     calendar.set(Calendar.MINUTE, minute);
+                    calendar.set(Calendar.SECOND, 0);
+                    calendar.set(Calendar.MILLISECOND, 0);
+                    // Bookings claim whole 15-minute slots, so any other minute would overlap a neighbour
+                    calendar.setTimeInMillis(BookingSlots.snap(calendar.getTimeInMillis()));
                     updateTimeText(isStartTime);
                 },
                 calendar.get(Calendar.HOUR_OF_DAY),
@@ -203,16 +249,14 @@ public class EditBookingActivity extends AppCompatActivity {
     }
 
     private void updateDateText() {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
-        dateInput.setText(dateFormat.format(selectedDate.getTime()));
+        dateInput.setText(timeCodec.formatDisplayDate(selectedDate.getTimeInMillis()));
     }
 
     private void updateTimeText(boolean isStartTime) {
-        SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm", Locale.getDefault());
         if (isStartTime) {
-            startTimeInput.setText(timeFormat.format(startTime.getTime()));
+            startTimeInput.setText(timeCodec.formatTime(startTime.getTimeInMillis()));
         } else {
-            endTimeInput.setText(timeFormat.format(endTime.getTime()));
+            endTimeInput.setText(timeCodec.formatTime(endTime.getTimeInMillis()));
         }
     }
 
@@ -235,39 +279,40 @@ public class EditBookingActivity extends AppCompatActivity {
             return false;
         }
 
+        // Bookings made before times were snapped keep their odd minutes until re-picked
+        if (!BookingSlots.isAligned(startTime.getTimeInMillis(), endTime.getTimeInMillis())) {
+            Toast.makeText(this, "Please pick times on the quarter hour", Toast.LENGTH_SHORT).show();
+            return false;
+        }
+
+        // Checked against the cached catalogue, so no fetch is needed
+        String spaceType = currentBooking.getSpaceType();
+        OpeningHours hours = SpaceCatalogue.getInstance().hoursOf(spaceType);
+        if (!hours.covers(startTime.getTimeInMillis(), endTime.getTimeInMillis(), startTime.getTimeZone())) {
+            Toast.makeText(this, spaceType + " is only open " + hours, Toast.LENGTH_SHORT).show();
+            return false;
+        }
+
         return true;
     }
 
     private void updateUIWithBookingData() {
-        try {
-            SimpleDateFormat inputFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault());
-            SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
-            SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm", Locale.getDefault());
-
-            // Parse the start and end times
-            Date startDate = inputFormat.parse(currentBooking.getStartTime());
-            Date endDate = inputFormat.parse(currentBooking.getEndTime());
-
-            if (startDate != null && endDate != null) {
-                // Set the calendar instances
-                Calendar startCal = Calendar.getInstance();
-                startCal.setTime(startDate);
-                Calendar endCal = Calendar.getInstance();
-                endCal.setTime(endDate);
-
-                startTime.setTime(startDate);
-                endTime.setTime(endDate);
-                selectedDate.setTime(startDate);
-
-                // Update the UI
-                dateInput.setText(dateFormat.format(startDate));
-                startTimeInput.setText(timeFormat.format(startDate));
-                endTimeInput.setText(timeFormat.format(endDate));
-            }
-        } catch (ParseException e) {
-            e.printStackTrace();
+        long startMillis = currentBooking.getStartMillis();
+        long endMillis = currentBooking.getEndMillis();
+        if (startMillis == 0 || endMillis == 0) {
             Toast.makeText(this, "Error loading booking times", Toast.LENGTH_SHORT).show();
+            return;
         }
+
+        // Set the calendar instances
+        startTime.setTimeInMillis(startMillis);
+        endTime.setTimeInMillis(endMillis);
+        selectedDate.setTimeInMillis(startMillis);
+
+        // Update the UI
+        dateInput.setText(timeCodec.formatDisplayDate(startMillis));
+        startTimeInput.setText(timeCodec.formatTime(startMillis));
+        endTimeInput.setText(timeCodec.formatTime(endMillis));
     }
 
     private void setupBottomNavigation() {
@@ -291,62 +336,4 @@ public class EditBookingActivity extends AppCompatActivity {
             return false;
         });
     }
-
-    // Add after the existing methods
-    interface OnConflictCheckListener {
-        void onConflictCheckComplete(boolean hasConflict, String conflictTime);
-    }
-
-    /**
-     * Checks for booking conflicts with existing bookings
-     */
-    private void checkBookingConflicts(Calendar startTime, Calendar endTime, String spaceType, String currentBookingId,
-            OnConflictCheckListener listener) {
-        DatabaseReference bookingsRef = FirebaseDatabase.getInstance().getReference("bookings");
-
-        bookingsRef.orderByChild("spaceType").equalTo(spaceType)
-                .addListenerForSingleValueEvent(new ValueEventListener() {
-                    @Override
-                    public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-                        boolean hasConflict = false;
-                        String conflictTime = "";
-
-                        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault());
-
-                        for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
-                            Booking existingBooking = snapshot.getValue(Booking.class);
-                            // Skip checking against the current booking being edited
-                            if (existingBooking != null &&
-                                    !existingBooking.getBookingId().equals(currentBookingId) &&
-                                    !"cancelled".equals(existingBooking.getStatus())) {
-                                try {
-                                    Date existingStart = sdf.parse(existingBooking.getStartTime());
-                                    Date existingEnd = sdf.parse(existingBooking.getEndTime());
-
-                                    if (existingStart != null && existingEnd != null) {
-                                        // Check for overlap
-                                        if (!(endTime.getTime().before(existingStart) ||
-                                                startTime.getTime().after(existingEnd))) {
-                                            hasConflict = true;
-                                            conflictTime = String.format("%s - %s",
-                                                    existingBooking.getStartTime(),
-                                                    existingBooking.getEndTime());
-                                            break;
-                                        }
-                                    }
-                                } catch (ParseException e) {
-                                    e.printStackTrace();
-                                }
-                            }
-                        }
-
-                        listener.onConflictCheckComplete(hasConflict, conflictTime);
-                    }
-
-                    @Override
-                    public void onCancelled(@NonNull DatabaseError error) {
-                        listener.onConflictCheckComplete(false, "");
-                    }
-                });
-    }
-}
\ No newline at end of file
+}
@@ -19,9 +19,11 @@ import com.google.firebase.auth.UserProfileChangeRequest;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
 import com.google.firebase.database.ValueEventListener;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
+import com.example.booksmart.conflicts.SpaceConflictIndex;
+import com.example.booksmart.data.RealtimeDatabase;
+import com.example.booksmart.data.local.LocalStore;
 
 /**
  * Activity for managing user profile information.
@@ -37,6 +39,7 @@ public class ProfileActivity extends AppCompatActivity {
     private FirebaseAuth firebaseAuth;
     private FirebaseUser currentUser;
     private DatabaseReference usersRef;
+    private boolean profileLoaded;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -46,7 +49,7 @@ public class ProfileActivity extends AppCompatActivity {
         // Initialize Firebase
         firebaseAuth = FirebaseAuth.getInstance();
         currentUser = firebaseAuth.getCurrentUser();
-        usersRef = FirebaseDatabase.getInstance().getReference("users");
+        usersRef = RealtimeDatabase.get().getReference("users");
 
         if (currentUser == null) {
             navigateToLoginActivity();
@@ -90,15 +93,26 @@ public class ProfileActivity extends AppCompatActivity {
     }
 
     private void loadUserDataFromDatabase() {
+        // Cached profile first, replaced by the server copy when it arrives
+        String userId = currentUser.getUid();
+        LocalStore.getInstance().loadProfile(userId, (cached, syncedAt) -> {
+            if (cached != null && !profileLoaded) {
+                profileName.setText(cached.name != null ? cached.name : "Name not set");
+                profileEmail.setText(cached.email != null ? cached.email : currentUser.getEmail());
+            }
+        });
+
         usersRef.child(currentUser.getUid()).addListenerForSingleValueEvent(new ValueEventListener() {
             @Override
             public void onDataChange(@NonNull DataSnapshot snapshot) {
+                profileLoaded = true;
                 if (snapshot.exists()) {
                     String name = snapshot.child("name").getValue(String.class);
                     String email = snapshot.child("email").getValue(String.class);
 
                     profileName.setText(name != null ? name : "Name not set");
                     profileEmail.setText(email != null ? email : currentUser.getEmail());
+                    LocalStore.getInstance().putProfile(userId, name, email);
                 } else {
                     // Fallback to Firebase Auth data if database entry doesn't exist
                     profileName.setText(
@@ -129,6 +143,10 @@ public class ProfileActivity extends AppCompatActivity {
             // Send broadcast to close other activities
             Intent broadcastIntent = new Intent("com.example.booksmart.LOGOUT");
             sendBroadcast(broadcastIntent);
+
+            // Stop syncing booking indexes for the signed-out user
+            SpaceConflictIndex.releaseAll();
+            LocalStore.getInstance().clear();
             
             // Wait briefly for broadcast to be received
             new Handler().postDelayed(() -> {
@@ -180,6 +198,8 @@ public class ProfileActivity extends AppCompatActivity {
                         usersRef.child(user.getUid()).child("name").setValue(newName)
                                 .addOnSuccessListener(aVoid1 -> {
                                     profileName.setText(newName);
+                                    LocalStore.getInstance().putProfile(user.getUid(), newName,
+                                            profileEmail.getText().toString());
                                     Toast.makeText(ProfileActivity.this,
                                             "Name updated successfully", Toast.LENGTH_SHORT).show();
                                 })
@@ -9,12 +9,12 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.booksmart.data.RealtimeDatabase;
 import com.example.booksmart.databinding.ActivityRegisterBinding;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.auth.UserProfileChangeRequest;
 import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
 
 import java.util.HashMap;
 
@@ -99,7 +99,7 @@ public class RegisterActivity extends AppCompatActivity {
         userData.put("uid", uid);
 
         // Save to Firebase Database
-        DatabaseReference usersRef = FirebaseDatabase.getInstance().getReference("users");
+        DatabaseReference usersRef = RealtimeDatabase.get().getReference("users");
         usersRef.child(uid).setValue(userData)
             .addOnSuccessListener(aVoid -> {
                 // Update Auth Profile
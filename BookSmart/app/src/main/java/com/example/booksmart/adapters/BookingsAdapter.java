@@ -1,8 +1,9 @@
 package com.example.booksmart.adapters;
 
 import android.content.Context;
-import android.graphics.Color;
-import android.graphics.drawable.GradientDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -13,17 +14,22 @@ import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.booksmart.R;
+import com.example.booksmart.core.BookingException;
+import com.example.booksmart.core.BookingRepository;
+import com.example.booksmart.core.BookingRowModel;
+import com.example.booksmart.core.BookingTimeCodec;
+import com.example.booksmart.core.KeyedList;
+import com.example.booksmart.data.FirebaseBookingRepository;
 import com.example.booksmart.models.Booking;
+import com.example.booksmart.notifications.ReminderScheduler;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.List;
-import java.util.Locale;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import com.google.android.material.button.MaterialButton;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
 
 import android.widget.Toast;
 import androidx.appcompat.app.AlertDialog;
@@ -34,17 +40,77 @@ import com.example.booksmart.EditBookingActivity;
 /**
  * RecyclerView adapter for displaying booking items.
  * Handles booking item display and interactions.
+ * Rows mirror a {@link KeyedList}: each add, change, move or remove it reports
+ * is forwarded as the matching notifyItem* call, so only affected rows rebind.
+ * Display strings are prepared as {@link BookingRowModel}s on a background thread
+ * when a booking arrives or changes, so binding a row allocates nothing.
  */
-public class BookingsAdapter extends RecyclerView.Adapter<BookingsAdapter.BookingViewHolder> {
-    private List<Booking> bookings;
+public class BookingsAdapter extends RecyclerView.Adapter<BookingsAdapter.BookingViewHolder>
+        implements KeyedList.Listener {
+
+    // Indexed by BookingRowModel.Status ordinal
+    private static final int[] STATUS_BACKGROUNDS = {
+            R.drawable.status_pill_confirmed,
+            R.drawable.status_pill_pending,
+            R.drawable.status_pill_cancelled,
+            R.drawable.status_pill_other
+    };
+
+    private static final ExecutorService ROW_MODEL_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "booking-row-models");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    /**
+     * Whether two versions of a booking render the same row
+     */
+    public static boolean sameContent(Booking oldItem, Booking newItem) {
+        // Edits and cancelling bump the version; the status is compared for older rows
+        return oldItem.getVersion() == newItem.getVersion()
+                && Objects.equals(oldItem.getStatus(), newItem.getStatus())
+                && oldItem.getStartMillis() == newItem.getStartMillis()
+                && oldItem.getEndMillis() == newItem.getEndMillis()
+                && Objects.equals(oldItem.getSpaceType(), newItem.getSpaceType());
+    }
+
+    private final KeyedList<Booking> bookings;
     private Context context;
-    private SimpleDateFormat inputFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault());
-    private SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
-    private SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm", Locale.getDefault());
+    private final BookingRepository bookingRepository = FirebaseBookingRepository.getInstance();
+    private final BookingTimeCodec timeCodec = BookingTimeCodec.systemDefault();
+    // Keyed by booking id; read and written on the main thread only
+    private final Map<String, BookingRowModel> rowModels = new HashMap<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
-    public BookingsAdapter(Context context, List<Booking> bookings) {
+    public BookingsAdapter(Context context, KeyedList<Booking> bookings) {
         this.context = context;
         this.bookings = bookings;
+        bookings.addListener(this);
+    }
+
+    @Override
+    public void onInserted(int position) {
+        prepare(position);
+        notifyItemInserted(position);
+    }
+
+    @Override
+    public void onChanged(int position) {
+        prepare(position);
+        notifyItemChanged(position);
+    }
+
+    @Override
+    public void onRemoved(int position, String key) {
+        // Removed and filtered-out bookings are prepared again if they come back
+        rowModels.remove(key);
+        notifyItemRemoved(position);
+    }
+
+    @Override
+    public void onMoved(int fromPosition, int toPosition) {
+        notifyItemMoved(fromPosition, toPosition);
     }
 
     @NonNull
@@ -52,85 +118,68 @@ public class BookingsAdapter extends RecyclerView.Adapter<BookingsAdapter.Bookin
     public BookingViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_booking, parent, false);
-        return new BookingViewHolder(view);
+        BookingViewHolder holder = new BookingViewHolder(view);
+        // Set once per holder; they resolve the booking from the bound position
+        holder.cancelButton.setOnClickListener(v -> onCancelClicked(holder));
+        holder.editButton.setOnClickListener(v -> onEditClicked(holder));
+        return holder;
     }
 
     @Override
     public void onBindViewHolder(@NonNull BookingViewHolder holder, int position) {
-        Booking booking = bookings.get(position);
-        
-        // Set space type (with null check)
-        holder.spaceTypeText.setText(booking.getSpaceType() != null ? booking.getSpaceType() : "N/A");
-        
-        // Set and style status (with null check)
-        String status = booking.getStatus() != null ? booking.getStatus().toUpperCase() : "PENDING";
-        holder.statusText.setText(status);
-        GradientDrawable statusBackground = new GradientDrawable();
-        statusBackground.setCornerRadius(25);
-        statusBackground.setColor(getStatusColor(status));
-        holder.statusText.setBackground(statusBackground);
-
-        // Handle date and time formatting
-        String startTime = booking.getStartTime();
-        String endTime = booking.getEndTime();
-        
-        if (startTime != null && endTime != null) {
-            try {
-                Date startDate = inputFormat.parse(startTime);
-                Date endDate = inputFormat.parse(endTime);
-
-                if (startDate != null && endDate != null) {
-                    holder.dateText.setText(dateFormat.format(startDate));
-                    String timeRange = String.format("%s - %s",
-                            timeFormat.format(startDate),
-                            timeFormat.format(endDate));
-                    holder.timeText.setText(timeRange);
-                } else {
-                    setDefaultDateTimeText(holder);
-                }
-            } catch (ParseException e) {
-                e.printStackTrace();
-                setDefaultDateTimeText(holder);
-            }
-        } else {
-            setDefaultDateTimeText(holder);
-        }
+        holder.bind(rowModel(bookings.get(position)));
+    }
 
-        // Show/hide cancel button based on status
-        if ("confirmed".equalsIgnoreCase(status)) {
-            holder.cancelButton.setVisibility(View.VISIBLE);
-            holder.cancelButton.setOnClickListener(v -> cancelBooking(booking));
-        } else {
-            holder.cancelButton.setVisibility(View.GONE);
-        }
+    @Override
+    public int getItemCount() {
+        return bookings.size();
+    }
 
-        holder.editButton.setOnClickListener(v -> {
-            Intent intent = new Intent(context, EditBookingActivity.class);
-            intent.putExtra("bookingId", booking.getBookingId());
-            context.startActivity(intent);
-        });
+    /**
+     * Returns the prepared model for a booking, building it here only if the
+     * background pass has not reached it yet
+     */
+    BookingRowModel rowModel(Booking booking) {
+        BookingRowModel model = rowModels.get(booking.getBookingId());
+        if (model == null || !model.isFor(booking)) {
+            model = BookingRowModel.of(booking, timeCodec);
+            rowModels.put(booking.getBookingId(), model);
+        }
+        return model;
     }
 
-    private void setDefaultDateTimeText(BookingViewHolder holder) {
-        holder.dateText.setText("Date not set");
-        holder.timeText.setText("Time not set");
+    /**
+     * Formats a new or changed booking off the main thread, ahead of its first bind
+     */
+    private void prepare(int position) {
+        Booking booking = bookings.get(position);
+        ROW_MODEL_EXECUTOR.execute(() -> {
+            BookingRowModel model = BookingRowModel.of(booking, timeCodec);
+            mainHandler.post(() -> {
+                String bookingId = booking.getBookingId();
+                // Drop it if the booking changed again or a bind already built one
+                BookingRowModel current = rowModels.get(bookingId);
+                if (bookings.find(bookingId) == booking && model.isFor(booking)
+                        && (current == null || !current.isFor(booking))) {
+                    rowModels.put(bookingId, model);
+                }
+            });
+        });
     }
 
-    @Override
-    public int getItemCount() {
-        return bookings.size();
+    private void onCancelClicked(BookingViewHolder holder) {
+        int position = holder.getBindingAdapterPosition();
+        if (position != RecyclerView.NO_POSITION) {
+            cancelBooking(bookings.get(position));
+        }
     }
 
-    private int getStatusColor(String status) {
-        switch (status.toLowerCase()) {
-            case "confirmed":
-                return Color.parseColor("#4CAF50"); // Green
-            case "pending":
-                return Color.parseColor("#FFA000"); // Amber
-            case "cancelled":
-                return Color.parseColor("#F44336"); // Red
-            default:
-                return Color.parseColor("#757575"); // Grey
+    private void onEditClicked(BookingViewHolder holder) {
+        int position = holder.getBindingAdapterPosition();
+        if (position != RecyclerView.NO_POSITION) {
+            Intent intent = new Intent(context, EditBookingActivity.class);
+            intent.putExtra("bookingId", bookings.get(position).getBookingId());
+            context.startActivity(intent);
         }
     }
 
@@ -139,19 +188,26 @@ public class BookingsAdapter extends RecyclerView.Adapter<BookingsAdapter.Bookin
                 .setTitle("Cancel Booking")
                 .setMessage("Are you sure you want to cancel this booking?")
                 .setPositiveButton("Yes", (dialog, which) -> {
-                    DatabaseReference bookingRef = FirebaseDatabase.getInstance()
-                            .getReference("bookings")
-                            .child(booking.getBookingId());
-
-                    bookingRef.child("status").setValue("cancelled")
-                            .addOnSuccessListener(aVoid -> {
-                                Toast.makeText(context, "Booking cancelled successfully", 
-                                        Toast.LENGTH_SHORT).show();
-                            })
-                            .addOnFailureListener(e -> {
-                                Toast.makeText(context, "Failed to cancel booking: " + e.getMessage(),
+                    bookingRepository.cancel(booking, new BookingRepository.Callback<Booking>() {
+                        @Override
+                        public void onSuccess(Booking cancelled) {
+                            ReminderScheduler.getInstance().cancel(cancelled.getBookingId());
+                            Toast.makeText(context, "Booking cancelled successfully",
+                                    Toast.LENGTH_SHORT).show();
+                        }
+
+                        @Override
+                        public void onFailure(BookingException error) {
+                            if (error.getReason() == BookingException.Reason.STALE_VERSION) {
+                                // The list is live, so the row already shows the latest version
+                                Toast.makeText(context, "This booking was changed elsewhere. "
+                                        + "Check the updated booking before cancelling.", Toast.LENGTH_LONG).show();
+                            } else {
+                                Toast.makeText(context, "Failed to cancel booking: " + error.getMessage(),
                                         Toast.LENGTH_SHORT).show();
-                            });
+                            }
+                        }
+                    });
                 })
                 .setNegativeButton("No", null)
                 .show();
@@ -160,6 +216,8 @@ public class BookingsAdapter extends RecyclerView.Adapter<BookingsAdapter.Bookin
     static class BookingViewHolder extends RecyclerView.ViewHolder {
         TextView spaceTypeText, statusText, dateText, timeText;
         MaterialButton cancelButton, editButton;
+        // Loaded on first use of each status, then reused for every bind
+        private final Drawable[] statusBackgrounds = new Drawable[STATUS_BACKGROUNDS.length];
 
         BookingViewHolder(View itemView) {
             super(itemView);
@@ -170,5 +228,26 @@ public class BookingsAdapter extends RecyclerView.Adapter<BookingsAdapter.Bookin
             cancelButton = itemView.findViewById(R.id.cancelButton);
             editButton = itemView.findViewById(R.id.editButton);
         }
+
+        /**
+         * Pure field assignment; all formatting happened when the model was built
+         */
+        void bind(BookingRowModel model) {
+            spaceTypeText.setText(model.getSpaceText());
+            statusText.setText(model.getStatusText());
+            statusText.setBackground(statusBackground(model.getStatus()));
+            dateText.setText(model.getDateText());
+            timeText.setText(model.getTimeText());
+            cancelButton.setVisibility(model.isCancellable() ? View.VISIBLE : View.GONE);
+        }
+
+        private Drawable statusBackground(BookingRowModel.Status status) {
+            int index = status.ordinal();
+            if (statusBackgrounds[index] == null) {
+                statusBackgrounds[index] = ContextCompat.getDrawable(itemView.getContext(),
+                        STATUS_BACKGROUNDS[index]);
+            }
+            return statusBackgrounds[index];
+        }
     }
-} 
\ No newline at end of file
+}
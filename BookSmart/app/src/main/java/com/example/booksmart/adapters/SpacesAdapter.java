@@ -0,0 +1,104 @@
+package com.example.booksmart.adapters;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageButton;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.booksmart.R;
+import com.example.booksmart.models.Space;
+import com.example.booksmart.spaces.SpaceCatalogue;
+import com.example.booksmart.spaces.SpaceImageLoader;
+import com.google.android.material.button.MaterialButton;
+
+import java.util.List;
+
+/**
+ * RecyclerView adapter for the space catalogue on the booking page.
+ * Photos are decoded by {@link SpaceImageLoader} at the card's size.
+ */
+public class SpacesAdapter extends RecyclerView.Adapter<SpacesAdapter.SpaceViewHolder> {
+
+    /**
+     * Actions on a space card
+     */
+    public interface OnSpaceActionListener {
+        void onQuickBook(Space space);
+
+        void onShowFeatures(Space space);
+    }
+
+    private List<Space> spaces;
+    private final OnSpaceActionListener listener;
+
+    public SpacesAdapter(List<Space> spaces, OnSpaceActionListener listener) {
+        this.spaces = spaces;
+        this.listener = listener;
+        setHasStableIds(true);
+    }
+
+    /**
+     * Shows a new catalogue version; the list is short, so it is simply rebound
+     */
+    public void setSpaces(List<Space> spaces) {
+        this.spaces = spaces;
+        notifyDataSetChanged();
+    }
+
+    @NonNull
+    @Override
+    public SpaceViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_space, parent, false);
+        return new SpaceViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull SpaceViewHolder holder, int position) {
+        Space space = spaces.get(position);
+        holder.name.setText(space.getName());
+        holder.description.setText(space.getDescription());
+        holder.capacity.setText(holder.itemView.getContext()
+                .getString(R.string.space_capacity, space.getCapacity()));
+
+        // The photo spans the card, which is at most the screen wide
+        ViewGroup.LayoutParams params = holder.image.getLayoutParams();
+        SpaceImageLoader.load(holder.image, SpaceCatalogue.imageFor(space.getId()),
+                holder.itemView.getResources().getDisplayMetrics().widthPixels, params.height);
+
+        holder.quickBookButton.setOnClickListener(v -> listener.onQuickBook(space));
+        holder.infoButton.setOnClickListener(v -> listener.onShowFeatures(space));
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return spaces.get(position).getId().hashCode();
+    }
+
+    @Override
+    public int getItemCount() {
+        return spaces.size();
+    }
+
+    static class SpaceViewHolder extends RecyclerView.ViewHolder {
+        ImageView image;
+        TextView name, description, capacity;
+        ImageButton infoButton;
+        MaterialButton quickBookButton;
+
+        SpaceViewHolder(@NonNull View itemView) {
+            super(itemView);
+            image = itemView.findViewById(R.id.spaceImage);
+            name = itemView.findViewById(R.id.spaceName);
+            description = itemView.findViewById(R.id.spaceDescription);
+            capacity = itemView.findViewById(R.id.spaceCapacity);
+            infoButton = itemView.findViewById(R.id.spaceInfoButton);
+            quickBookButton = itemView.findViewById(R.id.quickBookButton);
+        }
+    }
+}
@@ -11,20 +11,56 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.card.MaterialCardView;
 import com.example.booksmart.BookingConfirmationActivity;
 import com.example.booksmart.R;
+import com.example.booksmart.core.KeyedList;
 import com.example.booksmart.models.BookingTemplate;
-import java.util.List;
+import java.util.Objects;
 
 /**
  * RecyclerView adapter for displaying booking templates.
  * Handles the display and interaction of saved booking templates.
+ * Rows mirror a {@link KeyedList} like {@link BookingsAdapter}.
  */
-public class TemplatesAdapter extends RecyclerView.Adapter<TemplatesAdapter.TemplateViewHolder> {
-    private List<BookingTemplate> templates;
+public class TemplatesAdapter extends RecyclerView.Adapter<TemplatesAdapter.TemplateViewHolder>
+        implements KeyedList.Listener {
+
+    /**
+     * Whether two versions of a template render the same row
+     */
+    public static boolean sameContent(BookingTemplate oldItem, BookingTemplate newItem) {
+        return Objects.equals(oldItem.getTemplateName(), newItem.getTemplateName())
+                && Objects.equals(oldItem.getSpaceType(), newItem.getSpaceType())
+                && Objects.equals(oldItem.getStartTime(), newItem.getStartTime())
+                && Objects.equals(oldItem.getEndTime(), newItem.getEndTime())
+                && Objects.equals(oldItem.getRecurrence(), newItem.getRecurrence());
+    }
+
+    private final KeyedList<BookingTemplate> templates;
     private Context context;
 
-    public TemplatesAdapter(Context context, List<BookingTemplate> templates) {
+    public TemplatesAdapter(Context context, KeyedList<BookingTemplate> templates) {
         this.context = context;
         this.templates = templates;
+        templates.addListener(this);
+    }
+
+    @Override
+    public void onInserted(int position) {
+        notifyItemInserted(position);
+    }
+
+    @Override
+    public void onChanged(int position) {
+        notifyItemChanged(position);
+    }
+
+    @Override
+    public void onRemoved(int position, String key) {
+        notifyItemRemoved(position);
+    }
+
+    @Override
+    public void onMoved(int fromPosition, int toPosition) {
+        notifyItemMoved(fromPosition, toPosition);
     }
 
     @NonNull
@@ -40,7 +76,7 @@ public class TemplatesAdapter extends RecyclerView.Adapter<TemplatesAdapter.Temp
         BookingTemplate template = templates.get(position);
         holder.templateName.setText(template.getTemplateName());
         holder.spaceType.setText(template.getSpaceType());
-        holder.timeRange.setText(String.format("%s - %s",
+        holder.timeRange.setText(String.format(template.getRecurrence() != null ? "%s - %s, repeats" : "%s - %s",
                 template.getStartTime(), template.getEndTime()));
 
         holder.templateCard.setOnClickListener(v -> {
@@ -50,6 +86,7 @@ public class TemplatesAdapter extends RecyclerView.Adapter<TemplatesAdapter.Temp
             intent.putExtra("templateName", template.getTemplateName());
             intent.putExtra("startTime", template.getStartTime());
             intent.putExtra("endTime", template.getEndTime());
+            intent.putExtra("recurrence", template.getRecurrence());
             intent.putExtra("fromTemplate", true);
             context.startActivity(intent);
         });
@@ -0,0 +1,53 @@
+package com.example.booksmart.conflicts;
+
+import androidx.annotation.Nullable;
+
+import com.example.booksmart.core.BookedInterval;
+
+import java.util.List;
+
+/**
+ * Single entry point for booking conflict checks.
+ * Used by both the create and edit flows so they share one overlap rule.
+ */
+public final class ConflictChecker {
+
+    /**
+     * Callback for conflict check results
+     */
+    public interface OnConflictCheckListener {
+        /**
+         * @param conflicts   Every overlapping booking, empty if the slot is free
+         * @param description Human-readable time range of the first conflict, or ""
+         */
+        void onConflictCheckComplete(List<BookedInterval> conflicts, String description);
+
+        /**
+         * Called when availability could not be determined; callers must not
+         * treat this as "no conflict"
+         */
+        void onConflictCheckFailed(String message);
+    }
+
+    private ConflictChecker() {
+    }
+
+    /**
+     * Checks [startMillis, endMillis) against the live index for the space,
+     * loading only the day buckets the interval touches
+     *
+     * @param excludedBookingId Booking to ignore, e.g. the one being edited (may be null)
+     */
+    public static void check(String spaceType, long startMillis, long endMillis,
+            @Nullable String excludedBookingId, OnConflictCheckListener listener) {
+        SpaceConflictIndex.forSpace(spaceType).whenReady(startMillis, endMillis, (index, error) -> {
+            if (error != null) {
+                listener.onConflictCheckFailed(error.getMessage());
+                return;
+            }
+            List<BookedInterval> conflicts = index.findConflicts(startMillis, endMillis, excludedBookingId);
+            String description = conflicts.isEmpty() ? "" : index.describe(conflicts.get(0));
+            listener.onConflictCheckComplete(conflicts, description);
+        });
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.booksmart.conflicts;
+
+import androidx.annotation.Nullable;
+
+import com.example.booksmart.core.BookedInterval;
+import com.example.booksmart.core.OpeningHours;
+import com.example.booksmart.core.SlotFinder;
+import com.example.booksmart.models.Space;
+import com.example.booksmart.spaces.SpaceCatalogue;
+import com.google.firebase.database.DatabaseError;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Alternatives for a conflicting booking: the nearest free times in the same
+ * space and the nearest free time in each other space.
+ * Busy time comes from the live {@link SpaceConflictIndex} day buckets, so
+ * only the days searched are loaded; {@link SlotFinder} does the sweep within
+ * each space's opening hours from the {@link SpaceCatalogue}.
+ */
+public final class SlotSuggestions {
+
+    private static final int SEARCH_DAYS = 3;
+    private static final int SAME_SPACE_LIMIT = 3;
+
+    private static final SlotFinder FINDER = new SlotFinder();
+
+    /**
+     * Callback for suggestions; both lists are nearest first and may be empty
+     */
+    public interface OnSuggestionsListener {
+        void onSuggestions(List<SlotFinder.Slot> sameSpace, List<SlotFinder.Slot> otherSpaces);
+    }
+
+    private SlotSuggestions() {
+    }
+
+    /**
+     * Searches the desired day and the two after it.
+     * Must be called from the main thread.
+     *
+     * @param excludedBookingId Booking to ignore, e.g. the one being edited (may be null)
+     */
+    public static void find(String spaceType, long desiredStart, long desiredEnd,
+            @Nullable String excludedBookingId, OnSuggestionsListener listener) {
+        SpaceCatalogue catalogue = SpaceCatalogue.getInstance();
+        TimeZone zone = TimeZone.getDefault();
+        long now = System.currentTimeMillis();
+        Map<String, List<SlotFinder.Window>> openBySpace = new LinkedHashMap<>();
+        for (Space space : catalogue.spaces()) {
+            List<SlotFinder.Window> open = space.openingHours().windows(desiredStart, SEARCH_DAYS, zone, now);
+            if (!open.isEmpty()) {
+                openBySpace.put(space.getId(), open);
+            }
+        }
+        if (catalogue.find(spaceType) == null) {
+            // Not listed (any more), so it has no hours to keep to
+            List<SlotFinder.Window> open = OpeningHours.ALWAYS.windows(desiredStart, SEARCH_DAYS, zone, now);
+            if (!open.isEmpty()) {
+                openBySpace.put(spaceType, open);
+            }
+        }
+        if (openBySpace.isEmpty()) {
+            listener.onSuggestions(new ArrayList<>(), new ArrayList<>());
+            return;
+        }
+
+        Map<String, List<BookedInterval>> busyBySpace = new LinkedHashMap<>();
+        final int[] pending = {openBySpace.size()};
+        for (Map.Entry<String, List<SlotFinder.Window>> entry : openBySpace.entrySet()) {
+            String space = entry.getKey();
+            List<SlotFinder.Window> open = entry.getValue();
+            long searchStart = open.get(0).getStartMillis();
+            long searchEnd = open.get(open.size() - 1).getEndMillis();
+            SpaceConflictIndex.forSpace(space).whenReady(searchStart, searchEnd, (index, error) -> {
+                busyBySpace.put(space, busyOrNull(index, error, searchStart, searchEnd, excludedBookingId));
+                if (--pending[0] == 0) {
+                    deliver(spaceType, busyBySpace, openBySpace, desiredStart, desiredEnd - desiredStart, listener);
+                }
+            });
+        }
+    }
+
+    @Nullable
+    private static List<BookedInterval> busyOrNull(SpaceConflictIndex index, @Nullable DatabaseError error,
+            long searchStart, long searchEnd, @Nullable String excludedBookingId) {
+        // A space whose availability could not be loaded is never suggested
+        return error != null ? null : index.findConflicts(searchStart, searchEnd, excludedBookingId);
+    }
+
+    private static void deliver(String spaceType, Map<String, List<BookedInterval>> busyBySpace,
+            Map<String, List<SlotFinder.Window>> openBySpace, long desiredStart, long duration,
+            OnSuggestionsListener listener) {
+        List<SlotFinder.Slot> sameSpace = new ArrayList<>();
+        List<BookedInterval> ownBusy = busyBySpace.remove(spaceType);
+        if (ownBusy != null) {
+            sameSpace = FINDER.nearest(spaceType, ownBusy, openBySpace.get(spaceType), desiredStart, duration,
+                    SAME_SPACE_LIMIT);
+        }
+        Map<String, List<BookedInterval>> others = new LinkedHashMap<>();
+        for (Map.Entry<String, List<BookedInterval>> space : busyBySpace.entrySet()) {
+            if (space.getValue() != null) {
+                others.put(space.getKey(), space.getValue());
+            }
+        }
+        listener.onSuggestions(sameSpace, FINDER.acrossSpaces(others, openBySpace, desiredStart, duration));
+    }
+}
@@ -0,0 +1,447 @@
+package com.example.booksmart.conflicts;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.booksmart.core.BookedInterval;
+import com.example.booksmart.core.BookingDays;
+import com.example.booksmart.core.BookingTimeCodec;
+import com.example.booksmart.core.ConflictEngine;
+import com.example.booksmart.data.BookingWrites;
+import com.example.booksmart.data.RealtimeDatabase;
+import com.example.booksmart.data.local.LocalStore;
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Live Firebase feed for a single space.
+ * Attaches ChildEventListeners to availability/{spaceType}/{day} only for the
+ * days a candidate interval touches, and keeps the shared {@link ConflictEngine}
+ * in sync from them. Payload per check stays constant as booking history grows.
+ * Deltas are also copied to the {@link LocalStore}, which keeps answering
+ * pre-checks for days after they are detached here.
+ */
+public class SpaceConflictIndex {
+
+    private static final ConflictEngine ENGINE = new ConflictEngine();
+    private static final Map<String, SpaceConflictIndex> INDEXES = new HashMap<>();
+    private static final int MAX_ATTACHED_DAYS = 14;
+
+    private final String spaceType;
+    private final DatabaseReference spaceRef;
+    // Access-ordered so the least recently checked day is detached first
+    private final LinkedHashMap<String, DayBucket> buckets = new LinkedHashMap<>(16, 0.75f, true);
+    private final BookingTimeCodec timeCodec = BookingTimeCodec.systemDefault();
+
+    private final List<OnChangeListener> changeListeners = new ArrayList<>();
+
+    /**
+     * Callback fired once every day bucket for a check has been indexed
+     */
+    public interface OnReadyListener {
+        void onReady(SpaceConflictIndex index, @Nullable DatabaseError error);
+    }
+
+    /**
+     * Callback for {@link #loadBusy}
+     */
+    public interface OnBusyListener {
+        /**
+         * @param busy Active bookings in the range, in no particular order; empty on error
+         */
+        void onBusy(List<BookedInterval> busy, @Nullable DatabaseError error);
+    }
+
+    /**
+     * Callback fired whenever a loaded day of the space changes, so screens can
+     * re-check a candidate interval without another query
+     */
+    public interface OnChangeListener {
+        void onAvailabilityChanged(SpaceConflictIndex index);
+    }
+
+    /**
+     * Returns the shared index for a space.
+     * Must be called from the main thread.
+     *
+     * @param spaceType Space to index
+     */
+    public static SpaceConflictIndex forSpace(String spaceType) {
+        SpaceConflictIndex index = INDEXES.get(spaceType);
+        if (index == null) {
+            index = new SpaceConflictIndex(spaceType);
+            INDEXES.put(spaceType, index);
+        }
+        return index;
+    }
+
+    /**
+     * Detaches every day bucket of every space, e.g. on logout
+     */
+    public static void releaseAll() {
+        for (SpaceConflictIndex index : INDEXES.values()) {
+            for (DayBucket bucket : index.buckets.values()) {
+                bucket.detach();
+            }
+            index.buckets.clear();
+            index.changeListeners.clear();
+        }
+        INDEXES.clear();
+        ENGINE.clear();
+    }
+
+    private SpaceConflictIndex(String spaceType) {
+        this.spaceType = spaceType;
+        this.spaceRef = RealtimeDatabase.get().getReference(BookingWrites.AVAILABILITY).child(spaceType);
+    }
+
+    /**
+     * Starts syncing the days an interval touches without waiting for them
+     */
+    public void prefetch(long startMillis, long endMillis) {
+        List<String> days = BookingDays.dayKeys(startMillis, endMillis);
+        for (String day : days) {
+            attach(day);
+        }
+        evictIfNeeded(days);
+    }
+
+    /**
+     * Runs the listener once every day bucket for [startMillis, endMillis) is loaded,
+     * immediately if they already are
+     */
+    public void whenReady(long startMillis, long endMillis, OnReadyListener listener) {
+        List<String> days = BookingDays.dayKeys(startMillis, endMillis);
+        List<DayBucket> needed = new ArrayList<>();
+        for (String day : days) {
+            needed.add(attach(day));
+        }
+        evictIfNeeded(days);
+
+        final int[] pending = {needed.size()};
+        final DatabaseError[] firstError = {null};
+        if (pending[0] == 0) {
+            listener.onReady(this, null);
+            return;
+        }
+        for (DayBucket bucket : needed) {
+            bucket.whenReady(error -> {
+                if (error != null && firstError[0] == null) {
+                    firstError[0] = error;
+                }
+                if (--pending[0] == 0) {
+                    listener.onReady(this, firstError[0]);
+                }
+            });
+        }
+    }
+
+    /**
+     * Whether every day bucket [startMillis, endMillis) touches is loaded, so
+     * {@link #findConflicts} answers from memory without waiting
+     */
+    public boolean isReady(long startMillis, long endMillis) {
+        for (String day : BookingDays.dayKeys(startMillis, endMillis)) {
+            DayBucket bucket = buckets.get(day);
+            if (bucket == null || !bucket.ready || bucket.error != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void addOnChangeListener(OnChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeOnChangeListener(OnChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    private void notifyChanged() {
+        for (OnChangeListener listener : new ArrayList<>(changeListeners)) {
+            listener.onAvailabilityChanged(this);
+        }
+    }
+
+    /**
+     * Finds every active booking overlapping [startMillis, endMillis)
+     *
+     * @param excludeBookingId Booking to ignore, e.g. the one being edited (may be null)
+     * @return Conflicting bookings ordered by start, empty if the space is free
+     */
+    public List<BookedInterval> findConflicts(long startMillis, long endMillis, @Nullable String excludeBookingId) {
+        return ENGINE.findConflicts(spaceType, startMillis, endMillis, excludeBookingId);
+    }
+
+    /**
+     * Returns an indexed booking by id, or null if none of the attached days hold it
+     */
+    @Nullable
+    public BookedInterval find(String bookingId) {
+        return ENGINE.get(bookingId);
+    }
+
+    /**
+     * Formats an interval back into "yyyy-MM-dd HH:mm - yyyy-MM-dd HH:mm"
+     */
+    public String describe(BookedInterval interval) {
+        return String.format("%s - %s",
+                timeCodec.formatDateTime(interval.getStartMillis()),
+                timeCodec.formatDateTime(interval.getEndMillis()));
+    }
+
+    public String getSpaceType() {
+        return spaceType;
+    }
+
+    /**
+     * Reads every active booking of the space overlapping [startMillis, endMillis)
+     * with one range query over the day buckets, without attaching them.
+     * Suits spans far wider than the attached days, such as a recurring series.
+     */
+    public void loadBusy(long startMillis, long endMillis, OnBusyListener listener) {
+        List<String> days = BookingDays.dayKeys(startMillis, endMillis);
+        if (days.isEmpty()) {
+            listener.onBusy(new ArrayList<>(), null);
+            return;
+        }
+        // Day keys sort by date, so the span is one contiguous key range
+        spaceRef.orderByKey().startAt(days.get(0)).endAt(days.get(days.size() - 1))
+                .addListenerForSingleValueEvent(new ValueEventListener() {
+                    @Override
+                    public void onDataChange(@NonNull DataSnapshot snapshot) {
+                        // A booking crossing midnight is listed under each day it touches
+                        Map<String, BookedInterval> busy = new HashMap<>();
+                        for (DataSnapshot day : snapshot.getChildren()) {
+                            for (DataSnapshot child : day.getChildren()) {
+                                BookedInterval interval = toInterval(child);
+                                if (interval != null && interval.overlaps(startMillis, endMillis)) {
+                                    busy.put(interval.getBookingId(), interval);
+                                }
+                            }
+                        }
+                        listener.onBusy(new ArrayList<>(busy.values()), null);
+                    }
+
+                    @Override
+                    public void onCancelled(@NonNull DatabaseError error) {
+                        listener.onBusy(new ArrayList<>(), error);
+                    }
+                });
+    }
+
+    /**
+     * @return The active booking an availability child describes, or null if it
+     *         is cancelled or incomplete
+     */
+    @Nullable
+    private BookedInterval toInterval(DataSnapshot snapshot) {
+        Long start = snapshot.child("startMillis").getValue(Long.class);
+        Long end = snapshot.child("endMillis").getValue(Long.class);
+        String status = snapshot.child("status").getValue(String.class);
+        if (snapshot.getKey() == null || start == null || end == null || "cancelled".equals(status)) {
+            return null;
+        }
+        return new BookedInterval(snapshot.getKey(), spaceType, start, end);
+    }
+
+    private DayBucket attach(String day) {
+        DayBucket bucket = buckets.get(day);
+        if (bucket == null) {
+            bucket = new DayBucket(day);
+            buckets.put(day, bucket);
+            bucket.attach();
+        }
+        return bucket;
+    }
+
+    private void evictIfNeeded(List<String> keep) {
+        Iterator<DayBucket> eldest = buckets.values().iterator();
+        while (buckets.size() > MAX_ATTACHED_DAYS && eldest.hasNext()) {
+            DayBucket bucket = eldest.next();
+            if (keep.contains(bucket.day)) {
+                continue;
+            }
+            eldest.remove();
+            bucket.detach();
+            for (String bookingId : bucket.intervals.keySet()) {
+                forget(bookingId);
+            }
+        }
+    }
+
+    /**
+     * Drops a booking from the engine unless another attached day still holds it
+     */
+    private void forget(String bookingId) {
+        ENGINE.remove(bookingId);
+        for (DayBucket other : buckets.values()) {
+            BookedInterval interval = other.intervals.get(bookingId);
+            if (interval != null) {
+                ENGINE.put(interval);
+                return;
+            }
+        }
+    }
+
+    private interface BucketReadyListener {
+        void onReady(@Nullable DatabaseError error);
+    }
+
+    /**
+     * One availability/{spaceType}/{day} node kept in sync with the engine
+     */
+    private class DayBucket implements ChildEventListener {
+        final String day;
+        final DatabaseReference ref;
+        final Map<String, BookedInterval> intervals = new HashMap<>();
+        final List<BucketReadyListener> waiters = new ArrayList<>();
+        boolean ready;
+        DatabaseError error;
+
+        DayBucket(String day) {
+            this.day = day;
+            this.ref = spaceRef.child(day);
+        }
+
+        void attach() {
+            ref.addChildEventListener(this);
+            // Value events fire after the initial child events, marking the bucket as loaded
+            ref.addListenerForSingleValueEvent(new ValueEventListener() {
+                @Override
+                public void onDataChange(@NonNull DataSnapshot snapshot) {
+                    markReady(null);
+                    LocalStore.getInstance().markDaySynced(spaceType, day);
+                }
+
+                @Override
+                public void onCancelled(@NonNull DatabaseError error) {
+                    fail(error);
+                }
+            });
+        }
+
+        void detach() {
+            ref.removeEventListener(this);
+        }
+
+        void whenReady(BucketReadyListener listener) {
+            if (ready) {
+                listener.onReady(error);
+            } else {
+                waiters.add(listener);
+            }
+        }
+
+        private void markReady(@Nullable DatabaseError error) {
+            if (ready) {
+                return;
+            }
+            ready = true;
+            this.error = error;
+            List<BucketReadyListener> listeners = new ArrayList<>(waiters);
+            waiters.clear();
+            for (BucketReadyListener listener : listeners) {
+                listener.onReady(error);
+            }
+            notifyChanged();
+        }
+
+        /**
+         * Initial children are reported once, when the bucket becomes ready
+         */
+        private void notifyChangedIfReady() {
+            if (ready) {
+                notifyChanged();
+            }
+        }
+
+        private void index(DataSnapshot snapshot) {
+            String key = snapshot.getKey();
+            if (key == null) {
+                return;
+            }
+            BookedInterval interval = toInterval(snapshot);
+            if (interval == null) {
+                if (intervals.remove(key) != null) {
+                    forget(key);
+                    notifyChangedIfReady();
+                }
+                LocalStore.getInstance().removeInterval(key);
+                return;
+            }
+            intervals.put(key, interval);
+            ENGINE.put(interval);
+            LocalStore.getInstance().putInterval(interval);
+            notifyChangedIfReady();
+        }
+
+        @Override
+        public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+            index(snapshot);
+        }
+
+        @Override
+        public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+            index(snapshot);
+        }
+
+        @Override
+        public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+            String key = snapshot.getKey();
+            if (key != null && intervals.remove(key) != null) {
+                forget(key);
+                // A move to another attached day re-adds it there
+                if (ENGINE.get(key) == null) {
+                    LocalStore.getInstance().removeInterval(key);
+                }
+                notifyChangedIfReady();
+            }
+        }
+
+        @Override
+        public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+            // Ordering changes do not affect the interval set
+        }
+
+        @Override
+        public void onCancelled(@NonNull DatabaseError error) {
+            fail(error);
+        }
+
+        /**
+         * Drops the bucket and its intervals, so the next {@link #whenReady} or
+         * {@link #prefetch} attaches the day afresh instead of replaying the error
+         */
+        private void fail(DatabaseError error) {
+            if (buckets.get(day) == this) {
+                buckets.remove(day);
+            }
+            detach();
+            for (String bookingId : intervals.keySet()) {
+                forget(bookingId);
+            }
+            boolean hadIntervals = !intervals.isEmpty();
+            intervals.clear();
+            if (!ready) {
+                markReady(error);
+            } else {
+                this.error = error;
+                if (hadIntervals) {
+                    notifyChanged();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.booksmart.data;
+
+import androidx.annotation.NonNull;
+
+import com.example.booksmart.models.Booking;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keyset pager over a user's past bookings, newest first.
+ * Each page is one bounded query ending just before the oldest booking of the
+ * previous page, keyed on (startMillis, key) so bookings sharing a start time
+ * are neither skipped nor repeated. Only the pages actually scrolled to are
+ * downloaded, however long the history is.
+ */
+public class BookingHistoryPager {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    private static final double NO_START = -1;
+
+    public interface Callback {
+        /**
+         * @param page Bookings of the page, newest first; may be empty
+         */
+        void onPage(List<Booking> page);
+
+        void onError(DatabaseError error);
+    }
+
+    private final Query byStartTime;
+    private final long beforeMillis;
+    private final int pageSize;
+    private double cursorStart;
+    private String cursorKey;
+    private boolean loading;
+    private boolean exhausted;
+
+    /**
+     * @param byStartTime  Bookings ordered by startMillis
+     * @param beforeMillis History ends before this time, usually now
+     */
+    public BookingHistoryPager(Query byStartTime, long beforeMillis, int pageSize) {
+        this.byStartTime = byStartTime;
+        this.beforeMillis = beforeMillis;
+        this.pageSize = pageSize;
+    }
+
+    public boolean isLoading() {
+        return loading;
+    }
+
+    /**
+     * Whether every past booking has been delivered
+     */
+    public boolean isExhausted() {
+        return exhausted;
+    }
+
+    /**
+     * Requests the next older page
+     *
+     * @return False if a page is already loading or there is nothing left
+     */
+    public boolean loadNextPage(Callback callback) {
+        if (loading || exhausted) {
+            return false;
+        }
+        loading = true;
+        Query page = cursorKey == null
+                ? byStartTime.endBefore(beforeMillis)
+                : byStartTime.endBefore(cursorStart, cursorKey);
+        page.limitToLast(pageSize).addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                List<Booking> bookings = new ArrayList<>((int) snapshot.getChildrenCount());
+                // Children arrive oldest first; the first one is the next cursor
+                boolean first = true;
+                for (DataSnapshot child : snapshot.getChildren()) {
+                    if (first) {
+                        Double start = child.child("startMillis").getValue(Double.class);
+                        cursorStart = start != null ? start : NO_START;
+                        cursorKey = child.getKey();
+                        first = false;
+                    }
+                    Booking booking = child.getValue(Booking.class);
+                    if (booking != null) {
+                        booking.setBookingId(child.getKey());
+                        bookings.add(booking);
+                    }
+                }
+                Collections.reverse(bookings);
+                // Unmigrated bookings without startMillis sort first and cannot be keyed past
+                exhausted = snapshot.getChildrenCount() < pageSize || cursorStart == NO_START;
+                loading = false;
+                callback.onPage(bookings);
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                loading = false;
+                callback.onError(error);
+            }
+        });
+        return true;
+    }
+}
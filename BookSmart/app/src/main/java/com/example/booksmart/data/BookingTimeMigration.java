@@ -0,0 +1,115 @@
+package com.example.booksmart.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.booksmart.models.Booking;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * One-off backfill of startMillis/endMillis/timeZoneId on the signed-in user's
+ * legacy bookings, in bookings/ and their userBookings/ copy, with a single
+ * multi-path update. Legacy strings carry no zone and were written in the
+ * zone of the device that booked them, so each user converts only their own
+ * bookings, on their own device; other users' bookings are left for their
+ * devices. Bookings of users who never sign in again are converted by the
+ * admin tool's backfill-bookings job, given the zone they were made in with
+ * --zone. Retries on the next launch after a failure. The availability/
+ * buckets and slots/ claims are backfilled once, centrally, by the admin
+ * tool's backfill-bookings job, which guards against concurrent edits that a
+ * device cannot.
+ */
+public class BookingTimeMigration {
+    private static final String TAG = "BookingTimeMigration";
+    private static final String PREFS_NAME = "booksmart_migrations";
+    private static final String KEY_DONE_PREFIX = "booking_epoch_times_v3_";
+
+    private static boolean running;
+
+    private BookingTimeMigration() {
+    }
+
+    /**
+     * Converts the user's legacy bookings unless already done on this device
+     *
+     * @param context Any context; only the application context is retained
+     * @param userId  Signed-in user
+     * @param then    Run once the user's bookings carry epoch times, or the attempt failed
+     */
+    public static void runIfNeeded(Context context, String userId, Runnable then) {
+        SharedPreferences prefs = context.getApplicationContext()
+                .getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        String doneKey = KEY_DONE_PREFIX + userId;
+        if (prefs.getBoolean(doneKey, false)) {
+            then.run();
+            return;
+        }
+        if (running) {
+            return;
+        }
+        running = true;
+        // Legacy strings were written in the zone of the user's own device
+        String timeZoneId = TimeZone.getDefault().getID();
+
+        DatabaseReference rootRef = RealtimeDatabase.get().getReference();
+        rootRef.child(BookingWrites.BOOKINGS).orderByChild("userId").equalTo(userId)
+                .addListenerForSingleValueEvent(new ValueEventListener() {
+                    @Override
+                    public void onDataChange(@NonNull DataSnapshot snapshot) {
+                        Map<String, Object> updates = new HashMap<>();
+                        for (DataSnapshot child : snapshot.getChildren()) {
+                            Booking booking = child.getValue(Booking.class);
+                            if (booking == null || booking.hasEpochTimes()
+                                    || !userId.equals(booking.getUserId())) {
+                                continue;
+                            }
+                            long start = Booking.parseLegacy(booking.getStartTime(), timeZoneId);
+                            long end = Booking.parseLegacy(booking.getEndTime(), timeZoneId);
+                            if (start <= 0 || end <= 0) {
+                                continue;
+                            }
+                            for (String path : new String[]{BookingWrites.bookingPath(child.getKey()),
+                                    BookingWrites.userBookingPath(userId, child.getKey())}) {
+                                updates.put(path + "/startMillis", start);
+                                updates.put(path + "/endMillis", end);
+                                updates.put(path + "/timeZoneId", timeZoneId);
+                            }
+                        }
+                        if (updates.isEmpty()) {
+                            finish(prefs, doneKey, then);
+                            return;
+                        }
+                        rootRef.updateChildren(updates)
+                                .addOnSuccessListener(aVoid -> finish(prefs, doneKey, then))
+                                .addOnFailureListener(e -> {
+                                    Log.w(TAG, "Backfill failed", e);
+                                    running = false;
+                                    then.run();
+                                });
+                    }
+
+                    @Override
+                    public void onCancelled(@NonNull DatabaseError error) {
+                        Log.w(TAG, "Backfill query failed: " + error.getMessage());
+                        running = false;
+                        then.run();
+                    }
+                });
+    }
+
+    private static void finish(SharedPreferences prefs, String doneKey, Runnable then) {
+        prefs.edit().putBoolean(doneKey, true).apply();
+        running = false;
+        then.run();
+    }
+}
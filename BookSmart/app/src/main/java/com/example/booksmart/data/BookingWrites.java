@@ -0,0 +1,177 @@
+package com.example.booksmart.data;
+
+import com.example.booksmart.core.BookingDays;
+import com.example.booksmart.core.BookingSlots;
+import com.example.booksmart.models.Booking;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds multi-path updates that keep bookings/ and its denormalized
+ * indexes in step. Every booking write goes through one of these maps and a
+ * single root updateChildren call, so the copies can never diverge.
+ *
+ * Layout:
+ * bookings/{bookingId}                              full booking
+ * userBookings/{userId}/{bookingId}                 full booking copy for the owner's list
+ * availability/{spaceType}/{yyyy-MM-dd}/{bookingId} start, end and status per UTC day touched
+ * slots/{spaceType}/{yyyy-MM-dd}/{NN}               owning booking, user and version per 15-minute granule
+ *
+ * Slots are claimed one by one with transactions (see {@link SlotReservation})
+ * before the booking is written; these maps only ever release them.
+ */
+public final class BookingWrites {
+    public static final String BOOKINGS = "bookings";
+    public static final String USER_BOOKINGS = "userBookings";
+    public static final String AVAILABILITY = "availability";
+    public static final String SLOTS = "slots";
+
+    private BookingWrites() {
+    }
+
+    /**
+     * Paths for a brand new booking
+     *
+     * @param booking Booking with id, user id and epoch times set
+     */
+    public static Map<String, Object> create(Booking booking) {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put(bookingPath(booking.getBookingId()), booking);
+        updates.put(userBookingPath(booking.getUserId(), booking.getBookingId()), booking);
+        putAvailability(updates, booking);
+        return updates;
+    }
+
+    /**
+     * Paths for changing individual fields of an existing booking.
+     * A status change is mirrored into the availability buckets, and
+     * cancelling releases the booking's slots in the same write.
+     *
+     * @param booking Booking being changed (id, user id and times are read from it)
+     * @param fields  Field name to new value, e.g. "status" -> "cancelled"
+     */
+    public static Map<String, Object> updateFields(Booking booking, Map<String, Object> fields) {
+        Map<String, Object> updates = new HashMap<>();
+        String bookingPath = bookingPath(booking.getBookingId());
+        String userPath = userBookingPath(booking.getUserId(), booking.getBookingId());
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            updates.put(bookingPath + "/" + field.getKey(), field.getValue());
+            updates.put(userPath + "/" + field.getKey(), field.getValue());
+        }
+        if (fields.containsKey("status")) {
+            for (String day : BookingDays.dayKeys(booking.getStartMillis(), booking.getEndMillis())) {
+                updates.put(availabilityPath(booking.getSpaceType(), day, booking.getBookingId()) + "/status",
+                        fields.get("status"));
+            }
+            if ("cancelled".equals(fields.get("status"))) {
+                releaseSlots(updates, booking);
+            }
+        }
+        return updates;
+    }
+
+    /**
+     * Paths for moving a booking to new times in one write: the booking and
+     * owner's copy, the availability buckets, the slots it no longer covers and
+     * a version bump. The bump is validated against the stored version, so the
+     * whole update is rejected if someone else edited the booking first.
+     * Slots for the new times must already be reserved at the bumped version.
+     *
+     * @param booking        Booking already carrying its new times and the version it was read at
+     * @param oldStartMillis Previous start in epoch milliseconds
+     * @param oldEndMillis   Previous end in epoch milliseconds
+     */
+    public static Map<String, Object> reschedule(Booking booking, long oldStartMillis, long oldEndMillis) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("startTime", booking.getStartTime());
+        fields.put("endTime", booking.getEndTime());
+        fields.put("startMillis", booking.getStartMillis());
+        fields.put("endMillis", booking.getEndMillis());
+        fields.put("timeZoneId", booking.getTimeZoneId());
+        fields.put("version", booking.getVersion() + 1);
+
+        Map<String, Object> updates = updateFields(booking, fields);
+        moveAvailability(booking, oldStartMillis, oldEndMillis, updates);
+
+        List<String> newSlots = BookingSlots.slotKeys(booking.getStartMillis(), booking.getEndMillis());
+        for (String slot : BookingSlots.slotKeys(oldStartMillis, oldEndMillis)) {
+            if (!newSlots.contains(slot)) {
+                updates.put(slotPath(booking.getSpaceType(), slot), null);
+            }
+        }
+        return updates;
+    }
+
+    /**
+     * Moves a booking's availability entries from its old interval to its current one.
+     * Buckets the booking no longer touches are cleared.
+     *
+     * @param booking        Booking already carrying its new times
+     * @param oldStartMillis Previous start in epoch milliseconds
+     * @param oldEndMillis   Previous end in epoch milliseconds
+     * @param updates        Map to add the availability paths to
+     */
+    public static void moveAvailability(Booking booking, long oldStartMillis, long oldEndMillis,
+            Map<String, Object> updates) {
+        List<String> newDays = BookingDays.dayKeys(booking.getStartMillis(), booking.getEndMillis());
+        for (String day : BookingDays.dayKeys(oldStartMillis, oldEndMillis)) {
+            if (!newDays.contains(day)) {
+                updates.put(availabilityPath(booking.getSpaceType(), day, booking.getBookingId()), null);
+            }
+        }
+        putAvailability(updates, booking);
+    }
+
+    /**
+     * Adds one availability entry per UTC day the booking touches
+     */
+    public static void putAvailability(Map<String, Object> updates, Booking booking) {
+        long start = booking.getStartMillis();
+        long end = booking.getEndMillis();
+        for (String day : BookingDays.dayKeys(start, end)) {
+            updates.put(availabilityPath(booking.getSpaceType(), day, booking.getBookingId()),
+                    availabilityEntry(start, end, booking.getStatus()));
+        }
+    }
+
+    /**
+     * Clears every slot the booking holds
+     */
+    public static void releaseSlots(Map<String, Object> updates, Booking booking) {
+        for (String slot : BookingSlots.slotKeys(booking.getStartMillis(), booking.getEndMillis())) {
+            updates.put(slotPath(booking.getSpaceType(), slot), null);
+        }
+    }
+
+    /**
+     * The slim value stored in each availability bucket
+     */
+    public static Map<String, Object> availabilityEntry(long startMillis, long endMillis, String status) {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("startMillis", startMillis);
+        entry.put("endMillis", endMillis);
+        entry.put("status", status);
+        return entry;
+    }
+
+    public static String bookingPath(String bookingId) {
+        return BOOKINGS + "/" + bookingId;
+    }
+
+    public static String userBookingPath(String userId, String bookingId) {
+        return USER_BOOKINGS + "/" + userId + "/" + bookingId;
+    }
+
+    public static String availabilityPath(String spaceType, String day, String bookingId) {
+        return AVAILABILITY + "/" + spaceType + "/" + day + "/" + bookingId;
+    }
+
+    /**
+     * @param slotKey Key from {@link BookingSlots#slotKeys}, "yyyy-MM-dd/NN"
+     */
+    public static String slotPath(String spaceType, String slotKey) {
+        return SLOTS + "/" + spaceType + "/" + slotKey;
+    }
+}
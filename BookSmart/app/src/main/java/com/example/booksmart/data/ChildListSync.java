@@ -0,0 +1,150 @@
+package com.example.booksmart.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.booksmart.core.KeyedList;
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Streams a query's children into a {@link KeyedList} with a ChildEventListener.
+ * Each delta deserializes only the child that changed, so the cost of an update
+ * does not grow with the size of the list.
+ * The list can be seeded from a local cache before the server answers; seeded
+ * rows the initial load does not confirm are removed once it completes.
+ *
+ * @param <T> Model type
+ */
+public class ChildListSync<T> implements ChildEventListener {
+
+    /**
+     * Turns one child into a model, or null to skip it
+     */
+    public interface Parser<T> {
+        @Nullable
+        T parse(DataSnapshot snapshot);
+    }
+
+    /**
+     * Callbacks for the sync lifecycle
+     */
+    public interface Callback {
+        /**
+         * The initial children have all been delivered
+         */
+        void onLoaded();
+
+        void onError(DatabaseError error);
+    }
+
+    private final Query query;
+    private final KeyedList<T> list;
+    private final Parser<T> parser;
+    private final Callback callback;
+    private final Set<String> unconfirmedSeeds = new HashSet<>();
+    private ValueEventListener loadedListener;
+    private boolean started;
+    private boolean loaded;
+
+    public ChildListSync(Query query, KeyedList<T> list, Parser<T> parser, Callback callback) {
+        this.query = query;
+        this.list = list;
+        this.parser = parser;
+        this.callback = callback;
+    }
+
+    /**
+     * Attaches the listener; the list receives every existing child first
+     */
+    public void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        query.addChildEventListener(this);
+        // Value events fire after the initial child events, marking the load as complete
+        loadedListener = new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                loadedListener = null;
+                loaded = true;
+                for (String key : unconfirmedSeeds) {
+                    list.onRemoved(key);
+                }
+                unconfirmedSeeds.clear();
+                callback.onLoaded();
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                loadedListener = null;
+            }
+        };
+        query.addListenerForSingleValueEvent(loadedListener);
+    }
+
+    /**
+     * Shows a cached value until the server confirms or drops it.
+     * Ignored once the initial load is done or if the key already arrived.
+     */
+    public void seed(String key, T value) {
+        if (loaded || list.find(key) != null) {
+            return;
+        }
+        unconfirmedSeeds.add(key);
+        list.append(key, value);
+    }
+
+    public void stop() {
+        if (!started) {
+            return;
+        }
+        started = false;
+        query.removeEventListener(this);
+        if (loadedListener != null) {
+            query.removeEventListener(loadedListener);
+            loadedListener = null;
+        }
+    }
+
+    @Override
+    public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+        unconfirmedSeeds.remove(snapshot.getKey());
+        T value = parser.parse(snapshot);
+        if (value != null) {
+            list.onAdded(snapshot.getKey(), value, previousChildName);
+        }
+    }
+
+    @Override
+    public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+        T value = parser.parse(snapshot);
+        if (value != null) {
+            list.onChanged(snapshot.getKey(), value);
+        } else {
+            list.onRemoved(snapshot.getKey());
+        }
+    }
+
+    @Override
+    public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+        list.onMoved(snapshot.getKey(), previousChildName);
+    }
+
+    @Override
+    public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+        list.onRemoved(snapshot.getKey());
+    }
+
+    @Override
+    public void onCancelled(@NonNull DatabaseError error) {
+        callback.onError(error);
+    }
+}
@@ -0,0 +1,359 @@
+package com.example.booksmart.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.booksmart.conflicts.ConflictChecker;
+import com.example.booksmart.core.BookedInterval;
+import com.example.booksmart.core.BookingBatch;
+import com.example.booksmart.core.BookingException;
+import com.example.booksmart.core.BookingRepository;
+import com.example.booksmart.core.BookingRules;
+import com.example.booksmart.models.Booking;
+import com.example.booksmart.spaces.SpaceCatalogue;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link BookingRepository} over the Realtime Database.
+ * Times off the 15-minute slot grid, and bookings outside a space's opening
+ * hours in the {@link SpaceCatalogue}, are refused locally. Slots are reserved
+ * with {@link SlotReservation} before a booking is written, and every write is
+ * one multi-path update built by {@link BookingWrites}. Callbacks arrive on the
+ * main thread.
+ */
+public class FirebaseBookingRepository implements BookingRepository {
+    private static FirebaseBookingRepository instance;
+
+    private final DatabaseReference rootRef;
+
+    public static synchronized FirebaseBookingRepository getInstance() {
+        if (instance == null) {
+            instance = new FirebaseBookingRepository();
+        }
+        return instance;
+    }
+
+    private FirebaseBookingRepository() {
+        this.rootRef = RealtimeDatabase.get().getReference();
+    }
+
+    @Override
+    public void create(Booking booking, Callback<Booking> callback) {
+        BookingException refused = refusalFor(booking.getSpaceType(), booking.getStartMillis(),
+                booking.getEndMillis(), booking.getTimeZoneId());
+        if (refused != null) {
+            callback.onFailure(refused);
+            return;
+        }
+        if (booking.getBookingId() == null) {
+            booking.setBookingId(rootRef.child(BookingWrites.BOOKINGS).push().getKey());
+        }
+        SlotReservation.reserve(booking, booking.getStartMillis(), booking.getEndMillis(), booking.getVersion(),
+                new ReservationCallback(booking.getBookingId(), callback) {
+                    @Override
+                    public void onReserved(SlotReservation reservation) {
+                        rootRef.updateChildren(BookingWrites.create(booking))
+                                .addOnSuccessListener(aVoid -> callback.onSuccess(booking))
+                                .addOnFailureListener(e -> {
+                                    reservation.release();
+                                    callback.onFailure(unavailable(e.getMessage()));
+                                });
+                    }
+                });
+    }
+
+    @Override
+    public void createAll(List<Booking> bookings, BookingBatch.Mode mode, Callback<BookingBatch> callback) {
+        if (bookings.isEmpty()) {
+            callback.onSuccess(new BookingBatch(new ArrayList<>()));
+            return;
+        }
+        for (Booking booking : bookings) {
+            if (booking.getBookingId() == null) {
+                booking.setBookingId(rootRef.child(BookingWrites.BOOKINGS).push().getKey());
+            }
+        }
+        BookingException[] errors = BookingBatch.overlapsWithinBatch(bookings);
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking booking = bookings.get(i);
+            if (errors[i] == null) {
+                errors[i] = refusalFor(booking.getSpaceType(), booking.getStartMillis(), booking.getEndMillis(),
+                        booking.getTimeZoneId());
+            }
+        }
+
+        // Reservations run concurrently, so the batch waits for the slowest one rather than their sum
+        SlotReservation[] reservations = new SlotReservation[bookings.size()];
+        int[] pending = {bookings.size()};
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking booking = bookings.get(i);
+            if (errors[i] != null) {
+                pending[0]--;
+                continue;
+            }
+            int index = i;
+            SlotReservation.reserve(booking, booking.getStartMillis(), booking.getEndMillis(), booking.getVersion(),
+                    new SlotReservation.OnReservationListener() {
+                        @Override
+                        public void onReserved(SlotReservation reservation) {
+                            reservations[index] = reservation;
+                            settle();
+                        }
+
+                        @Override
+                        public void onSlotTaken(String conflictingBookingId) {
+                            errors[index] = BookingException.slotTaken(conflictingBookingId);
+                            settle();
+                        }
+
+                        @Override
+                        public void onReservationFailed(String message) {
+                            errors[index] = unavailable(message);
+                            settle();
+                        }
+
+                        private void settle() {
+                            if (--pending[0] == 0) {
+                                writeBatch(bookings, reservations, errors, mode, callback);
+                            }
+                        }
+                    });
+        }
+        if (pending[0] == 0) {
+            writeBatch(bookings, reservations, errors, mode, callback);
+        }
+    }
+
+    /**
+     * Writes every reserved booking of a batch in one multi-path update, or
+     * releases them all if the batch is all-or-nothing and something failed
+     */
+    private void writeBatch(List<Booking> bookings, SlotReservation[] reservations, BookingException[] errors,
+            BookingBatch.Mode mode, Callback<BookingBatch> callback) {
+        boolean abort = false;
+        if (mode == BookingBatch.Mode.ALL_OR_NOTHING) {
+            for (BookingException error : errors) {
+                abort |= error != null;
+            }
+        }
+        List<SlotReservation> reserved = new ArrayList<>();
+        Map<String, Object> updates = new HashMap<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            if (errors[i] == null) {
+                reserved.add(reservations[i]);
+                if (abort) {
+                    errors[i] = BookingBatch.aborted();
+                } else {
+                    updates.putAll(BookingWrites.create(bookings.get(i)));
+                }
+            }
+        }
+        if (abort || updates.isEmpty()) {
+            releaseAll(reserved);
+            callback.onSuccess(outcomes(bookings, errors));
+            return;
+        }
+        rootRef.updateChildren(updates)
+                .addOnSuccessListener(aVoid -> callback.onSuccess(outcomes(bookings, errors)))
+                .addOnFailureListener(e -> {
+                    releaseAll(reserved);
+                    for (int i = 0; i < errors.length; i++) {
+                        if (errors[i] == null) {
+                            errors[i] = unavailable(e.getMessage());
+                        }
+                    }
+                    callback.onSuccess(outcomes(bookings, errors));
+                });
+    }
+
+    private static void releaseAll(List<SlotReservation> reservations) {
+        for (SlotReservation reservation : reservations) {
+            reservation.release();
+        }
+    }
+
+    private static BookingBatch outcomes(List<Booking> bookings, BookingException[] errors) {
+        List<BookingBatch.Outcome> outcomes = new ArrayList<>(bookings.size());
+        for (int i = 0; i < bookings.size(); i++) {
+            outcomes.add(errors[i] == null
+                    ? BookingBatch.Outcome.booked(bookings.get(i))
+                    : BookingBatch.Outcome.failed(bookings.get(i), errors[i]));
+        }
+        return new BookingBatch(outcomes);
+    }
+
+    @Override
+    public void reschedule(Booking booking, long startMillis, long endMillis, String timeZoneId,
+            Callback<Booking> callback) {
+        BookingException refused = refusalFor(booking.getSpaceType(), startMillis, endMillis, timeZoneId);
+        if (refused != null) {
+            callback.onFailure(refused);
+            return;
+        }
+        long oldStartMillis = booking.getStartMillis();
+        long oldEndMillis = booking.getEndMillis();
+        String oldTimeZoneId = booking.getTimeZoneId();
+        long readVersion = booking.getVersion();
+
+        // Slots the booking already holds are re-stamped with the new version, so a
+        // concurrent edit of the same booking cannot claim them as well
+        SlotReservation.reserve(booking, startMillis, endMillis, readVersion + 1,
+                new ReservationCallback(booking.getBookingId(), callback) {
+                    @Override
+                    public void onReserved(SlotReservation reservation) {
+                        // Write the canonical and display times together so they never diverge
+                        booking.setTimes(startMillis, endMillis, timeZoneId);
+                        rootRef.updateChildren(BookingWrites.reschedule(booking, oldStartMillis, oldEndMillis))
+                                .addOnSuccessListener(aVoid -> {
+                                    booking.setVersion(readVersion + 1);
+                                    callback.onSuccess(booking);
+                                })
+                                .addOnFailureListener(e -> {
+                                    booking.setTimes(oldStartMillis, oldEndMillis, oldTimeZoneId);
+                                    // Only slots still carrying this attempt's version are put back
+                                    reservation.release();
+                                    reportWriteFailure(booking.getBookingId(), readVersion,
+                                            e.getMessage(), callback);
+                                });
+                    }
+                });
+    }
+
+    @Override
+    public void cancel(Booking booking, Callback<Booking> callback) {
+        // Bumped like a reschedule, so a cancel based on stale times is rejected
+        // instead of releasing slots the booking no longer holds
+        long readVersion = booking.getVersion();
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("status", "cancelled");
+        fields.put("version", readVersion + 1);
+
+        rootRef.updateChildren(BookingWrites.updateFields(booking, fields))
+                .addOnSuccessListener(aVoid -> {
+                    booking.setStatus("cancelled");
+                    booking.setVersion(readVersion + 1);
+                    callback.onSuccess(booking);
+                })
+                .addOnFailureListener(e -> reportWriteFailure(booking.getBookingId(), readVersion,
+                        e.getMessage(), callback));
+    }
+
+    @Override
+    public void findConflicts(String spaceType, long startMillis, long endMillis,
+            @Nullable String excludedBookingId, Callback<List<BookedInterval>> callback) {
+        ConflictChecker.check(spaceType, startMillis, endMillis, excludedBookingId,
+                new ConflictChecker.OnConflictCheckListener() {
+                    @Override
+                    public void onConflictCheckComplete(List<BookedInterval> conflicts, String description) {
+                        callback.onSuccess(conflicts);
+                    }
+
+                    @Override
+                    public void onConflictCheckFailed(String message) {
+                        callback.onFailure(unavailable(message));
+                    }
+                });
+    }
+
+    @Override
+    public void listForUser(String userId, Callback<List<Booking>> callback) {
+        rootRef.child(BookingWrites.USER_BOOKINGS).child(userId).orderByChild("startMillis")
+                .addListenerForSingleValueEvent(new ValueEventListener() {
+                    @Override
+                    public void onDataChange(@NonNull DataSnapshot snapshot) {
+                        List<Booking> bookings = new ArrayList<>();
+                        for (DataSnapshot child : snapshot.getChildren()) {
+                            Booking booking = child.getValue(Booking.class);
+                            if (booking != null) {
+                                booking.setBookingId(child.getKey());
+                                bookings.add(booking);
+                            }
+                        }
+                        callback.onSuccess(bookings);
+                    }
+
+                    @Override
+                    public void onCancelled(@NonNull DatabaseError error) {
+                        callback.onFailure(unavailable(error.getMessage()));
+                    }
+                });
+    }
+
+    /**
+     * Tells a concurrent edit apart from any other failure by re-reading the version
+     */
+    private void reportWriteFailure(String bookingId, long readVersion, String message,
+            Callback<Booking> callback) {
+        rootRef.child(BookingWrites.bookingPath(bookingId)).child("version")
+                .addListenerForSingleValueEvent(new ValueEventListener() {
+                    @Override
+                    public void onDataChange(@NonNull DataSnapshot snapshot) {
+                        Long storedVersion = snapshot.getValue(Long.class);
+                        if (storedVersion != null && storedVersion != readVersion) {
+                            callback.onFailure(stale());
+                        } else {
+                            callback.onFailure(unavailable(message));
+                        }
+                    }
+
+                    @Override
+                    public void onCancelled(@NonNull DatabaseError error) {
+                        callback.onFailure(unavailable(message));
+                    }
+                });
+    }
+
+    /**
+     * Applies {@link BookingRules} with the hours from the cached catalogue, without a fetch
+     *
+     * @return The failure to report, or null if the times can be booked
+     */
+    @Nullable
+    private static BookingException refusalFor(String spaceType, long startMillis, long endMillis,
+            @Nullable String timeZoneId) {
+        return BookingRules.refusal(spaceType, startMillis, endMillis, timeZoneId,
+                SpaceCatalogue.getInstance().hoursOf(spaceType));
+    }
+
+    private static BookingException stale() {
+        return new BookingException(BookingException.Reason.STALE_VERSION, "Booking was changed elsewhere");
+    }
+
+    private static BookingException unavailable(String message) {
+        return new BookingException(BookingException.Reason.UNAVAILABLE, message);
+    }
+
+    /**
+     * Maps slot reservation failures onto the repository callback
+     */
+    private abstract static class ReservationCallback implements SlotReservation.OnReservationListener {
+        private final String bookingId;
+        private final Callback<Booking> callback;
+
+        ReservationCallback(String bookingId, Callback<Booking> callback) {
+            this.bookingId = bookingId;
+            this.callback = callback;
+        }
+
+        @Override
+        public void onSlotTaken(String conflictingBookingId) {
+            // The booking's own slots at a newer version mean another edit of it got there first
+            callback.onFailure(bookingId.equals(conflictingBookingId)
+                    ? stale()
+                    : BookingException.slotTaken(conflictingBookingId));
+        }
+
+        @Override
+        public void onReservationFailed(String message) {
+            callback.onFailure(unavailable(message));
+        }
+    }
+}
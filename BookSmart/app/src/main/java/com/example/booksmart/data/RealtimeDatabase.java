@@ -0,0 +1,40 @@
+package com.example.booksmart.data;
+
+import com.google.firebase.database.FirebaseDatabase;
+
+/**
+ * The app's configured {@link FirebaseDatabase}.
+ * Persistence must be switched on before the first reference is made, and
+ * creating the instance costs tens of milliseconds, so the application warms
+ * it on a background thread instead of in onCreate. Every caller goes through
+ * {@link #get()}, which waits for that warm-up if it is still running rather
+ * than racing it.
+ */
+public final class RealtimeDatabase {
+    private static volatile FirebaseDatabase instance;
+
+    private RealtimeDatabase() {
+    }
+
+    public static FirebaseDatabase get() {
+        FirebaseDatabase database = instance;
+        if (database == null) {
+            synchronized (RealtimeDatabase.class) {
+                database = instance;
+                if (database == null) {
+                    database = FirebaseDatabase.getInstance();
+                    database.setPersistenceEnabled(true);
+                    instance = database;
+                }
+            }
+        }
+        return database;
+    }
+
+    /**
+     * Creates the instance off the calling thread
+     */
+    public static void warmUpInBackground() {
+        new Thread(RealtimeDatabase::get, "realtime-database-init").start();
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.booksmart.data;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.booksmart.core.BookingSlots;
+import com.example.booksmart.models.Booking;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.MutableData;
+import com.google.firebase.database.Transaction;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Claims a booking's 15-minute slots under slots/{spaceType}/{day}/{NN}.
+ * Each slot is a compare-and-set transaction that stamps the slot with a
+ * {@link BookingSlots#entry} carrying the version about to be written. It only succeeds if the slot
+ * is free or held by an older version of the same booking, so two clients
+ * racing for the same time, or two edits of the same booking, can never both
+ * win. All slots are claimed in parallel; the first one found taken fails the
+ * reservation immediately and every slot claimed so far is handed back.
+ * The database rules let the booking's owner release its slots even if the
+ * booking write never happened; claims abandoned by a killed app are swept by
+ * the admin tool. Callbacks arrive on the main thread.
+ */
+public class SlotReservation {
+    private static final String TAG = "SlotReservation";
+
+    /**
+     * Callback for reservation results
+     */
+    public interface OnReservationListener {
+        /**
+         * Every slot now carries the booking's new version
+         *
+         * @param reservation Handle to {@link #release()} the slots if the booking write fails
+         */
+        void onReserved(SlotReservation reservation);
+
+        /**
+         * A slot is held by another booking; nothing stays reserved
+         *
+         * @param conflictingBookingId Booking that owns the slot, or the booking itself
+         *                             if a concurrent edit of it got there first
+         */
+        void onSlotTaken(String conflictingBookingId);
+
+        /**
+         * The reservation could not be completed; nothing stays reserved
+         */
+        void onReservationFailed(String message);
+    }
+
+    private final DatabaseReference rootRef;
+    private final String spaceType;
+    private final String bookingId;
+    private final String userId;
+    private final long version;
+    private final List<String> slotKeys;
+    // Slot key to the value it held before this reservation stamped it
+    private final Map<String, Object> previous = new HashMap<>();
+    private final OnReservationListener listener;
+    private int pending;
+    private boolean failed;
+
+    private SlotReservation(Booking booking, long startMillis, long endMillis, long version,
+            OnReservationListener listener) {
+        this.rootRef = RealtimeDatabase.get().getReference();
+        this.spaceType = booking.getSpaceType();
+        this.bookingId = booking.getBookingId();
+        this.userId = booking.getUserId();
+        this.version = version;
+        this.slotKeys = BookingSlots.slotKeys(startMillis, endMillis);
+        this.listener = listener;
+    }
+
+    /**
+     * Reserves every slot [startMillis, endMillis) touches for a booking.
+     * Slots the booking already holds at an older version are re-stamped.
+     *
+     * @param booking Booking with its id, owner and space type set
+     * @param version Version the booking write will carry
+     */
+    public static void reserve(Booking booking, long startMillis, long endMillis, long version,
+            OnReservationListener listener) {
+        new SlotReservation(booking, startMillis, endMillis, version, listener).start();
+    }
+
+    /**
+     * Puts back what every claimed slot held before, e.g. when the booking write
+     * itself failed. Slots no longer carrying this reservation's stamp are left alone.
+     */
+    public void release() {
+        for (Map.Entry<String, Object> slot : previous.entrySet()) {
+            restoreSlot(slot.getKey(), slot.getValue());
+        }
+        previous.clear();
+    }
+
+    private void start() {
+        pending = slotKeys.size();
+        if (pending == 0) {
+            listener.onReserved(this);
+            return;
+        }
+        for (String slot : slotKeys) {
+            claim(slot);
+        }
+    }
+
+    private void claim(String slot) {
+        Object[] prior = new Object[1];
+        rootRef.child(BookingWrites.slotPath(spaceType, slot)).runTransaction(new Transaction.Handler() {
+            @NonNull
+            @Override
+            public Transaction.Result doTransaction(@NonNull MutableData currentData) {
+                Object current = currentData.getValue();
+                if (current != null
+                        && (!bookingId.equals(BookingSlots.bookingIdOf(current))
+                        || BookingSlots.versionOf(current) >= version)) {
+                    return Transaction.abort();
+                }
+                // Slots claimed before versions were stamped hold a bare id; put back the stamped form
+                prior[0] = current instanceof String ? BookingSlots.entry(bookingId, userId, 0, 0) : current;
+                currentData.setValue(BookingSlots.entry(bookingId, userId, version, System.currentTimeMillis()));
+                return Transaction.success(currentData);
+            }
+
+            @Override
+            public void onComplete(@Nullable DatabaseError error, boolean committed,
+                    @Nullable DataSnapshot currentData) {
+                pending--;
+                if (committed) {
+                    onClaimed(slot, prior[0]);
+                } else if (error != null) {
+                    fail(null, error.getMessage());
+                } else {
+                    Object owner = currentData != null ? currentData.getValue() : null;
+                    fail(BookingSlots.bookingIdOf(owner), null);
+                }
+            }
+        }, false);
+    }
+
+    private void onClaimed(String slot, @Nullable Object prior) {
+        if (failed) {
+            // Lost the race elsewhere after this slot was claimed
+            restoreSlot(slot, prior);
+            return;
+        }
+        previous.put(slot, prior);
+        if (pending == 0) {
+            listener.onReserved(this);
+        }
+    }
+
+    private void fail(@Nullable String conflictingBookingId, @Nullable String message) {
+        if (failed) {
+            return;
+        }
+        failed = true;
+        release();
+        if (conflictingBookingId != null) {
+            listener.onSlotTaken(conflictingBookingId);
+        } else {
+            listener.onReservationFailed(message != null ? message : "Slot could not be reserved");
+        }
+    }
+
+    /**
+     * Puts a slot back to its prior value only if it still carries this reservation's stamp
+     */
+    private void restoreSlot(String slot, @Nullable Object prior) {
+        rootRef.child(BookingWrites.slotPath(spaceType, slot)).runTransaction(new Transaction.Handler() {
+            @NonNull
+            @Override
+            public Transaction.Result doTransaction(@NonNull MutableData currentData) {
+                Object current = currentData.getValue();
+                if (current == null) {
+                    // May just be an empty cache, so let the server confirm there is nothing to undo
+                    return Transaction.success(currentData);
+                }
+                if (!bookingId.equals(BookingSlots.bookingIdOf(current))
+                        || BookingSlots.versionOf(current) != version) {
+                    return Transaction.abort();
+                }
+                currentData.setValue(prior);
+                return Transaction.success(currentData);
+            }
+
+            @Override
+            public void onComplete(@Nullable DatabaseError error, boolean committed,
+                    @Nullable DataSnapshot currentData) {
+                if (error != null) {
+                    Log.w(TAG, "Slot release failed: " + error.getMessage());
+                }
+            }
+        }, false);
+    }
+}
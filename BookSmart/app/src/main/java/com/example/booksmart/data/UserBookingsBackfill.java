@@ -0,0 +1,68 @@
+package com.example.booksmart.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One-off copy of a user's existing bookings into userBookings/{uid}.
+ * Bookings created before the fan-out index existed are only under
+ * bookings/, so the list screen would not see them without this pass.
+ */
+public class UserBookingsBackfill {
+    private static final String TAG = "UserBookingsBackfill";
+    private static final String PREFS_NAME = "booksmart_migrations";
+    private static final String KEY_DONE_PREFIX = "user_bookings_index_v1_";
+
+    private UserBookingsBackfill() {
+    }
+
+    /**
+     * Copies the user's bookings into their index unless already done on this device
+     *
+     * @param context Any context; only the application context is retained
+     * @param userId  Signed-in user
+     */
+    public static void runIfNeeded(Context context, String userId) {
+        SharedPreferences prefs = context.getApplicationContext()
+                .getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        String doneKey = KEY_DONE_PREFIX + userId;
+        if (prefs.getBoolean(doneKey, false)) {
+            return;
+        }
+
+        FirebaseDatabase database = RealtimeDatabase.get();
+        database.getReference(BookingWrites.BOOKINGS).orderByChild("userId").equalTo(userId)
+                .addListenerForSingleValueEvent(new ValueEventListener() {
+                    @Override
+                    public void onDataChange(@NonNull DataSnapshot snapshot) {
+                        Map<String, Object> updates = new HashMap<>();
+                        for (DataSnapshot child : snapshot.getChildren()) {
+                            updates.put(BookingWrites.userBookingPath(userId, child.getKey()), child.getValue());
+                        }
+                        if (updates.isEmpty()) {
+                            prefs.edit().putBoolean(doneKey, true).apply();
+                            return;
+                        }
+                        database.getReference().updateChildren(updates)
+                                .addOnSuccessListener(aVoid -> prefs.edit().putBoolean(doneKey, true).apply())
+                                .addOnFailureListener(e -> Log.w(TAG, "Backfill failed", e));
+                    }
+
+                    @Override
+                    public void onCancelled(@NonNull DatabaseError error) {
+                        Log.w(TAG, "Backfill query failed: " + error.getMessage());
+                    }
+                });
+    }
+}
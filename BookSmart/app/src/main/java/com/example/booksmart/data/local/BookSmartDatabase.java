@@ -0,0 +1,86 @@
+package com.example.booksmart.data.local;
+
+import android.content.Context;
+
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * On-device cache of what the app has read from the Realtime Database.
+ * Firebase stays the source of truth; this only serves fast and offline reads,
+ * so a schema change without a migration simply rebuilds it. The reminders
+ * queue is local state, so changes that touch it get a real migration.
+ */
+@Database(entities = {
+        BookingEntity.class,
+        TemplateEntity.class,
+        UserProfileEntity.class,
+        IntervalEntity.class,
+        QuerySyncState.class,
+        ReminderEntity.class,
+        SpaceEntity.class
+}, version = 4, exportSchema = false)
+public abstract class BookSmartDatabase extends RoomDatabase {
+    private static final String NAME = "booksmart-cache.db";
+    private static volatile BookSmartDatabase instance;
+
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `reminders` (`bookingId` TEXT NOT NULL, "
+                    + "`spaceType` TEXT, `startMillis` INTEGER NOT NULL, `dueAtMillis` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`bookingId`))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_reminders_dueAtMillis` ON `reminders` (`dueAtMillis`)");
+        }
+    };
+
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `templates` ADD COLUMN `recurrence` TEXT");
+        }
+    };
+
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `spaces` (`spaceId` TEXT NOT NULL, `name` TEXT, "
+                    + "`description` TEXT, `capacity` INTEGER NOT NULL, `features` TEXT, "
+                    + "`openMinute` INTEGER NOT NULL, `closeMinute` INTEGER NOT NULL, "
+                    + "`position` INTEGER NOT NULL, `catalogueVersion` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`spaceId`))");
+        }
+    };
+
+    public abstract BookingDao bookings();
+
+    public abstract TemplateDao templates();
+
+    public abstract UserProfileDao profiles();
+
+    public abstract IntervalDao intervals();
+
+    public abstract QuerySyncDao querySync();
+
+    public abstract ReminderDao reminders();
+
+    public abstract SpaceDao spaces();
+
+    public static BookSmartDatabase getInstance(Context context) {
+        if (instance == null) {
+            synchronized (BookSmartDatabase.class) {
+                if (instance == null) {
+                    instance = Room.databaseBuilder(context.getApplicationContext(),
+                                    BookSmartDatabase.class, NAME)
+                            .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4)
+                            .fallbackToDestructiveMigration()
+                            .build();
+                }
+            }
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.booksmart.data.local;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface BookingDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(BookingEntity booking);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<BookingEntity> bookings);
+
+    @Query("DELETE FROM bookings WHERE bookingId = :bookingId")
+    void delete(String bookingId);
+
+    /**
+     * A user's bookings starting at or after a time, soonest first
+     */
+    @Query("SELECT * FROM bookings WHERE userId = :userId AND startMillis >= :fromMillis "
+            + "ORDER BY startMillis LIMIT :limit")
+    List<BookingEntity> upcoming(String userId, long fromMillis, int limit);
+
+    /**
+     * A user's active bookings starting in [fromMillis, toMillis), e.g. those due a reminder
+     */
+    @Query("SELECT * FROM bookings WHERE userId = :userId AND startMillis >= :fromMillis "
+            + "AND startMillis < :toMillis AND (status IS NULL OR status != 'cancelled') "
+            + "ORDER BY startMillis")
+    List<BookingEntity> startingBetween(String userId, long fromMillis, long toMillis);
+
+    /**
+     * Drops rows of a user's upcoming range that a full load did not confirm
+     */
+    @Query("DELETE FROM bookings WHERE userId = :userId AND startMillis >= :fromMillis "
+            + "AND syncedAtMillis < :loadStartedAt")
+    void deleteUnconfirmed(String userId, long fromMillis, long loadStartedAt);
+
+    @Query("DELETE FROM bookings")
+    void clear();
+}
@@ -0,0 +1,72 @@
+package com.example.booksmart.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import com.example.booksmart.models.Booking;
+
+/**
+ * Cached row of a user's booking.
+ * Indexed for the two access paths that matter on device: a user's bookings by
+ * time and a space's bookings by time.
+ */
+@Entity(tableName = "bookings", indices = {
+        @Index({"userId", "startMillis"}),
+        @Index({"spaceType", "startMillis"})
+})
+public class BookingEntity {
+    @PrimaryKey
+    @NonNull
+    public String bookingId = "";
+    public String userId;
+    public String spaceType;
+    public String userEmail;
+    public String startTime;
+    public String endTime;
+    public long startMillis;
+    public long endMillis;
+    public String timeZoneId;
+    public String status;
+    public long version;
+    /**
+     * When the row was last confirmed by the server; rows older than a completed
+     * load of their query are stale
+     */
+    public long syncedAtMillis;
+
+    public static BookingEntity from(Booking booking, long syncedAtMillis) {
+        BookingEntity entity = new BookingEntity();
+        entity.bookingId = booking.getBookingId();
+        entity.userId = booking.getUserId();
+        entity.spaceType = booking.getSpaceType();
+        entity.userEmail = booking.getUserEmail();
+        entity.startTime = booking.getStartTime();
+        entity.endTime = booking.getEndTime();
+        // Stored resolved so legacy rows are indexed by their real start
+        entity.startMillis = booking.getStartMillis();
+        entity.endMillis = booking.getEndMillis();
+        entity.timeZoneId = booking.getTimeZoneId();
+        entity.status = booking.getStatus();
+        entity.version = booking.getVersion();
+        entity.syncedAtMillis = syncedAtMillis;
+        return entity;
+    }
+
+    public Booking toBooking() {
+        Booking booking = new Booking();
+        booking.setBookingId(bookingId);
+        booking.setUserId(userId);
+        booking.setSpaceType(spaceType);
+        booking.setUserEmail(userEmail);
+        booking.setStartTime(startTime);
+        booking.setEndTime(endTime);
+        booking.setStartMillis(startMillis);
+        booking.setEndMillis(endMillis);
+        booking.setTimeZoneId(timeZoneId);
+        booking.setStatus(status);
+        booking.setVersion(version);
+        return booking;
+    }
+}
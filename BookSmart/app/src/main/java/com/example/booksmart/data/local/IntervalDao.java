@@ -0,0 +1,28 @@
+package com.example.booksmart.data.local;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface IntervalDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(IntervalEntity interval);
+
+    @Query("DELETE FROM space_intervals WHERE bookingId = :bookingId")
+    void delete(String bookingId);
+
+    /**
+     * Intervals overlapping [startMillis, endMillis), ordered by start
+     */
+    @Query("SELECT * FROM space_intervals WHERE spaceType = :spaceType "
+            + "AND startMillis < :endMillis AND endMillis > :startMillis ORDER BY startMillis")
+    List<IntervalEntity> overlapping(String spaceType, long startMillis, long endMillis);
+
+    @Query("DELETE FROM space_intervals")
+    void clear();
+}
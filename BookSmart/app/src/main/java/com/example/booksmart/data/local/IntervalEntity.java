@@ -0,0 +1,35 @@
+package com.example.booksmart.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import com.example.booksmart.core.BookedInterval;
+
+/**
+ * Cached active booking of any user in a space, mirrored from the availability
+ * day buckets the conflict index has loaded. Only what a conflict check needs.
+ */
+@Entity(tableName = "space_intervals", indices = {@Index({"spaceType", "startMillis"})})
+public class IntervalEntity {
+    @PrimaryKey
+    @NonNull
+    public String bookingId = "";
+    public String spaceType;
+    public long startMillis;
+    public long endMillis;
+
+    public static IntervalEntity from(BookedInterval interval) {
+        IntervalEntity entity = new IntervalEntity();
+        entity.bookingId = interval.getBookingId();
+        entity.spaceType = interval.getSpaceType();
+        entity.startMillis = interval.getStartMillis();
+        entity.endMillis = interval.getEndMillis();
+        return entity;
+    }
+
+    public BookedInterval toInterval() {
+        return new BookedInterval(bookingId, spaceType, startMillis, endMillis);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.booksmart.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Copies a query's child deltas into the local store.
+ * Attaching the same query a screen already listens to adds no network traffic;
+ * snapshots are parsed and written on the store's writer thread. When the
+ * initial load completes, rows of the query's scope that the server did not
+ * confirm are swept and the query is marked fresh.
+ */
+public class LocalMirror implements ChildEventListener {
+
+    /**
+     * Writes one query's rows; every method runs on the writer thread
+     */
+    interface Sink {
+        void put(DataSnapshot snapshot, long syncedAtMillis);
+
+        void remove(String key);
+
+        /**
+         * Deletes rows of the query's scope last confirmed before a load started
+         */
+        void sweep(long loadStartedAt);
+    }
+
+    private final Query query;
+    private final String queryKey;
+    private final Sink sink;
+    private final Executor writer;
+    private final QuerySyncDao querySync;
+    private ValueEventListener loadedListener;
+    private boolean started;
+    private boolean loaded;
+
+    LocalMirror(Query query, String queryKey, Sink sink, Executor writer, QuerySyncDao querySync) {
+        this.query = query;
+        this.queryKey = queryKey;
+        this.sink = sink;
+        this.writer = writer;
+        this.querySync = querySync;
+    }
+
+    public void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        long loadStartedAt = System.currentTimeMillis();
+        query.addChildEventListener(this);
+        loadedListener = new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                loadedListener = null;
+                loaded = true;
+                writer.execute(() -> {
+                    sink.sweep(loadStartedAt);
+                    querySync.put(new QuerySyncState(queryKey, System.currentTimeMillis()));
+                });
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                loadedListener = null;
+            }
+        };
+        query.addListenerForSingleValueEvent(loadedListener);
+    }
+
+    public void stop() {
+        if (!started) {
+            return;
+        }
+        started = false;
+        query.removeEventListener(this);
+        if (loadedListener != null) {
+            query.removeEventListener(loadedListener);
+            loadedListener = null;
+        }
+        if (loaded) {
+            // The rows were live until now
+            long stoppedAt = System.currentTimeMillis();
+            writer.execute(() -> querySync.put(new QuerySyncState(queryKey, stoppedAt)));
+        }
+    }
+
+    @Override
+    public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+        writer.execute(() -> sink.put(snapshot, System.currentTimeMillis()));
+    }
+
+    @Override
+    public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+        writer.execute(() -> sink.put(snapshot, System.currentTimeMillis()));
+    }
+
+    @Override
+    public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+        // Rows are unordered; readers sort with the indexes
+    }
+
+    @Override
+    public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+        String key = snapshot.getKey();
+        if (key != null) {
+            writer.execute(() -> sink.remove(key));
+        }
+    }
+
+    @Override
+    public void onCancelled(@NonNull DatabaseError error) {
+        // The screen's own listener reports the error
+    }
+}
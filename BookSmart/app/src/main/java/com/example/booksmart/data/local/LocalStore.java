@@ -0,0 +1,327 @@
+package com.example.booksmart.data.local;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.Nullable;
+
+import com.example.booksmart.core.BookedInterval;
+import com.example.booksmart.core.BookingDays;
+import com.example.booksmart.models.Booking;
+import com.example.booksmart.models.BookingTemplate;
+import com.example.booksmart.models.Space;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Read-through cache of bookings, templates, profiles and spaces in Room.
+ * Screens read from here first and render immediately, online or not, then
+ * Firebase deltas keep the rows current through {@link LocalMirror}s.
+ * Every read reports when its query was last fully synced, so callers can
+ * decide whether cached rows are fresh enough to act on.
+ * Writes run in order on one thread; reads on another; callbacks arrive on the
+ * main thread.
+ */
+public class LocalStore {
+    private static LocalStore instance;
+
+    /**
+     * Result of a cached read
+     */
+    public interface Callback<T> {
+        /**
+         * @param syncedAtMillis When the server last confirmed the query, 0 if never
+         */
+        void onLoaded(T value, long syncedAtMillis);
+    }
+
+    /**
+     * Hears about mirrored changes to a user's upcoming bookings.
+     * Called on the writer thread after the change is stored.
+     */
+    public interface BookingSyncListener {
+        void onBookingChanged(Booking booking);
+
+        void onBookingRemoved(String bookingId);
+
+        /**
+         * The upcoming bookings of a user are fully synced
+         */
+        void onUpcomingSynced(String userId);
+    }
+
+    private final BookSmartDatabase database;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor();
+    private final ExecutorService reader = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private volatile BookingSyncListener bookingSyncListener;
+
+    public static synchronized void init(Context context) {
+        if (instance == null) {
+            instance = new LocalStore(BookSmartDatabase.getInstance(context));
+        }
+    }
+
+    public static synchronized LocalStore getInstance() {
+        if (instance == null) {
+            throw new IllegalStateException("LocalStore.init was not called");
+        }
+        return instance;
+    }
+
+    private LocalStore(BookSmartDatabase database) {
+        this.database = database;
+    }
+
+    public void setBookingSyncListener(BookingSyncListener listener) {
+        bookingSyncListener = listener;
+    }
+
+    public static String upcomingQueryKey(String userId) {
+        return "userBookings/" + userId + "/upcoming";
+    }
+
+    public static String templatesQueryKey(String userId) {
+        return "templates/" + userId;
+    }
+
+    public static String profileQueryKey(String userId) {
+        return "users/" + userId;
+    }
+
+    public static String spacesQueryKey() {
+        return "spaces";
+    }
+
+    public static String dayQueryKey(String spaceType, String day) {
+        return "availability/" + spaceType + "/" + day;
+    }
+
+    // Reads
+
+    /**
+     * A user's bookings starting at or after a time, soonest first
+     */
+    public void loadUpcoming(String userId, long fromMillis, int limit, Callback<List<Booking>> callback) {
+        read(upcomingQueryKey(userId), callback, () -> toBookings(
+                database.bookings().upcoming(userId, fromMillis, limit)));
+    }
+
+    /**
+     * A user's active bookings starting in [fromMillis, toMillis), for reminders
+     */
+    public void loadStartingBetween(String userId, long fromMillis, long toMillis,
+            Callback<List<Booking>> callback) {
+        read(upcomingQueryKey(userId), callback, () -> toBookings(
+                database.bookings().startingBetween(userId, fromMillis, toMillis)));
+    }
+
+    /**
+     * Cached bookings overlapping [startMillis, endMillis) in a space.
+     * Freshness is that of the least recently synced day the interval touches.
+     *
+     * @param excludedBookingId Booking to ignore, e.g. the one being edited (may be null)
+     */
+    public void findConflicts(String spaceType, long startMillis, long endMillis,
+            @Nullable String excludedBookingId, Callback<List<BookedInterval>> callback) {
+        reader.execute(() -> {
+            List<BookedInterval> conflicts = new ArrayList<>();
+            for (IntervalEntity entity : database.intervals().overlapping(spaceType, startMillis, endMillis)) {
+                if (!entity.bookingId.equals(excludedBookingId)) {
+                    conflicts.add(entity.toInterval());
+                }
+            }
+            long syncedAt = Long.MAX_VALUE;
+            for (String day : BookingDays.dayKeys(startMillis, endMillis)) {
+                syncedAt = Math.min(syncedAt, database.querySync().syncedAt(dayQueryKey(spaceType, day)));
+            }
+            long freshness = syncedAt == Long.MAX_VALUE ? 0 : syncedAt;
+            mainHandler.post(() -> callback.onLoaded(conflicts, freshness));
+        });
+    }
+
+    public void loadTemplates(String userId, Callback<List<BookingTemplate>> callback) {
+        read(templatesQueryKey(userId), callback, () -> {
+            List<BookingTemplate> templates = new ArrayList<>();
+            for (TemplateEntity entity : database.templates().forUser(userId)) {
+                templates.add(entity.toTemplate());
+            }
+            return templates;
+        });
+    }
+
+    /**
+     * The cached space catalogue in display order, empty if never cached.
+     * Every row carries the catalogue version it was read at.
+     */
+    public void loadSpaces(Callback<List<SpaceEntity>> callback) {
+        read(spacesQueryKey(), callback, () -> database.spaces().all());
+    }
+
+    /**
+     * @param callback Receives null if the profile was never cached
+     */
+    public void loadProfile(String userId, Callback<UserProfileEntity> callback) {
+        read(profileQueryKey(userId), callback, () -> database.profiles().get(userId));
+    }
+
+    // Writes
+
+    /**
+     * Caches bookings read outside a mirrored query, e.g. history pages
+     */
+    public void putBookings(List<Booking> bookings) {
+        long syncedAt = System.currentTimeMillis();
+        writer.execute(() -> {
+            List<BookingEntity> entities = new ArrayList<>(bookings.size());
+            for (Booking booking : bookings) {
+                entities.add(BookingEntity.from(booking, syncedAt));
+            }
+            database.bookings().upsertAll(entities);
+        });
+    }
+
+    public void putProfile(String userId, @Nullable String name, @Nullable String email) {
+        long syncedAt = System.currentTimeMillis();
+        writer.execute(() -> {
+            UserProfileEntity profile = new UserProfileEntity();
+            profile.userId = userId;
+            profile.name = name;
+            profile.email = email;
+            profile.syncedAtMillis = syncedAt;
+            database.profiles().upsert(profile);
+            database.querySync().put(new QuerySyncState(profileQueryKey(userId), syncedAt));
+        });
+    }
+
+    /**
+     * Replaces the cached space catalogue with one read at a version
+     */
+    public void putSpaces(List<Space> spaces, long catalogueVersion) {
+        long syncedAt = System.currentTimeMillis();
+        writer.execute(() -> database.runInTransaction(() -> {
+            List<SpaceEntity> entities = new ArrayList<>(spaces.size());
+            for (Space space : spaces) {
+                entities.add(SpaceEntity.from(space, catalogueVersion));
+            }
+            database.spaces().clear();
+            database.spaces().upsertAll(entities);
+            database.querySync().put(new QuerySyncState(spacesQueryKey(), syncedAt));
+        }));
+    }
+
+    public void putInterval(BookedInterval interval) {
+        writer.execute(() -> database.intervals().upsert(IntervalEntity.from(interval)));
+    }
+
+    public void removeInterval(String bookingId) {
+        writer.execute(() -> database.intervals().delete(bookingId));
+    }
+
+    /**
+     * Records that an availability day bucket finished loading
+     */
+    public void markDaySynced(String spaceType, String day) {
+        long syncedAt = System.currentTimeMillis();
+        writer.execute(() -> database.querySync().put(new QuerySyncState(dayQueryKey(spaceType, day), syncedAt)));
+    }
+
+    /**
+     * Forgets everything, e.g. on logout
+     */
+    public void clear() {
+        writer.execute(database::clearAllTables);
+    }
+
+    // Mirrors
+
+    /**
+     * Mirrors a user's upcoming bookings query, startAt(fromMillis) on startMillis
+     */
+    public LocalMirror mirrorUpcoming(Query query, String userId, long fromMillis) {
+        return new LocalMirror(query, upcomingQueryKey(userId), new LocalMirror.Sink() {
+            @Override
+            public void put(DataSnapshot snapshot, long syncedAtMillis) {
+                Booking booking = snapshot.getValue(Booking.class);
+                if (booking != null) {
+                    booking.setBookingId(snapshot.getKey());
+                    database.bookings().upsert(BookingEntity.from(booking, syncedAtMillis));
+                    BookingSyncListener listener = bookingSyncListener;
+                    if (listener != null) {
+                        listener.onBookingChanged(booking);
+                    }
+                }
+            }
+
+            @Override
+            public void remove(String key) {
+                database.bookings().delete(key);
+                BookingSyncListener listener = bookingSyncListener;
+                if (listener != null) {
+                    listener.onBookingRemoved(key);
+                }
+            }
+
+            @Override
+            public void sweep(long loadStartedAt) {
+                database.bookings().deleteUnconfirmed(userId, fromMillis, loadStartedAt);
+                BookingSyncListener listener = bookingSyncListener;
+                if (listener != null) {
+                    listener.onUpcomingSynced(userId);
+                }
+            }
+        }, writer, database.querySync());
+    }
+
+    /**
+     * Mirrors a user's templates query
+     */
+    public LocalMirror mirrorTemplates(Query query, String userId) {
+        return new LocalMirror(query, templatesQueryKey(userId), new LocalMirror.Sink() {
+            @Override
+            public void put(DataSnapshot snapshot, long syncedAtMillis) {
+                BookingTemplate template = snapshot.getValue(BookingTemplate.class);
+                if (template != null) {
+                    template.setTemplateId(snapshot.getKey());
+                    database.templates().upsert(TemplateEntity.from(template, syncedAtMillis));
+                }
+            }
+
+            @Override
+            public void remove(String key) {
+                database.templates().delete(key);
+            }
+
+            @Override
+            public void sweep(long loadStartedAt) {
+                database.templates().deleteUnconfirmed(userId, loadStartedAt);
+            }
+        }, writer, database.querySync());
+    }
+
+    private interface Read<T> {
+        T run();
+    }
+
+    private <T> void read(String queryKey, Callback<T> callback, Read<T> read) {
+        reader.execute(() -> {
+            T value = read.run();
+            long syncedAt = database.querySync().syncedAt(queryKey);
+            mainHandler.post(() -> callback.onLoaded(value, syncedAt));
+        });
+    }
+
+    private static List<Booking> toBookings(List<BookingEntity> entities) {
+        List<Booking> bookings = new ArrayList<>(entities.size());
+        for (BookingEntity entity : entities) {
+            bookings.add(entity.toBooking());
+        }
+        return bookings;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.booksmart.data.local;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+@Dao
+public interface QuerySyncDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void put(QuerySyncState state);
+
+    /**
+     * @return When the query was last fully synced, or 0 if never
+     */
+    @Query("SELECT COALESCE((SELECT syncedAtMillis FROM query_sync WHERE queryKey = :queryKey), 0)")
+    long syncedAt(String queryKey);
+
+    @Query("DELETE FROM query_sync")
+    void clear();
+}
@@ -0,0 +1,26 @@
+package com.example.booksmart.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.PrimaryKey;
+
+/**
+ * Freshness of one mirrored query: when the server last confirmed its full result
+ */
+@Entity(tableName = "query_sync")
+public class QuerySyncState {
+    @PrimaryKey
+    @NonNull
+    public String queryKey = "";
+    public long syncedAtMillis;
+
+    public QuerySyncState() {
+    }
+
+    @Ignore
+    public QuerySyncState(@NonNull String queryKey, long syncedAtMillis) {
+        this.queryKey = queryKey;
+        this.syncedAtMillis = syncedAtMillis;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.booksmart.data.local;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface ReminderDao {
+
+    /**
+     * Adds a reminder or moves an existing one for the same booking
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(ReminderEntity reminder);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<ReminderEntity> reminders);
+
+    @Query("DELETE FROM reminders WHERE bookingId = :bookingId")
+    void delete(String bookingId);
+
+    @Query("DELETE FROM reminders WHERE bookingId IN (:bookingIds)")
+    void deleteAll(List<String> bookingIds);
+
+    @Query("SELECT * FROM reminders WHERE bookingId = :bookingId")
+    ReminderEntity find(String bookingId);
+
+    @Query("SELECT * FROM reminders")
+    List<ReminderEntity> all();
+
+    /**
+     * @return Earliest due time, or null if the queue is empty
+     */
+    @Query("SELECT MIN(dueAtMillis) FROM reminders")
+    Long earliestDue();
+
+    @Query("SELECT * FROM reminders WHERE dueAtMillis <= :millis ORDER BY dueAtMillis")
+    List<ReminderEntity> dueBy(long millis);
+
+    @Query("DELETE FROM reminders WHERE dueAtMillis <= :millis")
+    void deleteDueBy(long millis);
+}
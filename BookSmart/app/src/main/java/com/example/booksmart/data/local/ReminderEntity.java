@@ -0,0 +1,31 @@
+package com.example.booksmart.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import com.example.booksmart.models.Booking;
+
+/**
+ * A pending booking reminder. The table, indexed on dueAtMillis, is the
+ * persisted queue the reminder scheduler arms its single alarm from.
+ */
+@Entity(tableName = "reminders", indices = {@Index("dueAtMillis")})
+public class ReminderEntity {
+    @PrimaryKey
+    @NonNull
+    public String bookingId = "";
+    public String spaceType;
+    public long startMillis;
+    public long dueAtMillis;
+
+    public static ReminderEntity from(Booking booking, long dueAtMillis) {
+        ReminderEntity reminder = new ReminderEntity();
+        reminder.bookingId = booking.getBookingId();
+        reminder.spaceType = booking.getSpaceType();
+        reminder.startMillis = booking.getStartMillis();
+        reminder.dueAtMillis = dueAtMillis;
+        return reminder;
+    }
+}
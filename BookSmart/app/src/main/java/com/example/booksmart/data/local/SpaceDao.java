@@ -0,0 +1,27 @@
+package com.example.booksmart.data.local;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface SpaceDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<SpaceEntity> spaces);
+
+    @Query("SELECT * FROM spaces ORDER BY position, spaceId")
+    List<SpaceEntity> all();
+
+    /**
+     * @return Catalogue version the cache holds, or 0 if empty
+     */
+    @Query("SELECT COALESCE(MAX(catalogueVersion), 0) FROM spaces")
+    long version();
+
+    @Query("DELETE FROM spaces")
+    void clear();
+}
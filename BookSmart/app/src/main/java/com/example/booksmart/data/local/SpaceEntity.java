@@ -0,0 +1,62 @@
+package com.example.booksmart.data.local;
+
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+import com.example.booksmart.models.Space;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Cached row of the space catalogue. Every row carries the catalogue version
+ * it was read at, so the cache knows which version it holds.
+ */
+@Entity(tableName = "spaces")
+public class SpaceEntity {
+    // Feature lines never contain a newline, so they are stored joined by one
+    private static final String FEATURE_SEPARATOR = "\n";
+
+    @PrimaryKey
+    @NonNull
+    public String spaceId = "";
+    public String name;
+    public String description;
+    public int capacity;
+    public String features;
+    public int openMinute;
+    public int closeMinute;
+    public int position;
+    public long catalogueVersion;
+
+    public static SpaceEntity from(Space space, long catalogueVersion) {
+        SpaceEntity entity = new SpaceEntity();
+        entity.spaceId = space.getId();
+        entity.name = space.getName();
+        entity.description = space.getDescription();
+        entity.capacity = space.getCapacity();
+        entity.features = space.getFeatures() != null ? TextUtils.join(FEATURE_SEPARATOR, space.getFeatures()) : "";
+        entity.openMinute = space.getOpenMinute();
+        entity.closeMinute = space.getCloseMinute();
+        entity.position = space.getPosition();
+        entity.catalogueVersion = catalogueVersion;
+        return entity;
+    }
+
+    public Space toSpace() {
+        Space space = new Space();
+        space.setId(spaceId);
+        space.setName(name);
+        space.setDescription(description);
+        space.setCapacity(capacity);
+        space.setFeatures(features == null || features.isEmpty()
+                ? new ArrayList<>() : new ArrayList<>(Arrays.asList(features.split(FEATURE_SEPARATOR))));
+        space.setOpenMinute(openMinute);
+        space.setCloseMinute(closeMinute);
+        space.setPosition(position);
+        return space;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.booksmart.data.local;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface TemplateDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(TemplateEntity template);
+
+    @Query("DELETE FROM templates WHERE templateId = :templateId")
+    void delete(String templateId);
+
+    @Query("SELECT * FROM templates WHERE userId = :userId")
+    List<TemplateEntity> forUser(String userId);
+
+    /**
+     * Drops a user's templates that a full load did not confirm
+     */
+    @Query("DELETE FROM templates WHERE userId = :userId AND syncedAtMillis < :loadStartedAt")
+    void deleteUnconfirmed(String userId, long loadStartedAt);
+
+    @Query("DELETE FROM templates")
+    void clear();
+}
@@ -0,0 +1,59 @@
+package com.example.booksmart.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import com.example.booksmart.models.BookingTemplate;
+
+/**
+ * Cached row of a saved booking template
+ */
+@Entity(tableName = "templates", indices = {@Index("userId")})
+public class TemplateEntity {
+    @PrimaryKey
+    @NonNull
+    public String templateId = "";
+    public String userId;
+    public String templateName;
+    public String spaceType;
+    public String startTime;
+    public String endTime;
+    public long startMillis;
+    public long endMillis;
+    public String timeZoneId;
+    public String recurrence;
+    public long syncedAtMillis;
+
+    public static TemplateEntity from(BookingTemplate template, long syncedAtMillis) {
+        TemplateEntity entity = new TemplateEntity();
+        entity.templateId = template.getTemplateId();
+        entity.userId = template.getUserId();
+        entity.templateName = template.getTemplateName();
+        entity.spaceType = template.getSpaceType();
+        entity.startTime = template.getStartTime();
+        entity.endTime = template.getEndTime();
+        entity.startMillis = template.getStartMillis();
+        entity.endMillis = template.getEndMillis();
+        entity.timeZoneId = template.getTimeZoneId();
+        entity.recurrence = template.getRecurrence();
+        entity.syncedAtMillis = syncedAtMillis;
+        return entity;
+    }
+
+    public BookingTemplate toTemplate() {
+        BookingTemplate template = new BookingTemplate();
+        template.setTemplateId(templateId);
+        template.setUserId(userId);
+        template.setTemplateName(templateName);
+        template.setSpaceType(spaceType);
+        template.setStartTime(startTime);
+        template.setEndTime(endTime);
+        template.setStartMillis(startMillis);
+        template.setEndMillis(endMillis);
+        template.setTimeZoneId(timeZoneId);
+        template.setRecurrence(recurrence);
+        return template;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.booksmart.data.local;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+@Dao
+public interface UserProfileDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(UserProfileEntity profile);
+
+    @Query("SELECT * FROM user_profiles WHERE userId = :userId")
+    UserProfileEntity get(String userId);
+
+    @Query("DELETE FROM user_profiles")
+    void clear();
+}
@@ -0,0 +1,18 @@
+package com.example.booksmart.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Cached users/{uid} profile
+ */
+@Entity(tableName = "user_profiles")
+public class UserProfileEntity {
+    @PrimaryKey
+    @NonNull
+    public String userId = "";
+    public String name;
+    public String email;
+    public long syncedAtMillis;
+}
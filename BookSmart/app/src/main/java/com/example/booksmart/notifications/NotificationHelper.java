@@ -1,24 +1,35 @@
 package com.example.booksmart.notifications;
 
-import android.app.AlarmManager;
+import android.app.Notification;
 import android.app.NotificationChannel;
 import android.app.NotificationManager;
 import android.app.PendingIntent;
 import android.content.Context;
 import android.content.Intent;
+import android.net.Uri;
 import android.os.Build;
+import androidx.annotation.Nullable;
+import androidx.core.app.NotificationCompat;
 
 import com.example.booksmart.BookingDetailsActivity;
 import com.example.booksmart.R;
-import com.example.booksmart.models.Booking;
+import com.example.booksmart.core.BookingTimeCodec;
+import com.example.booksmart.data.local.ReminderEntity;
+
+import java.util.List;
 
 /**
  * Helper class for managing booking notifications.
- * Handles notification channel creation and scheduling of booking reminders.
+ * Handles notification channel creation and posting of booking reminders;
+ * {@link ReminderScheduler} decides when they are due.
  */
 public class NotificationHelper {
     private static final String CHANNEL_ID = "BookingReminders";
     private static final String CHANNEL_NAME = "Booking Reminders";
+    private static final String GROUP_KEY = "com.example.booksmart.BOOKING_REMINDERS";
+    // Reminders are told apart by their booking id tag, so they all share one id
+    private static final int REMINDER_ID = 1;
+    private static final String SUMMARY_TAG = "reminder-summary";
     private Context context;
 
     public NotificationHelper(Context context) {
@@ -43,34 +54,92 @@ public class NotificationHelper {
     }
 
     /**
-     * Schedules a reminder notification for an upcoming booking
-     * 
-     * @param booking The booking to create a reminder for
+     * Posts a batch of due reminders. Each booking gets its own notification,
+     * tagged with its id so posting it again replaces rather than duplicates it;
+     * a batch of several is bundled under one InboxStyle summary that alerts once.
+     *
+     * @param due   Reminders due together, soonest first
+     * @param codec Zone and locale the start times are shown in
      */
-    public void scheduleBookingReminder(Booking booking) {
-        try {
-            // Schedule notification 30 minutes before booking
-            long bookingTime = booking.getStartTimeMillis();
-            long reminderTime = bookingTime - (30 * 60 * 1000); // 30 minutes before
-
-            Intent intent = new Intent(context, BookingNotificationReceiver.class);
-            intent.putExtra("bookingId", booking.getBookingId());
-            intent.putExtra("spaceType", booking.getSpaceType());
-            intent.putExtra("startTime", booking.getStartTime());
+    public void showReminders(List<ReminderEntity> due, BookingTimeCodec codec) {
+        if (due.isEmpty()) {
+            return;
+        }
+        NotificationManager notificationManager = (NotificationManager) context
+                .getSystemService(Context.NOTIFICATION_SERVICE);
+        boolean grouped = due.size() > 1;
+        for (ReminderEntity reminder : due) {
+            NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
+                    .setSmallIcon(R.drawable.ic_notification)
+                    .setContentTitle("Upcoming Booking Reminder")
+                    .setContentText("Your " + reminder.spaceType + " booking starts at "
+                            + codec.formatTime(reminder.startMillis))
+                    .setWhen(reminder.startMillis)
+                    .setPriority(NotificationCompat.PRIORITY_DEFAULT)
+                    .setOnlyAlertOnce(true)
+                    .setAutoCancel(true)
+                    .setGroup(GROUP_KEY)
+                    .setContentIntent(openBookings(reminder.bookingId));
+            if (grouped) {
+                builder.setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_SUMMARY);
+            }
+            notificationManager.notify(reminder.bookingId, REMINDER_ID, builder.build());
+        }
+        if (grouped) {
+            notificationManager.notify(SUMMARY_TAG, REMINDER_ID, buildSummary(due, codec));
+        }
+    }
 
-            PendingIntent pendingIntent = PendingIntent.getBroadcast(
-                    context,
-                    booking.getBookingId().hashCode(),
-                    intent,
-                    PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    private Notification buildSummary(List<ReminderEntity> due, BookingTimeCodec codec) {
+        String title = due.size() + " upcoming bookings";
+        NotificationCompat.InboxStyle style = new NotificationCompat.InboxStyle()
+                .setBigContentTitle(title);
+        StringBuilder spaces = new StringBuilder();
+        for (ReminderEntity reminder : due) {
+            style.addLine(codec.formatTime(reminder.startMillis) + "  " + reminder.spaceType);
+            if (spaces.length() > 0) {
+                spaces.append(", ");
+            }
+            spaces.append(reminder.spaceType);
+        }
+        return new NotificationCompat.Builder(context, CHANNEL_ID)
+                .setSmallIcon(R.drawable.ic_notification)
+                .setContentTitle(title)
+                .setContentText(spaces)
+                .setStyle(style)
+                .setWhen(due.get(0).startMillis)
+                .setPriority(NotificationCompat.PRIORITY_DEFAULT)
+                .setGroup(GROUP_KEY)
+                .setGroupSummary(true)
+                .setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_SUMMARY)
+                .setAutoCancel(true)
+                .setContentIntent(openBookings(null))
+                .build();
+    }
 
-            AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
-            alarmManager.setExactAndAllowWhileIdle(
-                    AlarmManager.RTC_WAKEUP,
-                    reminderTime,
-                    pendingIntent);
-        } catch (Exception e) {
-            e.printStackTrace();
+    /**
+     * Opens the bookings screen, scrolled to a booking if one is given
+     */
+    private PendingIntent openBookings(@Nullable String bookingId) {
+        Intent intent = new Intent(context, BookingDetailsActivity.class);
+        if (bookingId != null) {
+            intent.putExtra("bookingId", bookingId);
+            // Intents differing only in extras share one PendingIntent; the data keeps each booking's link apart
+            intent.setData(Uri.parse("booksmart://booking/" + Uri.encode(bookingId)));
         }
+        return PendingIntent.getActivity(
+                context,
+                0,
+                intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+
+    /**
+     * Removes a shown reminder, e.g. when its booking is cancelled
+     */
+    public void dismissReminder(String bookingId) {
+        NotificationManager notificationManager = (NotificationManager) context
+                .getSystemService(Context.NOTIFICATION_SERVICE);
+        notificationManager.cancel(bookingId, REMINDER_ID);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,24 @@
+package com.example.booksmart.notifications;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+/**
+ * Re-arms the reminder alarm after events that drop or skew it:
+ * a reboot clears every alarm, an update cancels the app's alarms, and a
+ * wall-clock change may make the armed time wrong.
+ */
+public class RearmReceiver extends BroadcastReceiver {
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        String action = intent.getAction();
+        if (Intent.ACTION_BOOT_COMPLETED.equals(action)
+                || Intent.ACTION_MY_PACKAGE_REPLACED.equals(action)
+                || Intent.ACTION_TIME_CHANGED.equals(action)) {
+            PendingResult result = goAsync();
+            ReminderScheduler.getInstance().rearm(result::finish);
+        }
+    }
+}
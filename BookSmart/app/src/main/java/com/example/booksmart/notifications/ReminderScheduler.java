@@ -0,0 +1,259 @@
+package com.example.booksmart.notifications;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import androidx.annotation.Nullable;
+
+import com.example.booksmart.R;
+import com.example.booksmart.core.BookingTimeCodec;
+import com.example.booksmart.core.ReminderPlan;
+import com.example.booksmart.data.local.BookSmartDatabase;
+import com.example.booksmart.data.local.BookingEntity;
+import com.example.booksmart.data.local.LocalStore;
+import com.example.booksmart.data.local.ReminderDao;
+import com.example.booksmart.data.local.ReminderEntity;
+import com.example.booksmart.models.Booking;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Schedules booking reminders from one alarm.
+ * Pending reminders live in a Room table ordered by due time; only the
+ * earliest is ever armed with AlarmManager. When it fires, every reminder due
+ * by then is posted together and the alarm moves to the next one, so the app
+ * holds a single alarm and wakes at most once per distinct due time however
+ * many bookings there are.
+ * The queue follows the local booking store: mirrored booking deltas update
+ * only that booking's reminder, and each full sync of a user's upcoming
+ * bookings diffs the whole queue against them, so edits and cancellations made
+ * elsewhere never leave a stale reminder behind.
+ * All queue work runs in order on one background thread.
+ */
+public class ReminderScheduler implements LocalStore.BookingSyncListener {
+    /**
+     * How long before the start a reminder is shown
+     */
+    public static final long LEAD_MILLIS = 30 * 60 * 1000L;
+
+    static final String ACTION_DELIVER = "com.example.booksmart.action.DELIVER_REMINDERS";
+
+    private static ReminderScheduler instance;
+
+    private final Context context;
+    private final BookSmartDatabase database;
+    private final ReminderDao reminders;
+    private final ReminderPlan plan = new ReminderPlan(LEAD_MILLIS);
+    // Reminders due this soon after the alarm go out with it as one group rather than waking again
+    private final long groupWindowMillis;
+    private final AlarmManager alarmManager;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    // Due time the alarm is armed for, so unchanged heads skip AlarmManager
+    private Long armedAt;
+
+    public static synchronized void init(Context context) {
+        if (instance == null) {
+            Context app = context.getApplicationContext();
+            instance = new ReminderScheduler(app, BookSmartDatabase.getInstance(app));
+            LocalStore.getInstance().setBookingSyncListener(instance);
+        }
+    }
+
+    public static synchronized ReminderScheduler getInstance() {
+        if (instance == null) {
+            throw new IllegalStateException("ReminderScheduler.init was not called");
+        }
+        return instance;
+    }
+
+    private ReminderScheduler(Context context, BookSmartDatabase database) {
+        this.context = context;
+        this.database = database;
+        this.reminders = database.reminders();
+        this.alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        this.groupWindowMillis = context.getResources().getInteger(R.integer.reminder_group_window_minutes)
+                * 60 * 1000L;
+    }
+
+    /**
+     * Queues or moves the reminder for a booking; cancelled or started
+     * bookings lose theirs
+     */
+    public void schedule(Booking booking) {
+        if (booking.getBookingId() == null) {
+            return;
+        }
+        executor.execute(() -> reconcile(booking));
+    }
+
+    /**
+     * Drops the reminder of a booking, including one already shown
+     */
+    public void cancel(String bookingId) {
+        executor.execute(() -> {
+            reminders.delete(bookingId);
+            new NotificationHelper(context).dismissReminder(bookingId);
+            arm();
+        });
+    }
+
+    @Override
+    public void onBookingChanged(Booking booking) {
+        schedule(booking);
+    }
+
+    @Override
+    public void onBookingRemoved(String bookingId) {
+        cancel(bookingId);
+    }
+
+    @Override
+    public void onUpcomingSynced(String userId) {
+        executor.execute(() -> reconcileAll(userId));
+    }
+
+    /**
+     * Arms the alarm for the earliest pending reminder again
+     *
+     * @param onDone Run on the scheduler thread when done (may be null)
+     */
+    public void rearm(@Nullable Runnable onDone) {
+        executor.execute(() -> {
+            try {
+                // The system may have dropped the alarm, so never trust the cached head
+                armedAt = null;
+                arm();
+            } finally {
+                if (onDone != null) {
+                    onDone.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Posts every reminder that is due and arms the next one
+     *
+     * @param onDone Run on the scheduler thread when done
+     */
+    void deliverDue(Runnable onDone) {
+        executor.execute(() -> {
+            try {
+                long now = System.currentTimeMillis();
+                long cutoff = now + groupWindowMillis;
+                List<ReminderEntity> due = reminders.dueBy(cutoff);
+                if (!due.isEmpty()) {
+                    List<ReminderEntity> upcoming = new ArrayList<>(due.size());
+                    for (ReminderEntity reminder : due) {
+                        // Missed while the device was off; the booking has already begun
+                        if (reminder.startMillis > now) {
+                            upcoming.add(reminder);
+                        }
+                    }
+                    new NotificationHelper(context).showReminders(upcoming, BookingTimeCodec.systemDefault());
+                    reminders.deleteDueBy(cutoff);
+                }
+                armedAt = null;
+                arm();
+            } finally {
+                onDone.run();
+            }
+        });
+    }
+
+    /**
+     * Brings one booking's reminder in line with the booking, writing only if it changed
+     */
+    private void reconcile(Booking booking) {
+        long now = System.currentTimeMillis();
+        long due = plan.dueAt(booking, now);
+        ReminderEntity queued = reminders.find(booking.getBookingId());
+        if (due == ReminderPlan.NONE) {
+            if (queued != null) {
+                reminders.delete(booking.getBookingId());
+            }
+            if ("cancelled".equalsIgnoreCase(booking.getStatus()) && booking.getStartMillis() > now
+                    && booking.getStartMillis() - LEAD_MILLIS <= now) {
+                // Its reminder may already be showing
+                new NotificationHelper(context).dismissReminder(booking.getBookingId());
+            }
+        } else if (queued == null || queued.dueAtMillis != due
+                || !Objects.equals(queued.spaceType, booking.getSpaceType())) {
+            reminders.upsert(ReminderEntity.from(booking, due));
+        }
+        arm();
+    }
+
+    /**
+     * Diffs the queue against a user's upcoming bookings in the local store and
+     * applies only the differences
+     */
+    private void reconcileAll(String userId) {
+        long now = System.currentTimeMillis();
+        Map<String, Booking> upcoming = new HashMap<>();
+        for (BookingEntity entity : database.bookings().startingBetween(userId, now, Long.MAX_VALUE)) {
+            Booking booking = entity.toBooking();
+            upcoming.put(booking.getBookingId(), booking);
+        }
+        Map<String, Long> queued = new HashMap<>();
+        for (ReminderEntity reminder : reminders.all()) {
+            queued.put(reminder.bookingId, reminder.dueAtMillis);
+        }
+        Map<String, Long> desired = plan.desired(upcoming.values(), now);
+        ReminderPlan.Diff diff = ReminderPlan.diff(desired, queued);
+        if (diff.isEmpty()) {
+            return;
+        }
+        List<ReminderEntity> upserts = new ArrayList<>(diff.getAdded().size() + diff.getMoved().size());
+        for (String bookingId : diff.getAdded()) {
+            upserts.add(ReminderEntity.from(upcoming.get(bookingId), desired.get(bookingId)));
+        }
+        for (String bookingId : diff.getMoved()) {
+            upserts.add(ReminderEntity.from(upcoming.get(bookingId), desired.get(bookingId)));
+        }
+        database.runInTransaction(() -> {
+            reminders.upsertAll(upserts);
+            if (!diff.getRemoved().isEmpty()) {
+                reminders.deleteAll(diff.getRemoved());
+            }
+        });
+        arm();
+    }
+
+    /**
+     * Points the one alarm at the head of the queue, or cancels it when empty.
+     * Runs on the scheduler thread.
+     */
+    private void arm() {
+        Long next = reminders.earliestDue();
+        if (next == null ? armedAt == null : next.equals(armedAt)) {
+            return;
+        }
+        PendingIntent alarm = alarmIntent();
+        if (next == null) {
+            alarmManager.cancel(alarm);
+        } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S && !alarmManager.canScheduleExactAlarms()) {
+            // Without the exact alarm grant the reminder may arrive a few minutes late
+            alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, next, alarm);
+        } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            alarmManager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, next, alarm);
+        } else {
+            alarmManager.setExact(AlarmManager.RTC_WAKEUP, next, alarm);
+        }
+        armedAt = next;
+    }
+
+    private PendingIntent alarmIntent() {
+        Intent intent = new Intent(context, BookingNotificationReceiver.class).setAction(ACTION_DELIVER);
+        return PendingIntent.getBroadcast(context, 0, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+}
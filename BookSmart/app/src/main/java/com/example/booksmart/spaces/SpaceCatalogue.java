@@ -0,0 +1,245 @@
+package com.example.booksmart.spaces;
+
+import android.util.Log;
+
+import androidx.annotation.DrawableRes;
+import androidx.annotation.Nullable;
+
+import com.example.booksmart.R;
+import com.example.booksmart.core.OpeningHours;
+import com.example.booksmart.data.RealtimeDatabase;
+import com.example.booksmart.data.local.LocalStore;
+import com.example.booksmart.data.local.SpaceEntity;
+import com.example.booksmart.models.Space;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseReference;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The bookable spaces, read from spaces/{id} in the Realtime Database.
+ * A copy is kept in Room and shown at once on launch; {@link #refresh()} then
+ * reads only the spacesVersion stamp and downloads the catalogue only when the
+ * stamp has moved, so a room can be added without a release and an unchanged
+ * catalogue costs one scalar read. Until anything is cached the built-in
+ * spaces below are offered.
+ * Opening hours are answered from memory, so booking, editing and suggestions
+ * validate against them without a fetch.
+ * Must be used from the main thread.
+ */
+public final class SpaceCatalogue {
+    private static final String TAG = "SpaceCatalogue";
+    public static final String SPACES = "spaces";
+    public static final String VERSION = "spacesVersion";
+
+    private static SpaceCatalogue instance;
+
+    private static final List<Space> BUILT_IN = Collections.unmodifiableList(Arrays.asList(
+            space("Conference Room", "Large meetings and presentations", 10, 8 * 60, 20 * 60, Arrays.asList(
+                    "Full HD projector and screen",
+                    "Professional sound system",
+                    "Video conferencing equipment",
+                    "Adjustable lighting",
+                    "Complimentary water service")),
+            space("Meeting Room", "Team discussions", 6, 0, 24 * 60, Arrays.asList(
+                    "Interactive whiteboard",
+                    "Built-in charging stations",
+                    "Privacy blinds",
+                    "Ergonomic seating",
+                    "Coffee and tea service")),
+            // Open weekends and evenings; unrestricted until weekly hours are modelled
+            space("Event Hall", "Large gatherings", 50, 0, 24 * 60, Arrays.asList(
+                    "Stage with lighting",
+                    "Professional PA system",
+                    "Catering preparation area",
+                    "Flexible seating arrangements",
+                    "Coat check facility")),
+            space("Study Room", "Quiet work space", 4, 0, 24 * 60, Arrays.asList(
+                    "High-speed Wi-Fi",
+                    "Power outlets at every seat",
+                    "Soundproof walls",
+                    "Adjustable desk lamps",
+                    "Print & scan station")),
+            space("Recreational Space", "Relaxation area", 15, 10 * 60, 22 * 60, Arrays.asList(
+                    "Gaming consoles (PS5, Xbox)",
+                    "Pool and foosball tables",
+                    "Lounge seating area",
+                    "Snack and drink machines",
+                    "Board game collection")),
+            space("Workshop Space", "Hands-on learning", 20, 9 * 60, 18 * 60, Arrays.asList(
+                    "Professional tools and equipment",
+                    "Safety gear provided",
+                    "Ventilation system",
+                    "Storage lockers",
+                    "First aid station"))));
+
+    /**
+     * Hears about a new catalogue version
+     */
+    public interface OnCatalogueChangedListener {
+        void onCatalogueChanged(List<Space> spaces);
+    }
+
+    private final List<OnCatalogueChangedListener> listeners = new CopyOnWriteArrayList<>();
+    private List<Space> spaces = BUILT_IN;
+    // Version of the catalogue in memory; 0 for the built-in spaces
+    private long version;
+
+    /**
+     * Creates the catalogue and starts loading the cached copy.
+     * {@link LocalStore#init} must have been called.
+     */
+    public static synchronized void init() {
+        if (instance == null) {
+            instance = new SpaceCatalogue();
+            instance.loadCached();
+        }
+    }
+
+    public static synchronized SpaceCatalogue getInstance() {
+        if (instance == null) {
+            throw new IllegalStateException("SpaceCatalogue.init was not called");
+        }
+        return instance;
+    }
+
+    private SpaceCatalogue() {
+    }
+
+    /**
+     * Every bookable space in display order
+     */
+    public List<Space> spaces() {
+        return spaces;
+    }
+
+    @Nullable
+    public Space find(String spaceId) {
+        for (Space space : spaces) {
+            if (space.getId().equals(spaceId)) {
+                return space;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Opening hours of a space. A space no longer listed counts as always
+     * open, so its existing bookings can still be moved.
+     */
+    public OpeningHours hoursOf(String spaceId) {
+        Space space = find(spaceId);
+        return space != null ? space.openingHours() : OpeningHours.ALWAYS;
+    }
+
+    public void addListener(OnCatalogueChangedListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(OnCatalogueChangedListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Downloads the catalogue if its version stamp differs from the one held.
+     * Failures keep the current catalogue.
+     */
+    public void refresh() {
+        DatabaseReference root = RealtimeDatabase.get().getReference();
+        root.child(VERSION).get()
+                .addOnSuccessListener(versionSnapshot -> {
+                    Long latest = versionSnapshot.getValue(Long.class);
+                    if (latest == null || latest == version) {
+                        return;
+                    }
+                    root.child(SPACES).get()
+                            .addOnSuccessListener(snapshot -> {
+                                List<Space> loaded = parse(snapshot);
+                                if (loaded.isEmpty()) {
+                                    return;
+                                }
+                                LocalStore.getInstance().putSpaces(loaded, latest);
+                                apply(loaded, latest);
+                            })
+                            .addOnFailureListener(e -> Log.w(TAG, "Could not load spaces", e));
+                })
+                .addOnFailureListener(e -> Log.w(TAG, "Could not read the spaces version", e));
+    }
+
+    private void loadCached() {
+        LocalStore.getInstance().loadSpaces((cached, syncedAt) -> {
+            if (cached.isEmpty()) {
+                return;
+            }
+            long cachedVersion = cached.get(0).catalogueVersion;
+            // A refresh may already have brought something newer
+            if (cachedVersion <= version) {
+                return;
+            }
+            List<Space> loaded = new ArrayList<>(cached.size());
+            for (SpaceEntity entity : cached) {
+                loaded.add(entity.toSpace());
+            }
+            apply(loaded, cachedVersion);
+        });
+    }
+
+    private void apply(List<Space> loaded, long loadedVersion) {
+        spaces = Collections.unmodifiableList(loaded);
+        version = loadedVersion;
+        for (OnCatalogueChangedListener listener : listeners) {
+            listener.onCatalogueChanged(spaces);
+        }
+    }
+
+    private static List<Space> parse(DataSnapshot snapshot) {
+        List<Space> loaded = new ArrayList<>();
+        for (DataSnapshot child : snapshot.getChildren()) {
+            Space space = child.getValue(Space.class);
+            if (space != null) {
+                space.setId(child.getKey());
+                if (space.getName() == null) {
+                    space.setName(space.getId());
+                }
+                loaded.add(space);
+            }
+        }
+        Collections.sort(loaded, (a, b) -> a.getPosition() != b.getPosition()
+                ? Integer.compare(a.getPosition(), b.getPosition())
+                : a.getId().compareTo(b.getId()));
+        return loaded;
+    }
+
+    private static Space space(String name, String description, int capacity, int openMinute, int closeMinute,
+            List<String> features) {
+        // Built-in spaces predate separate ids, so their names are their ids
+        return new Space(name, name, description, capacity, features, openMinute, closeMinute, 0);
+    }
+
+    /**
+     * Bundled photo for a space, or 0 if it has none
+     */
+    @DrawableRes
+    public static int imageFor(String spaceId) {
+        switch (spaceId) {
+            case "Conference Room":
+                return R.drawable.ic_conference;
+            case "Meeting Room":
+                return R.drawable.ic_meeting;
+            case "Event Hall":
+                return R.drawable.ic_event;
+            case "Study Room":
+                return R.drawable.ic_study;
+            case "Recreational Space":
+                return R.drawable.ic_recreational;
+            case "Workshop Space":
+                return R.drawable.ic_workshop;
+            default:
+                return 0;
+        }
+    }
+}
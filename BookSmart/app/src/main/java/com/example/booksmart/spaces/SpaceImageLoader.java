@@ -0,0 +1,96 @@
+package com.example.booksmart.spaces;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+import android.widget.ImageView;
+
+import androidx.annotation.DrawableRes;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Decodes space photos off the main thread at no more than the size they are shown.
+ * Loading through the ImageView would scale a density-less drawable up to the
+ * screen density and keep a full ARGB bitmap per card; here the source is
+ * subsampled down to the target, never scaled up, and decoded as RGB_565
+ * since the photos are opaque. Results are cached by resource and size.
+ */
+public final class SpaceImageLoader {
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor();
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+    // An eighth of the heap is plenty for a handful of photos
+    private static final LruCache<String, Bitmap> CACHE =
+            new LruCache<String, Bitmap>((int) (Runtime.getRuntime().maxMemory() / 8)) {
+                @Override
+                protected int sizeOf(String key, Bitmap bitmap) {
+                    return bitmap.getByteCount();
+                }
+            };
+
+    private SpaceImageLoader() {
+    }
+
+    /**
+     * Shows a photo in a view, replacing whatever an earlier load for the same view would have set
+     *
+     * @param targetWidth  Widest the view will show the photo, in pixels
+     * @param targetHeight Tallest the view will show the photo, in pixels
+     */
+    public static void load(ImageView view, @DrawableRes int resId, int targetWidth, int targetHeight) {
+        String key = resId + ":" + targetWidth + "x" + targetHeight;
+        view.setTag(key);
+        if (resId == 0) {
+            view.setImageDrawable(null);
+            return;
+        }
+        Bitmap cached = CACHE.get(key);
+        if (cached != null) {
+            view.setImageBitmap(cached);
+            return;
+        }
+        view.setImageDrawable(null);
+        Resources resources = view.getResources();
+        EXECUTOR.execute(() -> {
+            Bitmap bitmap = decode(resources, resId, targetWidth, targetHeight);
+            if (bitmap == null) {
+                return;
+            }
+            CACHE.put(key, bitmap);
+            MAIN.post(() -> {
+                // The view may have been rebound to another space meanwhile
+                if (key.equals(view.getTag())) {
+                    view.setImageBitmap(bitmap);
+                }
+            });
+        });
+    }
+
+    private static Bitmap decode(Resources resources, @DrawableRes int resId, int targetWidth, int targetHeight) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeResource(resources, resId, options);
+
+        options.inSampleSize = sampleSize(options.outWidth, options.outHeight, targetWidth, targetHeight);
+        options.inJustDecodeBounds = false;
+        options.inScaled = false;
+        options.inPreferredConfig = Bitmap.Config.RGB_565;
+        return BitmapFactory.decodeResource(resources, resId, options);
+    }
+
+    /**
+     * Largest power of two that keeps the decoded image at least as big as the
+     * target in both dimensions, so centerCrop never has to scale it up
+     */
+    private static int sampleSize(int width, int height, int targetWidth, int targetHeight) {
+        int sampleSize = 1;
+        while (width / (sampleSize * 2) >= targetWidth && height / (sampleSize * 2) >= targetHeight) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+}
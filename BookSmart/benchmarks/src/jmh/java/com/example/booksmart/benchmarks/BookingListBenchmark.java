@@ -0,0 +1,88 @@
+package com.example.booksmart.benchmarks;
+
+import com.example.booksmart.models.Booking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building a user's bookings list: drop cancelled bookings and order by start,
+ * as the bookings screen does on every snapshot. Legacy records have to parse
+ * their start string on every comparison, migrated ones read a long.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookingListBenchmark {
+    private static final long HOUR = 60 * 60 * 1000L;
+    private static final Comparator<Booking> BY_START = new Comparator<Booking>() {
+        @Override
+        public int compare(Booking a, Booking b) {
+            return Long.compare(a.getStartMillis(), b.getStartMillis());
+        }
+    };
+
+    @Param({"50", "500", "5000"})
+    public int bookingsPerUser;
+
+    private List<Booking> migrated;
+    private List<Booking> legacy;
+
+    @Setup
+    public void setUp() {
+        TimeZone.setDefault(TimeZone.getTimeZone("Europe/London"));
+        Random random = new Random(5);
+        migrated = new ArrayList<>(bookingsPerUser);
+        legacy = new ArrayList<>(bookingsPerUser);
+        for (int i = 0; i < bookingsPerUser; i++) {
+            long start = 1_700_000_000_000L + random.nextInt(24 * 365) * HOUR;
+            Booking booking = new Booking("user-1", "Study Room", "user@example.com",
+                    start, start + HOUR, "Europe/London");
+            booking.setBookingId("b" + i);
+            booking.setStatus(random.nextInt(5) == 0 ? "cancelled" : "confirmed");
+            migrated.add(booking);
+
+            Booking old = new Booking();
+            old.setBookingId(booking.getBookingId());
+            old.setStartTime(booking.getStartTime());
+            old.setEndTime(booking.getEndTime());
+            old.setStatus(booking.getStatus());
+            legacy.add(old);
+        }
+    }
+
+    @Benchmark
+    public List<Booking> filterAndSortMigrated() {
+        return filterAndSort(migrated);
+    }
+
+    @Benchmark
+    public List<Booking> filterAndSortLegacy() {
+        return filterAndSort(legacy);
+    }
+
+    private static List<Booking> filterAndSort(List<Booking> snapshot) {
+        List<Booking> visible = new ArrayList<>(snapshot.size());
+        for (Booking booking : snapshot) {
+            if (!"cancelled".equalsIgnoreCase(booking.getStatus())) {
+                visible.add(booking);
+            }
+        }
+        Collections.sort(visible, BY_START);
+        return visible;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.booksmart.benchmarks;
+
+import com.example.booksmart.models.Booking;
+import com.example.booksmart.models.BookingTemplate;
+import com.google.firebase.database.utilities.encoding.CustomClassMapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-record model costs: the legacy start-time fallback and the Firebase
+ * object mapping done for every child of every snapshot.
+ * Mapping uses CustomClassMapper from the Admin SDK, the same bean mapper
+ * the Android SDK runs inside DataSnapshot.getValue and setValue.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookingModelBenchmark {
+    private static final long START = 1_700_000_000_000L;
+
+    private Booking migrated;
+    private Booking legacy;
+    private BookingTemplate template;
+    private Object bookingTree;
+    private Object templateTree;
+
+    @Setup
+    public void setUp() {
+        TimeZone.setDefault(TimeZone.getTimeZone("Europe/London"));
+        migrated = new Booking("user-1", "Conference Room", "user@example.com",
+                START, START + 60 * 60 * 1000L, "Europe/London");
+        migrated.setBookingId("-NbookingKey0000001");
+        migrated.setStatus("confirmed");
+
+        // Written before startMillis existed: only the display strings are stored
+        legacy = new Booking();
+        legacy.setStartTime(migrated.getStartTime());
+        legacy.setEndTime(migrated.getEndTime());
+
+        template = new BookingTemplate("user-1", "Weekly sync", "Conference Room", "09:30", "10:30");
+        template.setTemplateId("-NtemplateKey000001");
+
+        bookingTree = CustomClassMapper.convertToPlainJavaTypes(migrated);
+        templateTree = CustomClassMapper.convertToPlainJavaTypes(template);
+
+        // A mapping that silently drops fields would otherwise show up as a speedup
+        @SuppressWarnings("unchecked")
+        Map<String, Object> fields = (Map<String, Object>) bookingTree;
+        if (!fields.containsKey("startMillis") || fields.containsKey("startTimeMillis")) {
+            throw new IllegalStateException("Unexpected Booking mapping: " + fields.keySet());
+        }
+    }
+
+    @Benchmark
+    public long startMillisMigrated() {
+        return migrated.getStartMillis();
+    }
+
+    @Benchmark
+    public long startMillisLegacy() {
+        return legacy.getStartMillis();
+    }
+
+    @Benchmark
+    public Object serializeBooking() {
+        return CustomClassMapper.convertToPlainJavaTypes(migrated);
+    }
+
+    @Benchmark
+    public Booking deserializeBooking() {
+        return CustomClassMapper.convertToCustomClass(bookingTree, Booking.class);
+    }
+
+    @Benchmark
+    public Object serializeTemplate() {
+        return CustomClassMapper.convertToPlainJavaTypes(template);
+    }
+
+    @Benchmark
+    public BookingTemplate deserializeTemplate() {
+        return CustomClassMapper.convertToCustomClass(templateTree, BookingTemplate.class);
+    }
+}
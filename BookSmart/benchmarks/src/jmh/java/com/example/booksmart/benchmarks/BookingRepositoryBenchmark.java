@@ -0,0 +1,178 @@
+package com.example.booksmart.benchmarks;
+
+import com.example.booksmart.core.BookedInterval;
+import com.example.booksmart.core.BookingBatch;
+import com.example.booksmart.core.BookingException;
+import com.example.booksmart.core.BookingRepository;
+import com.example.booksmart.core.InMemoryBookingRepository;
+import com.example.booksmart.models.Booking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking, editing, cancellation and conflict checks against
+ * {@link InMemoryBookingRepository}. With the default zero latency this measures
+ * the client-side cost of each flow; pass e.g. -p latencyMillis=20 to measure
+ * end-to-end latency with a simulated round trip, where createAll should
+ * approach one round trip against batchSize for createSequentially.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookingRepositoryBenchmark {
+    private static final String SPACE = "Conference Room";
+    private static final long HOUR = 60 * 60 * 1000L;
+    // On the 15-minute slot grid, which the repository enforces
+    private static final long BASE = 1_699_999_200_000L;
+
+    @Param({"10000"})
+    public int existingBookings;
+
+    @Param({"0"})
+    public long latencyMillis;
+
+    @Param({"4"})
+    public int batchSize;
+
+    private InMemoryBookingRepository repository;
+    private Booking movable;
+    private long freeStart;
+    private long[] probeStarts;
+    private int cursor;
+    private long nextBatchStart;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws BookingException {
+        repository = new InMemoryBookingRepository(7);
+        // Back-to-back one-hour bookings, so every probe hits roughly one booking
+        for (int i = 0; i < existingBookings; i++) {
+            Booking existing = booking(BASE + i * HOUR);
+            BookingRepositoryBenchmark.<Booking>await(callback -> repository.create(existing, callback));
+        }
+        freeStart = BASE + existingBookings * HOUR;
+        // Batches are kept, so they book ever later hours clear of the other benchmarks
+        nextBatchStart = freeStart + 8 * HOUR;
+        movable = await(callback -> repository.create(booking(freeStart), callback));
+
+        Random random = new Random(11);
+        probeStarts = new long[1024];
+        for (int i = 0; i < probeStarts.length; i++) {
+            probeStarts[i] = BASE + (long) (random.nextDouble() * existingBookings * HOUR);
+        }
+        repository.setLatency(latencyMillis, latencyMillis);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        repository.shutdown();
+    }
+
+    @Benchmark
+    public List<BookedInterval> findConflicts() throws BookingException {
+        long start = probeStarts[cursor = (cursor + 1) & (probeStarts.length - 1)];
+        return await(callback -> repository.findConflicts(SPACE, start, start + HOUR, null, callback));
+    }
+
+    @Benchmark
+    public Booking createThenCancel() throws BookingException {
+        Booking created = await(callback -> repository.create(booking(freeStart + 2 * HOUR), callback));
+        return await(callback -> repository.cancel(created, callback));
+    }
+
+    @Benchmark
+    public Booking reschedule() throws BookingException {
+        // Alternate between two free hours so every edit succeeds
+        long target = movable.getStartMillis() == freeStart ? freeStart + 4 * HOUR : freeStart;
+        movable = await(callback -> repository.reschedule(movable, target, target + HOUR, "UTC", callback));
+        return movable;
+    }
+
+    /**
+     * Books batchSize new hours one create at a time, paying a round trip each
+     */
+    @Benchmark
+    public Booking createSequentially() throws BookingException {
+        Booking last = null;
+        for (Booking booking : nextBatch()) {
+            last = await(callback -> repository.create(booking, callback));
+        }
+        return last;
+    }
+
+    /**
+     * Books the same number of new hours in a single createAll call
+     */
+    @Benchmark
+    public BookingBatch createAll() throws BookingException {
+        List<Booking> batch = nextBatch();
+        return await(callback -> repository.createAll(batch, BookingBatch.Mode.ALL_OR_NOTHING, callback));
+    }
+
+    private List<Booking> nextBatch() {
+        List<Booking> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(booking(nextBatchStart));
+            nextBatchStart += HOUR;
+        }
+        return batch;
+    }
+
+    private static Booking booking(long startMillis) {
+        Booking booking = new Booking("bench-user", SPACE, "bench@example.com",
+                startMillis, startMillis + HOUR, "UTC");
+        booking.setStatus("confirmed");
+        return booking;
+    }
+
+    private interface Call<T> {
+        void run(BookingRepository.Callback<T> callback);
+    }
+
+    /**
+     * Runs a call and blocks until its callback fires
+     */
+    private static <T> T await(Call<T> call) throws BookingException {
+        CountDownLatch done = new CountDownLatch(1);
+        Object[] outcome = new Object[1];
+        call.run(new BookingRepository.Callback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                outcome[0] = result;
+                done.countDown();
+            }
+
+            @Override
+            public void onFailure(BookingException error) {
+                outcome[0] = error;
+                done.countDown();
+            }
+        });
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        if (outcome[0] instanceof BookingException) {
+            throw (BookingException) outcome[0];
+        }
+        @SuppressWarnings("unchecked")
+        T result = (T) outcome[0];
+        return result;
+    }
+}
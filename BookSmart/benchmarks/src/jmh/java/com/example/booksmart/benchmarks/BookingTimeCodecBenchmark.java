@@ -0,0 +1,77 @@
+package com.example.booksmart.benchmarks;
+
+import com.example.booksmart.core.BookingTimeCodec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link BookingTimeCodec} with the per-call SimpleDateFormat path
+ * that Booking.getStartMillis() used to take.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookingTimeCodecBenchmark {
+    private static final int SAMPLES = 1024;
+
+    private final String[] inputs = new String[SAMPLES];
+    private final long[] instants = new long[SAMPLES];
+    private BookingTimeCodec codec;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        TimeZone zone = TimeZone.getTimeZone("Europe/London");
+        codec = BookingTimeCodec.create(zone, Locale.US);
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.US);
+        sdf.setTimeZone(zone);
+        Random random = new Random(7);
+        for (int i = 0; i < SAMPLES; i++) {
+            instants[i] = (1_700_000_000L + random.nextInt(365 * 24 * 60) * 60L) * 1000L;
+            inputs[i] = sdf.format(new Date(instants[i]));
+        }
+        TimeZone.setDefault(zone);
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (SAMPLES - 1);
+        return cursor;
+    }
+
+    @Benchmark
+    public long parseWithCodec() {
+        return codec.parseDateTime(inputs[next()]);
+    }
+
+    @Benchmark
+    public long parseWithNewSimpleDateFormat() throws ParseException {
+        // Mirrors the old Booking.getStartMillis(): a fresh formatter per call
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.US);
+        return sdf.parse(inputs[next()]).getTime();
+    }
+
+    @Benchmark
+    public String formatWithCodec() {
+        return codec.formatDateTime(instants[next()]);
+    }
+
+    @Benchmark
+    public String formatWithNewSimpleDateFormat() {
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.US);
+        return sdf.format(new Date(instants[next()]));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.booksmart.benchmarks;
+
+import com.example.booksmart.core.BookedInterval;
+import com.example.booksmart.core.ConflictEngine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conflict detection on one space holding 1k, 100k and 1M bookings.
+ * Bookings are 30 to 120 minutes long with random gaps, so a one-hour probe
+ * overlaps zero to two of them, like a real check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConflictEngineBenchmark {
+    private static final String SPACE = "Conference Room";
+    private static final long MINUTE = 60 * 1000L;
+    private static final long BASE = 1_700_000_000_000L;
+    private static final int PROBES = 4096;
+
+    @Param({"1000", "100000", "1000000"})
+    public int bookingsPerSpace;
+
+    private ConflictEngine engine;
+    private final long[] probeStarts = new long[PROBES];
+    private long horizon;
+    private int cursor;
+    private int churnId;
+
+    @Setup
+    public void setUp() {
+        engine = new ConflictEngine();
+        Random random = new Random(3);
+        long start = BASE;
+        for (int i = 0; i < bookingsPerSpace; i++) {
+            start += (random.nextInt(6) * 15) * MINUTE;
+            long end = start + (30 + random.nextInt(7) * 15) * MINUTE;
+            engine.put(new BookedInterval("b" + i, SPACE, start, end));
+            start = end;
+        }
+        horizon = start;
+        for (int i = 0; i < PROBES; i++) {
+            probeStarts[i] = BASE + (long) (random.nextDouble() * (horizon - BASE));
+        }
+    }
+
+    private long nextProbe() {
+        cursor = (cursor + 1) & (PROBES - 1);
+        return probeStarts[cursor];
+    }
+
+    @Benchmark
+    public List<BookedInterval> findConflicts() {
+        long start = nextProbe();
+        return engine.findConflicts(SPACE, start, start + 60 * MINUTE, null);
+    }
+
+    @Benchmark
+    public boolean isFree() {
+        long start = nextProbe();
+        return engine.isFree(SPACE, start, start + 60 * MINUTE, null);
+    }
+
+    @Benchmark
+    public boolean putThenRemove() {
+        // Live updates from the availability listeners: one booking in, one out
+        String id = "churn" + (churnId++ & 1023);
+        long start = horizon + (churnId & 1023) * 60 * MINUTE;
+        engine.put(new BookedInterval(id, SPACE, start, start + 30 * MINUTE));
+        return engine.remove(id);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.booksmart.benchmarks;
+
+import com.example.booksmart.core.BookedInterval;
+import com.example.booksmart.core.SlotFinder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Alternative suggestions over 7, 30 and 90 days of busy bookings in six
+ * spaces, with 08:00-22:00 opening windows: the nearest five slots in one
+ * space, and the nearest slot in every space.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SlotFinderBenchmark {
+    private static final String[] SPACES = {
+            "Conference Room", "Meeting Room", "Event Hall",
+            "Study Room", "Recreational Space", "Workshop Space"
+    };
+    private static final long MINUTE = 60 * 1000L;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY = 24 * HOUR;
+    private static final long BASE = 1_699_920_000_000L; // a UTC midnight
+
+    @Param({"7", "30", "90"})
+    public int days;
+
+    private final SlotFinder finder = new SlotFinder();
+    private final Map<String, List<BookedInterval>> busyBySpace = new LinkedHashMap<>();
+    private final List<SlotFinder.Window> open = new ArrayList<>();
+    private long desiredStart;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(5);
+        int id = 0;
+        for (String space : SPACES) {
+            List<BookedInterval> busy = new ArrayList<>();
+            for (int day = 0; day < days; day++) {
+                // Mostly booked days: 30 to 120 minute bookings with short gaps
+                long start = BASE + day * DAY + 8 * HOUR;
+                long close = BASE + day * DAY + 22 * HOUR;
+                while (true) {
+                    start += random.nextInt(3) * 15 * MINUTE;
+                    long end = start + (30 + random.nextInt(7) * 15) * MINUTE;
+                    if (end > close) {
+                        break;
+                    }
+                    busy.add(new BookedInterval("b" + id++, space, start, end));
+                    start = end;
+                }
+            }
+            busyBySpace.put(space, busy);
+        }
+        for (int day = 0; day < days; day++) {
+            open.add(new SlotFinder.Window(BASE + day * DAY + 8 * HOUR, BASE + day * DAY + 22 * HOUR));
+        }
+        desiredStart = BASE + (days / 2) * DAY + 13 * HOUR;
+    }
+
+    @Benchmark
+    public List<SlotFinder.Slot> nearestInSpace() {
+        return finder.nearest(SPACES[0], busyBySpace.get(SPACES[0]), open, desiredStart, 90 * MINUTE, 5);
+    }
+
+    @Benchmark
+    public List<SlotFinder.Slot> acrossSpaces() {
+        return finder.acrossSpaces(busyBySpace, open, desiredStart, 90 * MINUTE);
+    }
+}
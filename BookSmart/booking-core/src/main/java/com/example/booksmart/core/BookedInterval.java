@@ -0,0 +1,55 @@
+package com.example.booksmart.core;
+
+/**
+ * Immutable view of an active booking as seen by the conflict engine.
+ * Times are epoch milliseconds; the interval is half-open: [startMillis, endMillis).
+ */
+public final class BookedInterval {
+    private final String bookingId;
+    private final String spaceType;
+    private final long startMillis;
+    private final long endMillis;
+
+    /**
+     * Creates a booked interval
+     *
+     * @param bookingId   Booking that owns the interval
+     * @param spaceType   Space the booking is for
+     * @param startMillis Inclusive start in epoch milliseconds
+     * @param endMillis   Exclusive end in epoch milliseconds
+     */
+    public BookedInterval(String bookingId, String spaceType, long startMillis, long endMillis) {
+        this.bookingId = bookingId;
+        this.spaceType = spaceType;
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+    }
+
+    public String getBookingId() {
+        return bookingId;
+    }
+
+    public String getSpaceType() {
+        return spaceType;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public long getEndMillis() {
+        return endMillis;
+    }
+
+    /**
+     * Checks whether this interval overlaps [startMillis, endMillis)
+     */
+    public boolean overlaps(long startMillis, long endMillis) {
+        return this.startMillis < endMillis && startMillis < this.endMillis;
+    }
+
+    @Override
+    public String toString() {
+        return bookingId + "@" + spaceType + "[" + startMillis + ", " + endMillis + ")";
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.booksmart.core;
+
+import com.example.booksmart.models.Booking;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per-booking outcome of {@link BookingRepository#createAll}.
+ * Outcomes are in request order, so item i answers booking i of the request.
+ */
+public final class BookingBatch {
+
+    /**
+     * What happens to the rest of a batch when one booking cannot be made
+     */
+    public enum Mode {
+        /** Nothing is written unless every booking can be made */
+        ALL_OR_NOTHING,
+        /** Every booking that can be made is written */
+        BEST_EFFORT
+    }
+
+    /**
+     * Result for one requested booking
+     */
+    public static final class Outcome {
+        private final Booking booking;
+        private final BookingException error;
+
+        private Outcome(Booking booking, BookingException error) {
+            this.booking = booking;
+            this.error = error;
+        }
+
+        public static Outcome booked(Booking booking) {
+            return new Outcome(booking, null);
+        }
+
+        public static Outcome failed(Booking booking, BookingException error) {
+            return new Outcome(booking, error);
+        }
+
+        /**
+         * The booking as stored, or as requested if it failed
+         */
+        public Booking getBooking() {
+            return booking;
+        }
+
+        /**
+         * @return Why the booking was not made, or null if it was
+         */
+        public BookingException getError() {
+            return error;
+        }
+
+        public boolean isBooked() {
+            return error == null;
+        }
+    }
+
+    private final List<Outcome> outcomes;
+
+    public BookingBatch(List<Outcome> outcomes) {
+        this.outcomes = Collections.unmodifiableList(new ArrayList<>(outcomes));
+    }
+
+    public List<Outcome> getOutcomes() {
+        return outcomes;
+    }
+
+    /**
+     * Bookings that were made, in request order
+     */
+    public List<Booking> getBooked() {
+        List<Booking> booked = new ArrayList<>();
+        for (Outcome outcome : outcomes) {
+            if (outcome.isBooked()) {
+                booked.add(outcome.getBooking());
+            }
+        }
+        return booked;
+    }
+
+    /**
+     * Whether every requested booking was made
+     */
+    public boolean isComplete() {
+        for (Outcome outcome : outcomes) {
+            if (!outcome.isBooked()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks the requests of a batch against each other. A booking overlapping
+     * an earlier request for the same space fails with
+     * {@link BookingException.Reason#SLOT_TAKEN} naming that request, so the
+     * backend is never asked to settle a race the batch started with itself.
+     *
+     * @param bookings Requests with ids assigned
+     * @return Error per request, index for index; null where the request is clear
+     */
+    public static BookingException[] overlapsWithinBatch(List<Booking> bookings) {
+        BookingException[] errors = new BookingException[bookings.size()];
+        ConflictEngine engine = new ConflictEngine();
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking booking = bookings.get(i);
+            List<BookedInterval> overlaps = engine.findConflicts(booking.getSpaceType(),
+                    booking.getStartMillis(), booking.getEndMillis(), booking.getBookingId());
+            if (overlaps.isEmpty()) {
+                engine.put(new BookedInterval(booking.getBookingId(), booking.getSpaceType(),
+                        booking.getStartMillis(), booking.getEndMillis()));
+            } else {
+                errors[i] = BookingException.slotTaken(overlaps.get(0).getBookingId());
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Error for a booking rolled back because another one of its batch failed
+     */
+    public static BookingException aborted() {
+        return new BookingException(BookingException.Reason.BATCH_ABORTED,
+                "Another booking in the batch could not be made");
+    }
+}
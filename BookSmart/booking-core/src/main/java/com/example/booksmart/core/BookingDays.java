@@ -0,0 +1,40 @@
+package com.example.booksmart.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Day bucketing for availability lookups.
+ * Buckets are UTC calendar days ("yyyy-MM-dd"), so every client derives the
+ * same keys for an interval regardless of its own time zone.
+ */
+public final class BookingDays {
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+    private static final BookingTimeCodec UTC = BookingTimeCodec.forZoneId("UTC");
+
+    private BookingDays() {
+    }
+
+    /**
+     * Returns the bucket keys an interval [startMillis, endMillis) touches, in order
+     */
+    public static List<String> dayKeys(long startMillis, long endMillis) {
+        List<String> keys = new ArrayList<>();
+        if (endMillis <= startMillis) {
+            return keys;
+        }
+        long firstDay = Math.floorDiv(startMillis, MILLIS_PER_DAY);
+        long lastDay = Math.floorDiv(endMillis - 1, MILLIS_PER_DAY);
+        for (long day = firstDay; day <= lastDay; day++) {
+            keys.add(UTC.formatDate(day * MILLIS_PER_DAY));
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the bucket key for the day containing an instant
+     */
+    public static String dayKey(long millis) {
+        return UTC.formatDate(millis);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.booksmart.core;
+
+/**
+ * Failure reported by a {@link BookingRepository}.
+ */
+public class BookingException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Why an operation failed
+     */
+    public enum Reason {
+        /** Another booking already holds part of the requested time */
+        SLOT_TAKEN,
+        /** The booking was changed by someone else since it was read */
+        STALE_VERSION,
+        /** The booking does not exist */
+        NOT_FOUND,
+        /** The backend could not be reached or rejected the write */
+        UNAVAILABLE,
+        /** Not written because another booking of the same all-or-nothing batch failed */
+        BATCH_ABORTED,
+        /** The space is closed for part of the requested time */
+        CLOSED,
+        /** The requested times are not on the 15-minute slot grid */
+        OFF_GRID
+    }
+
+    private final Reason reason;
+    private final String conflictingBookingId;
+
+    public BookingException(Reason reason, String message) {
+        this(reason, message, null);
+    }
+
+    public BookingException(Reason reason, String message, String conflictingBookingId) {
+        super(message);
+        this.reason = reason;
+        this.conflictingBookingId = conflictingBookingId;
+    }
+
+    public static BookingException closed(String spaceType, OpeningHours hours) {
+        return new BookingException(Reason.CLOSED, spaceType + " is only open " + hours);
+    }
+
+    public static BookingException offGrid() {
+        return new BookingException(Reason.OFF_GRID,
+                "Bookings start and end on the quarter hour (" + BookingSlots.SLOT_MINUTES + " minute slots)");
+    }
+
+    public static BookingException slotTaken(String conflictingBookingId) {
+        return new BookingException(Reason.SLOT_TAKEN,
+                "Time is already booked by " + conflictingBookingId, conflictingBookingId);
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * @return Booking holding the requested time for {@link Reason#SLOT_TAKEN}, otherwise null
+     */
+    public String getConflictingBookingId() {
+        return conflictingBookingId;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.booksmart.core;
+
+import com.example.booksmart.models.Booking;
+
+import java.util.List;
+
+/**
+ * Booking data access used by the create, edit and cancel flows.
+ * Implemented over Firebase in the app and in-process for tests and benchmarks.
+ * All operations are asynchronous; each callback fires exactly once.
+ */
+public interface BookingRepository {
+
+    /**
+     * Result of a repository operation
+     */
+    interface Callback<T> {
+        void onSuccess(T result);
+
+        void onFailure(BookingException error);
+    }
+
+    /**
+     * Stores a new booking if none of its time is taken.
+     * An id is assigned if the booking has none.
+     *
+     * @param booking Booking with user, space, epoch times and status set
+     */
+    void create(Booking booking, Callback<Booking> callback);
+
+    /**
+     * Stores several new bookings together, e.g. a hall and its breakout rooms
+     * or every date of a series. Requests are checked against each other and
+     * the existing bookings at once and written in one update, so the whole
+     * batch costs about one round trip however many bookings it holds.
+     * Per-booking failures are reported in the result rather than through
+     * onFailure, which is only called if the batch could not be attempted.
+     *
+     * @param bookings Bookings as for {@link #create}; ids are assigned where missing
+     * @param mode     Whether one failure stops the whole batch
+     */
+    void createAll(List<Booking> bookings, BookingBatch.Mode mode, Callback<BookingBatch> callback);
+
+    /**
+     * Moves a booking to new times. Fails with {@link BookingException.Reason#STALE_VERSION}
+     * if it was changed since {@code booking} was read.
+     *
+     * @param booking Booking as last read, including its version
+     */
+    void reschedule(Booking booking, long startMillis, long endMillis, String timeZoneId,
+            Callback<Booking> callback);
+
+    /**
+     * Marks a booking cancelled and frees its time, bumping its version. Fails with
+     * {@link BookingException.Reason#STALE_VERSION} if it was changed since {@code booking} was read.
+     *
+     * @param booking Booking as last read, including its version
+     */
+    void cancel(Booking booking, Callback<Booking> callback);
+
+    /**
+     * Finds every active booking overlapping [startMillis, endMillis)
+     *
+     * @param excludedBookingId Booking to ignore, e.g. the one being edited (may be null)
+     */
+    void findConflicts(String spaceType, long startMillis, long endMillis, String excludedBookingId,
+            Callback<List<BookedInterval>> callback);
+
+    /**
+     * Lists a user's bookings ordered by start time
+     */
+    void listForUser(String userId, Callback<List<Booking>> callback);
+}
@@ -0,0 +1,125 @@
+package com.example.booksmart.core;
+
+import com.example.booksmart.models.Booking;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Display values for one booking row, computed once per booking version.
+ * Building a model does all the formatting; binding a row from it only assigns
+ * fields, so scrolling allocates nothing. Instances are immutable and may be
+ * built on any thread.
+ */
+public final class BookingRowModel {
+
+    /**
+     * Status pill styles; the app keeps one background per value
+     */
+    public enum Status {
+        CONFIRMED, PENDING, CANCELLED, OTHER
+    }
+
+    private final long version;
+    private final String rawStatus;
+    private final String spaceType;
+    private final long startMillis;
+    private final long endMillis;
+    private final String spaceText;
+    private final String statusText;
+    private final String dateText;
+    private final String timeText;
+    private final Status status;
+    private final boolean cancellable;
+
+    private BookingRowModel(Booking booking, String spaceText, String statusText, String dateText,
+            String timeText, Status status) {
+        this.version = booking.getVersion();
+        this.rawStatus = booking.getStatus();
+        this.spaceType = booking.getSpaceType();
+        this.startMillis = booking.getStartMillis();
+        this.endMillis = booking.getEndMillis();
+        this.spaceText = spaceText;
+        this.statusText = statusText;
+        this.dateText = dateText;
+        this.timeText = timeText;
+        this.status = status;
+        this.cancellable = status == Status.CONFIRMED;
+    }
+
+    /**
+     * Formats a booking for display
+     *
+     * @param codec Zone and locale the times are shown in
+     */
+    public static BookingRowModel of(Booking booking, BookingTimeCodec codec) {
+        String spaceText = booking.getSpaceType() != null ? booking.getSpaceType() : "N/A";
+        String statusText = booking.getStatus() != null
+                ? booking.getStatus().toUpperCase(Locale.ROOT) : "PENDING";
+
+        long startMillis = booking.getStartMillis();
+        long endMillis = booking.getEndMillis();
+        String dateText;
+        String timeText;
+        if (startMillis > 0 && endMillis > 0) {
+            dateText = codec.formatDisplayDate(startMillis);
+            timeText = codec.formatTime(startMillis) + " - " + codec.formatTime(endMillis);
+        } else {
+            dateText = "Date not set";
+            timeText = "Time not set";
+        }
+        return new BookingRowModel(booking, spaceText, statusText, dateText, timeText, statusOf(statusText));
+    }
+
+    private static Status statusOf(String statusText) {
+        switch (statusText) {
+            case "CONFIRMED":
+                return Status.CONFIRMED;
+            case "PENDING":
+                return Status.PENDING;
+            case "CANCELLED":
+                return Status.CANCELLED;
+            default:
+                return Status.OTHER;
+        }
+    }
+
+    /**
+     * Whether this model still renders a booking. Compares the displayed fields
+     * rather than identity, so a re-delivered but unchanged booking keeps its model.
+     */
+    public boolean isFor(Booking booking) {
+        return version == booking.getVersion()
+                && startMillis == booking.getStartMillis()
+                && endMillis == booking.getEndMillis()
+                && Objects.equals(rawStatus, booking.getStatus())
+                && Objects.equals(spaceType, booking.getSpaceType());
+    }
+
+    public String getSpaceText() {
+        return spaceText;
+    }
+
+    public String getStatusText() {
+        return statusText;
+    }
+
+    public String getDateText() {
+        return dateText;
+    }
+
+    public String getTimeText() {
+        return timeText;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Whether the row offers a cancel action
+     */
+    public boolean isCancellable() {
+        return cancellable;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.booksmart.core;
+
+import java.util.TimeZone;
+
+/**
+ * Checks a booking's times must pass before any slot is claimed. Every
+ * {@link BookingRepository} applies them, so they all refuse the same requests.
+ */
+public final class BookingRules {
+
+    private BookingRules() {
+    }
+
+    /**
+     * Checks the slot grid, then the space's opening hours
+     *
+     * @param timeZoneId Zone the hours are read in, or null for the device zone
+     * @return The failure to report, or null if [startMillis, endMillis) can be booked
+     */
+    public static BookingException refusal(String spaceType, long startMillis, long endMillis,
+            String timeZoneId, OpeningHours hours) {
+        if (!BookingSlots.isAligned(startMillis, endMillis)) {
+            return BookingException.offGrid();
+        }
+        TimeZone zone = timeZoneId != null ? TimeZone.getTimeZone(timeZoneId) : TimeZone.getDefault();
+        return hours.covers(startMillis, endMillis, zone) ? null : BookingException.closed(spaceType, hours);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.booksmart.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fixed 15-minute reservation granules.
+ * A booking owns every slot its interval [startMillis, endMillis) touches;
+ * bookings must start and end on slot boundaries so that owning a slot and
+ * overlapping in time mean the same thing. Slots are keyed "yyyy-MM-dd/NN" where the day is UTC (as in {@link BookingDays})
+ * and NN is the zero-padded granule index within that day (00-95).
+ * A claimed slot holds an {@link #entry}; slots claimed before entries were
+ * introduced hold just the booking id and read as version 0.
+ */
+public final class BookingSlots {
+    public static final int SLOT_MINUTES = 15;
+    public static final long SLOT_MILLIS = SLOT_MINUTES * 60 * 1000L;
+    private static final long SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    private BookingSlots() {
+    }
+
+    /**
+     * Rounds a time to the nearest slot boundary. Start and end are rounded the same
+     * way, so bookings that met before snapping still meet afterwards.
+     */
+    public static long snap(long millis) {
+        return Math.floorDiv(millis + SLOT_MILLIS / 2, SLOT_MILLIS) * SLOT_MILLIS;
+    }
+
+    /**
+     * @return true if both ends fall on slot boundaries
+     */
+    public static boolean isAligned(long startMillis, long endMillis) {
+        return Math.floorMod(startMillis, SLOT_MILLIS) == 0 && Math.floorMod(endMillis, SLOT_MILLIS) == 0;
+    }
+
+    /**
+     * Returns the slot keys an interval touches, in time order
+     */
+    public static List<String> slotKeys(long startMillis, long endMillis) {
+        List<String> keys = new ArrayList<>();
+        if (endMillis <= startMillis) {
+            return keys;
+        }
+        long first = Math.floorDiv(startMillis, SLOT_MILLIS);
+        long last = Math.floorDiv(endMillis - 1, SLOT_MILLIS);
+        for (long slot = first; slot <= last; slot++) {
+            keys.add(slotKey(slot));
+        }
+        return keys;
+    }
+
+    /**
+     * The value a claimed slot holds: the owning booking and user, the booking version
+     * that claimed it, and when, so claims whose booking was never written can be swept
+     */
+    public static Map<String, Object> entry(String bookingId, String userId, long version, long claimedAtMillis) {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("bookingId", bookingId);
+        entry.put("userId", userId);
+        entry.put("version", version);
+        entry.put("claimedAt", claimedAtMillis);
+        return entry;
+    }
+
+    /**
+     * @param slotValue Raw slot value as read from the database
+     * @return Owning booking id, or null for an empty slot
+     */
+    public static String bookingIdOf(Object slotValue) {
+        if (slotValue instanceof Map) {
+            Object bookingId = ((Map<?, ?>) slotValue).get("bookingId");
+            return bookingId instanceof String ? (String) bookingId : null;
+        }
+        return slotValue instanceof String ? (String) slotValue : null;
+    }
+
+    /**
+     * @param slotValue Raw slot value as read from the database
+     * @return Booking version that claimed the slot, 0 for a bare id
+     */
+    public static long versionOf(Object slotValue) {
+        return longField(slotValue, "version");
+    }
+
+    /**
+     * @param slotValue Raw slot value as read from the database
+     * @return When the slot was claimed in epoch milliseconds, 0 if unknown
+     */
+    public static long claimedAtOf(Object slotValue) {
+        return longField(slotValue, "claimedAt");
+    }
+
+    private static long longField(Object slotValue, String field) {
+        if (slotValue instanceof Map) {
+            Object value = ((Map<?, ?>) slotValue).get(field);
+            return value instanceof Number ? ((Number) value).longValue() : 0;
+        }
+        return 0;
+    }
+
+    private static String slotKey(long slot) {
+        long dayStartSlot = Math.floorDiv(slot, SLOTS_PER_DAY) * SLOTS_PER_DAY;
+        int index = (int) (slot - dayStartSlot);
+        String day = BookingDays.dayKey(dayStartSlot * SLOT_MILLIS);
+        return index < 10 ? day + "/0" + index : day + "/" + index;
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.booksmart.core;
+
+import java.text.DateFormatSymbols;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Parser and formatter for the fixed booking time layouts.
+ * Handles "yyyy-MM-dd HH:mm", "yyyy-MM-dd", "HH:mm" and the display date
+ * "MMM dd, yyyy" with plain char arithmetic, so parsing allocates nothing.
+ * Instances are immutable and safe to share across threads.
+ */
+public final class BookingTimeCodec {
+
+    /**
+     * Returned by the parse methods when the input is malformed
+     */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private static final long MILLIS_PER_MINUTE = 60 * 1000L;
+    private static final long MILLIS_PER_DAY = 24 * 60 * MILLIS_PER_MINUTE;
+    private static final ConcurrentMap<String, BookingTimeCodec> CACHE = new ConcurrentHashMap<>();
+
+    private final TimeZone timeZone;
+    private final Locale locale;
+    private final String[] shortMonths;
+
+    private BookingTimeCodec(TimeZone timeZone, Locale locale) {
+        // Private copy: nothing can mutate it after construction
+        this.timeZone = (TimeZone) timeZone.clone();
+        this.locale = locale;
+        this.shortMonths = DateFormatSymbols.getInstance(locale).getShortMonths().clone();
+    }
+
+    /**
+     * Returns the shared codec for the device's current time zone and locale
+     */
+    public static BookingTimeCodec systemDefault() {
+        return forZoneId(TimeZone.getDefault().getID());
+    }
+
+    /**
+     * Returns the shared codec for a time zone id, using the default locale
+     *
+     * @param timeZoneId Zone id such as "Europe/London"; null means the device zone
+     */
+    public static BookingTimeCodec forZoneId(String timeZoneId) {
+        String id = timeZoneId != null ? timeZoneId : TimeZone.getDefault().getID();
+        Locale locale = Locale.getDefault();
+        BookingTimeCodec codec = CACHE.get(id);
+        if (codec == null || !codec.locale.equals(locale)) {
+            // First use of the zone, or the user switched language
+            codec = new BookingTimeCodec(TimeZone.getTimeZone(id), locale);
+            CACHE.put(id, codec);
+        }
+        return codec;
+    }
+
+    /**
+     * Creates an unshared codec, mainly for tests and benchmarks
+     */
+    public static BookingTimeCodec create(TimeZone timeZone, Locale locale) {
+        return new BookingTimeCodec(timeZone, locale);
+    }
+
+    public String getTimeZoneId() {
+        return timeZone.getID();
+    }
+
+    /**
+     * Parses "yyyy-MM-dd HH:mm" in this codec's zone
+     *
+     * @return Epoch milliseconds, or {@link #INVALID}
+     */
+    public long parseDateTime(CharSequence text) {
+        if (text == null || text.length() != 16 || text.charAt(10) != ' ') {
+            return INVALID;
+        }
+        long days = parseDays(text, 0);
+        int minuteOfDay = parseMinuteOfDay(text, 11);
+        if (days == INVALID || minuteOfDay < 0) {
+            return INVALID;
+        }
+        return toUtc(days * MILLIS_PER_DAY + minuteOfDay * MILLIS_PER_MINUTE);
+    }
+
+    /**
+     * Parses "yyyy-MM-dd" to the start of that day in this codec's zone
+     *
+     * @return Epoch milliseconds, or {@link #INVALID}
+     */
+    public long parseDate(CharSequence text) {
+        if (text == null || text.length() != 10) {
+            return INVALID;
+        }
+        long days = parseDays(text, 0);
+        return days == INVALID ? INVALID : toUtc(days * MILLIS_PER_DAY);
+    }
+
+    /**
+     * Parses "HH:mm" into milliseconds since midnight
+     *
+     * @return Offset in milliseconds, or {@link #INVALID}
+     */
+    public static long parseTimeOfDay(CharSequence text) {
+        if (text == null || text.length() != 5) {
+            return INVALID;
+        }
+        int minuteOfDay = parseMinuteOfDay(text, 0);
+        return minuteOfDay < 0 ? INVALID : minuteOfDay * MILLIS_PER_MINUTE;
+    }
+
+    /**
+     * Formats epoch milliseconds as "yyyy-MM-dd HH:mm"
+     */
+    public String formatDateTime(long millis) {
+        char[] out = new char[16];
+        long local = toLocal(millis);
+        writeDate(out, 0, Math.floorDiv(local, MILLIS_PER_DAY));
+        out[10] = ' ';
+        writeTime(out, 11, (int) (Math.floorMod(local, MILLIS_PER_DAY) / MILLIS_PER_MINUTE));
+        return new String(out);
+    }
+
+    /**
+     * Formats epoch milliseconds as "yyyy-MM-dd"
+     */
+    public String formatDate(long millis) {
+        char[] out = new char[10];
+        writeDate(out, 0, Math.floorDiv(toLocal(millis), MILLIS_PER_DAY));
+        return new String(out);
+    }
+
+    /**
+     * Formats epoch milliseconds as "HH:mm"
+     */
+    public String formatTime(long millis) {
+        char[] out = new char[5];
+        writeTime(out, 0, (int) (Math.floorMod(toLocal(millis), MILLIS_PER_DAY) / MILLIS_PER_MINUTE));
+        return new String(out);
+    }
+
+    /**
+     * Formats an offset from midnight as "HH:mm"
+     */
+    public static String formatTimeOfDay(long offsetMillis) {
+        char[] out = new char[5];
+        writeTime(out, 0, (int) (Math.floorMod(offsetMillis, MILLIS_PER_DAY) / MILLIS_PER_MINUTE));
+        return new String(out);
+    }
+
+    /**
+     * Formats epoch milliseconds as "MMM dd, yyyy" using localized month names
+     */
+    public String formatDisplayDate(long millis) {
+        long days = Math.floorDiv(toLocal(millis), MILLIS_PER_DAY);
+        int[] ymd = civilFromDays(days);
+        StringBuilder sb = new StringBuilder(12);
+        sb.append(shortMonths[ymd[1] - 1]).append(' ');
+        appendTwoDigits(sb, ymd[2]);
+        sb.append(", ").append(ymd[0]);
+        return sb.toString();
+    }
+
+    /**
+     * Epoch day (days since 1970-01-01) of the instant in this codec's zone
+     */
+    public long toEpochDay(long millis) {
+        return Math.floorDiv(toLocal(millis), MILLIS_PER_DAY);
+    }
+
+    /**
+     * Epoch milliseconds of local midnight for an epoch day in this codec's zone
+     */
+    public long startOfEpochDay(long epochDay) {
+        return toUtc(epochDay * MILLIS_PER_DAY);
+    }
+
+    /**
+     * Milliseconds since local midnight for an instant in this codec's zone
+     */
+    public long timeOfDay(long millis) {
+        return Math.floorMod(toLocal(millis), MILLIS_PER_DAY);
+    }
+
+    private long toLocal(long utcMillis) {
+        return utcMillis + timeZone.getOffset(utcMillis);
+    }
+
+    private long toUtc(long localMillis) {
+        // Resolve the offset at the candidate instant; a second pass handles DST edges
+        int offset = timeZone.getOffset(localMillis - timeZone.getRawOffset());
+        long utc = localMillis - offset;
+        int actual = timeZone.getOffset(utc);
+        return actual == offset ? utc : localMillis - actual;
+    }
+
+    private static long parseDays(CharSequence text, int from) {
+        int year = digits(text, from, 4);
+        int month = digits(text, from + 5, 2);
+        int day = digits(text, from + 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1
+                || text.charAt(from + 4) != '-' || text.charAt(from + 7) != '-'
+                || day > daysInMonth(year, month)) {
+            return INVALID;
+        }
+        return daysFromCivil(year, month, day);
+    }
+
+    private static int parseMinuteOfDay(CharSequence text, int from) {
+        int hour = digits(text, from, 2);
+        int minute = digits(text, from + 3, 2);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || text.charAt(from + 2) != ':') {
+            return -1;
+        }
+        return hour * 60 + minute;
+    }
+
+    private static int digits(CharSequence text, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    // Howard Hinnant's days_from_civil / civil_from_days
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yoe = y - era * 400;
+        int doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097L + doe - 719468;
+    }
+
+    private static int[] civilFromDays(long epochDay) {
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097);
+        int doe = (int) (z - era * 146097);
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int day = doy - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = (int) (yoe + era * 400) + (month <= 2 ? 1 : 0);
+        return new int[] {year, month, day};
+    }
+
+    private static void writeDate(char[] out, int at, long epochDay) {
+        int[] ymd = civilFromDays(epochDay);
+        int year = ymd[0];
+        out[at] = (char) ('0' + year / 1000 % 10);
+        out[at + 1] = (char) ('0' + year / 100 % 10);
+        out[at + 2] = (char) ('0' + year / 10 % 10);
+        out[at + 3] = (char) ('0' + year % 10);
+        out[at + 4] = '-';
+        out[at + 5] = (char) ('0' + ymd[1] / 10);
+        out[at + 6] = (char) ('0' + ymd[1] % 10);
+        out[at + 7] = '-';
+        out[at + 8] = (char) ('0' + ymd[2] / 10);
+        out[at + 9] = (char) ('0' + ymd[2] % 10);
+    }
+
+    private static void writeTime(char[] out, int at, int minuteOfDay) {
+        int hour = minuteOfDay / 60;
+        int minute = minuteOfDay % 60;
+        out[at] = (char) ('0' + hour / 10);
+        out[at + 1] = (char) ('0' + hour % 10);
+        out[at + 2] = ':';
+        out[at + 3] = (char) ('0' + minute / 10);
+        out[at + 4] = (char) ('0' + minute % 10);
+    }
+
+    private static void appendTwoDigits(StringBuilder sb, int value) {
+        sb.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+}
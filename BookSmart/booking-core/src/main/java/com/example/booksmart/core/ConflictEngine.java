@@ -0,0 +1,135 @@
+package com.example.booksmart.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conflict detection engine shared by every booking flow.
+ * Holds one interval tree per space and answers overlap queries in O(log n + k).
+ * All methods are synchronized so a single engine can be fed from one thread
+ * and queried from another.
+ */
+public class ConflictEngine {
+
+    private static final long MILLIS_PER_MINUTE = 60 * 1000;
+
+    private final Map<String, IntervalTree> treesBySpace = new HashMap<>();
+    private final Map<String, BookedInterval> intervalsById = new HashMap<>();
+
+    /**
+     * Adds or replaces an active booking
+     *
+     * @param interval The booking's space and time range
+     */
+    public synchronized void put(BookedInterval interval) {
+        remove(interval.getBookingId());
+        IntervalTree tree = treesBySpace.get(interval.getSpaceType());
+        if (tree == null) {
+            tree = new IntervalTree();
+            treesBySpace.put(interval.getSpaceType(), tree);
+        }
+        tree.put(interval.getBookingId(),
+                toMinute(interval.getStartMillis()),
+                toMinuteCeil(interval.getEndMillis()));
+        intervalsById.put(interval.getBookingId(), interval);
+    }
+
+    /**
+     * Removes a booking, e.g. after it was cancelled or deleted
+     *
+     * @return true if the booking was indexed
+     */
+    public synchronized boolean remove(String bookingId) {
+        BookedInterval existing = intervalsById.remove(bookingId);
+        if (existing == null) {
+            return false;
+        }
+        IntervalTree tree = treesBySpace.get(existing.getSpaceType());
+        if (tree != null) {
+            tree.remove(bookingId);
+        }
+        return true;
+    }
+
+    /**
+     * Returns an indexed booking by id, or null if it is not indexed
+     */
+    public synchronized BookedInterval get(String bookingId) {
+        return intervalsById.get(bookingId);
+    }
+
+    /**
+     * Drops every booking indexed for a space
+     */
+    public synchronized void clearSpace(String spaceType) {
+        IntervalTree tree = treesBySpace.remove(spaceType);
+        if (tree == null) {
+            return;
+        }
+        List<String> ids = new ArrayList<>();
+        for (BookedInterval interval : intervalsById.values()) {
+            if (spaceType.equals(interval.getSpaceType())) {
+                ids.add(interval.getBookingId());
+            }
+        }
+        for (String id : ids) {
+            intervalsById.remove(id);
+        }
+    }
+
+    public synchronized void clear() {
+        treesBySpace.clear();
+        intervalsById.clear();
+    }
+
+    public synchronized int size() {
+        return intervalsById.size();
+    }
+
+    /**
+     * Finds every active booking in the space overlapping [startMillis, endMillis)
+     *
+     * @param spaceType         Space to check
+     * @param startMillis       Candidate start in epoch milliseconds
+     * @param endMillis         Candidate end in epoch milliseconds
+     * @param excludedBookingId Booking to ignore, e.g. the one being edited (may be null)
+     * @return Overlapping bookings ordered by start time; empty if the slot is free
+     */
+    public synchronized List<BookedInterval> findConflicts(String spaceType, long startMillis, long endMillis,
+            String excludedBookingId) {
+        IntervalTree tree = treesBySpace.get(spaceType);
+        if (tree == null || startMillis >= endMillis) {
+            return Collections.emptyList();
+        }
+        List<IntervalTree.Entry> entries = tree.findOverlaps(
+                toMinute(startMillis), toMinuteCeil(endMillis), excludedBookingId);
+        List<BookedInterval> conflicts = new ArrayList<>(entries.size());
+        for (IntervalTree.Entry entry : entries) {
+            BookedInterval interval = intervalsById.get(entry.id);
+            // Minute keys are a coarse filter; confirm against the exact millis
+            if (interval != null && interval.overlaps(startMillis, endMillis)) {
+                conflicts.add(interval);
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * Checks whether [startMillis, endMillis) is free in the space
+     */
+    public synchronized boolean isFree(String spaceType, long startMillis, long endMillis,
+            String excludedBookingId) {
+        return findConflicts(spaceType, startMillis, endMillis, excludedBookingId).isEmpty();
+    }
+
+    private static long toMinute(long millis) {
+        return Math.floorDiv(millis, MILLIS_PER_MINUTE);
+    }
+
+    private static long toMinuteCeil(long millis) {
+        return -Math.floorDiv(-millis, MILLIS_PER_MINUTE);
+    }
+}
@@ -0,0 +1,371 @@
+package com.example.booksmart.core;
+
+import com.example.booksmart.models.Booking;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process stand-in for the Firebase backend.
+ * Applies the same rules against a {@link ConflictEngine}, so flows can be
+ * tested and benchmarked on a plain JVM with no network: {@link BookingRules}
+ * (slot grid, then opening hours set with {@link #setOpeningHours}), no
+ * overlapping active bookings per space, and version checked reschedules and
+ * cancellations. On the slot grid an interval overlap is exactly a shared
+ * 15-minute slot, so the engine refuses what the slot claims would.
+ * <p>
+ * With no latency configured, callbacks run on the calling thread before the
+ * method returns. With latency, each operation is applied and answered on a
+ * background thread after a random delay in [min, max] milliseconds, like a
+ * round trip to the server. A failure rate makes that fraction of operations
+ * fail with {@link BookingException.Reason#UNAVAILABLE} without side effects.
+ */
+public class InMemoryBookingRepository implements BookingRepository {
+
+    private static final Comparator<Booking> BY_START = new Comparator<Booking>() {
+        @Override
+        public int compare(Booking a, Booking b) {
+            return Long.compare(a.getStartMillis(), b.getStartMillis());
+        }
+    };
+
+    private final ConflictEngine engine = new ConflictEngine();
+    private final Map<String, Booking> bookings = new HashMap<>();
+    private final Map<String, Map<String, Booking>> bookingsByUser = new HashMap<>();
+    private final Map<String, OpeningHours> hoursBySpace = new HashMap<>();
+    private final Random random;
+    private ScheduledExecutorService scheduler;
+    private long nextId;
+    private long minLatencyMillis;
+    private long maxLatencyMillis;
+    private double failureRate;
+
+    public InMemoryBookingRepository() {
+        this(42);
+    }
+
+    /**
+     * @param seed Seed for latency jitter and failure injection, for repeatable runs
+     */
+    public InMemoryBookingRepository(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Delays every operation by a random amount in [minMillis, maxMillis]
+     */
+    public synchronized void setLatency(long minMillis, long maxMillis) {
+        if (minMillis < 0 || maxMillis < minMillis) {
+            throw new IllegalArgumentException("Invalid latency range " + minMillis + "-" + maxMillis);
+        }
+        this.minLatencyMillis = minMillis;
+        this.maxLatencyMillis = maxMillis;
+    }
+
+    /**
+     * Fails the given fraction of operations, 0 to 1
+     */
+    public synchronized void setFailureRate(double failureRate) {
+        if (failureRate < 0 || failureRate > 1) {
+            throw new IllegalArgumentException("Failure rate must be between 0 and 1");
+        }
+        this.failureRate = failureRate;
+    }
+
+    /**
+     * Sets when a space is open; spaces without hours are always open
+     */
+    public synchronized void setOpeningHours(String spaceType, OpeningHours hours) {
+        hoursBySpace.put(spaceType, hours);
+    }
+
+    /**
+     * Stops the background thread used for delayed operations
+     */
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Drops every stored booking
+     */
+    public synchronized void clear() {
+        bookings.clear();
+        bookingsByUser.clear();
+        engine.clear();
+    }
+
+    public synchronized int size() {
+        return bookings.size();
+    }
+
+    @Override
+    public void create(final Booking booking, final Callback<Booking> callback) {
+        final Booking request = copyOf(booking);
+        dispatch(callback, new Operation<Booking>() {
+            @Override
+            public Booking apply() throws BookingException {
+                BookingException refused = refusalFor(request.getSpaceType(), request.getStartMillis(),
+                        request.getEndMillis(), request.getTimeZoneId());
+                if (refused != null) {
+                    throw refused;
+                }
+                if (request.getBookingId() == null) {
+                    request.setBookingId("local-" + (++nextId));
+                }
+                List<BookedInterval> conflicts = engine.findConflicts(request.getSpaceType(),
+                        request.getStartMillis(), request.getEndMillis(), request.getBookingId());
+                if (!conflicts.isEmpty()) {
+                    throw BookingException.slotTaken(conflicts.get(0).getBookingId());
+                }
+                if (request.getVersion() == 0) {
+                    request.setVersion(1);
+                }
+                store(request);
+                return copyOf(request);
+            }
+        });
+    }
+
+    @Override
+    public void createAll(final List<Booking> bookings, final BookingBatch.Mode mode,
+            final Callback<BookingBatch> callback) {
+        final List<Booking> requests = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            requests.add(copyOf(booking));
+        }
+        dispatch(callback, new Operation<BookingBatch>() {
+            @Override
+            public BookingBatch apply() {
+                for (Booking request : requests) {
+                    if (request.getBookingId() == null) {
+                        request.setBookingId("local-" + (++nextId));
+                    }
+                }
+                BookingException[] errors = BookingBatch.overlapsWithinBatch(requests);
+                boolean anyFailed = false;
+                for (int i = 0; i < requests.size(); i++) {
+                    Booking request = requests.get(i);
+                    if (errors[i] == null) {
+                        errors[i] = refusalFor(request.getSpaceType(), request.getStartMillis(),
+                                request.getEndMillis(), request.getTimeZoneId());
+                    }
+                    if (errors[i] == null) {
+                        List<BookedInterval> conflicts = engine.findConflicts(request.getSpaceType(),
+                                request.getStartMillis(), request.getEndMillis(), request.getBookingId());
+                        if (!conflicts.isEmpty()) {
+                            errors[i] = BookingException.slotTaken(conflicts.get(0).getBookingId());
+                        }
+                    }
+                    anyFailed |= errors[i] != null;
+                }
+
+                List<BookingBatch.Outcome> outcomes = new ArrayList<>(requests.size());
+                for (int i = 0; i < requests.size(); i++) {
+                    Booking request = requests.get(i);
+                    if (errors[i] != null) {
+                        outcomes.add(BookingBatch.Outcome.failed(request, errors[i]));
+                    } else if (anyFailed && mode == BookingBatch.Mode.ALL_OR_NOTHING) {
+                        outcomes.add(BookingBatch.Outcome.failed(request, BookingBatch.aborted()));
+                    } else {
+                        if (request.getVersion() == 0) {
+                            request.setVersion(1);
+                        }
+                        store(request);
+                        outcomes.add(BookingBatch.Outcome.booked(copyOf(request)));
+                    }
+                }
+                return new BookingBatch(outcomes);
+            }
+        });
+    }
+
+    @Override
+    public void reschedule(final Booking booking, final long startMillis, final long endMillis,
+            final String timeZoneId, final Callback<Booking> callback) {
+        final String bookingId = booking.getBookingId();
+        final long readVersion = booking.getVersion();
+        dispatch(callback, new Operation<Booking>() {
+            @Override
+            public Booking apply() throws BookingException {
+                Booking stored = requireVersion(bookingId, readVersion);
+                BookingException refused = refusalFor(stored.getSpaceType(), startMillis, endMillis, timeZoneId);
+                if (refused != null) {
+                    throw refused;
+                }
+                List<BookedInterval> conflicts = engine.findConflicts(stored.getSpaceType(),
+                        startMillis, endMillis, bookingId);
+                if (!conflicts.isEmpty()) {
+                    throw BookingException.slotTaken(conflicts.get(0).getBookingId());
+                }
+                stored.setTimes(startMillis, endMillis, timeZoneId);
+                stored.setVersion(readVersion + 1);
+                store(stored);
+                return copyOf(stored);
+            }
+        });
+    }
+
+    @Override
+    public void cancel(final Booking booking, final Callback<Booking> callback) {
+        final String bookingId = booking.getBookingId();
+        final long readVersion = booking.getVersion();
+        dispatch(callback, new Operation<Booking>() {
+            @Override
+            public Booking apply() throws BookingException {
+                Booking stored = requireVersion(bookingId, readVersion);
+                stored.setStatus("cancelled");
+                stored.setVersion(readVersion + 1);
+                engine.remove(bookingId);
+                return copyOf(stored);
+            }
+        });
+    }
+
+    @Override
+    public void findConflicts(final String spaceType, final long startMillis, final long endMillis,
+            final String excludedBookingId, final Callback<List<BookedInterval>> callback) {
+        dispatch(callback, new Operation<List<BookedInterval>>() {
+            @Override
+            public List<BookedInterval> apply() {
+                return engine.findConflicts(spaceType, startMillis, endMillis, excludedBookingId);
+            }
+        });
+    }
+
+    @Override
+    public void listForUser(final String userId, final Callback<List<Booking>> callback) {
+        dispatch(callback, new Operation<List<Booking>>() {
+            @Override
+            public List<Booking> apply() {
+                Map<String, Booking> owned = bookingsByUser.get(userId);
+                if (owned == null) {
+                    return Collections.emptyList();
+                }
+                List<Booking> result = new ArrayList<>(owned.size());
+                for (Booking stored : owned.values()) {
+                    result.add(copyOf(stored));
+                }
+                Collections.sort(result, BY_START);
+                return result;
+            }
+        });
+    }
+
+    private interface Operation<T> {
+        T apply() throws BookingException;
+    }
+
+    private <T> void dispatch(final Callback<T> callback, final Operation<T> operation) {
+        long delay;
+        synchronized (this) {
+            delay = maxLatencyMillis == 0 ? 0
+                    : minLatencyMillis + (long) (random.nextDouble() * (maxLatencyMillis - minLatencyMillis + 1));
+            if (delay > 0 && scheduler == null) {
+                scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "InMemoryBookingRepository");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+            }
+        }
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                T result;
+                try {
+                    result = applyOrFail(operation);
+                } catch (BookingException e) {
+                    callback.onFailure(e);
+                    return;
+                }
+                callback.onSuccess(result);
+            }
+        };
+        if (delay == 0) {
+            task.run();
+        } else {
+            synchronized (this) {
+                scheduler.schedule(task, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private synchronized <T> T applyOrFail(Operation<T> operation) throws BookingException {
+        if (failureRate > 0 && random.nextDouble() < failureRate) {
+            throw new BookingException(BookingException.Reason.UNAVAILABLE, "Injected failure");
+        }
+        return operation.apply();
+    }
+
+    private Booking require(String bookingId) throws BookingException {
+        Booking stored = bookingId != null ? bookings.get(bookingId) : null;
+        if (stored == null) {
+            throw new BookingException(BookingException.Reason.NOT_FOUND, "No booking " + bookingId);
+        }
+        return stored;
+    }
+
+    private Booking requireVersion(String bookingId, long readVersion) throws BookingException {
+        Booking stored = require(bookingId);
+        if (stored.getVersion() != readVersion) {
+            throw new BookingException(BookingException.Reason.STALE_VERSION,
+                    "Booking " + bookingId + " is at version " + stored.getVersion() + ", not " + readVersion);
+        }
+        return stored;
+    }
+
+    private BookingException refusalFor(String spaceType, long startMillis, long endMillis, String timeZoneId) {
+        OpeningHours hours = hoursBySpace.get(spaceType);
+        return BookingRules.refusal(spaceType, startMillis, endMillis, timeZoneId,
+                hours != null ? hours : OpeningHours.ALWAYS);
+    }
+
+    private void store(Booking booking) {
+        bookings.put(booking.getBookingId(), booking);
+        Map<String, Booking> owned = bookingsByUser.get(booking.getUserId());
+        if (owned == null) {
+            owned = new HashMap<>();
+            bookingsByUser.put(booking.getUserId(), owned);
+        }
+        owned.put(booking.getBookingId(), booking);
+        if (!"cancelled".equals(booking.getStatus())) {
+            engine.put(new BookedInterval(booking.getBookingId(), booking.getSpaceType(),
+                    booking.getStartMillis(), booking.getEndMillis()));
+        }
+    }
+
+    /**
+     * Detached copy, standing in for the serialization boundary of a real backend
+     */
+    private static Booking copyOf(Booking source) {
+        Booking copy = new Booking();
+        copy.setBookingId(source.getBookingId());
+        copy.setUserId(source.getUserId());
+        copy.setSpaceType(source.getSpaceType());
+        copy.setUserEmail(source.getUserEmail());
+        copy.setStartTime(source.getStartTime());
+        copy.setEndTime(source.getEndTime());
+        copy.setStartMillis(source.getStartMillis());
+        copy.setEndMillis(source.getEndMillis());
+        copy.setTimeZoneId(source.getTimeZoneId());
+        copy.setStatus(source.getStatus());
+        copy.setVersion(source.getVersion());
+        return copy;
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.booksmart.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Augmented interval tree keyed on interval start.
+ * Each node tracks the largest end value in its subtree so overlap queries
+ * run in O(log n + k). Intervals are half-open: [start, end).
+ */
+public class IntervalTree {
+
+    /**
+     * An interval stored in the tree, identified by the booking that owns it.
+     */
+    public static final class Entry {
+        public final String id;
+        public final long start;
+        public final long end;
+
+        Entry(String id, long start, long end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private static final class Node {
+        Entry entry;
+        long maxEnd;
+        int height = 1;
+        Node left, right;
+
+        Node(Entry entry) {
+            this.entry = entry;
+            this.maxEnd = entry.end;
+        }
+    }
+
+    private Node root;
+    private final Map<String, Entry> entriesById = new HashMap<>();
+
+    /**
+     * Inserts or replaces the interval owned by the given id
+     *
+     * @param id    Owner of the interval (booking id)
+     * @param start Inclusive start
+     * @param end   Exclusive end
+     */
+    public void put(String id, long start, long end) {
+        remove(id);
+        Entry entry = new Entry(id, start, end);
+        entriesById.put(id, entry);
+        root = insert(root, entry);
+    }
+
+    /**
+     * Removes the interval owned by the given id, if present
+     *
+     * @return true if an interval was removed
+     */
+    public boolean remove(String id) {
+        Entry existing = entriesById.remove(id);
+        if (existing == null) {
+            return false;
+        }
+        root = delete(root, existing);
+        return true;
+    }
+
+    public boolean contains(String id) {
+        return entriesById.containsKey(id);
+    }
+
+    public int size() {
+        return entriesById.size();
+    }
+
+    public void clear() {
+        root = null;
+        entriesById.clear();
+    }
+
+    /**
+     * Returns the first interval overlapping [start, end), skipping the excluded id
+     *
+     * @param excludeId Id to ignore (e.g. the booking being edited), may be null
+     * @return The overlapping entry, or null if the range is free
+     */
+    public Entry findFirstOverlap(long start, long end, String excludeId) {
+        return findFirst(root, start, end, excludeId);
+    }
+
+    /**
+     * Collects every interval overlapping [start, end), skipping the excluded id
+     */
+    public List<Entry> findOverlaps(long start, long end, String excludeId) {
+        List<Entry> result = new ArrayList<>();
+        collect(root, start, end, excludeId, result);
+        return result;
+    }
+
+    private Entry findFirst(Node node, long start, long end, String excludeId) {
+        if (node == null || node.maxEnd <= start) {
+            return null;
+        }
+        Entry found = findFirst(node.left, start, end, excludeId);
+        if (found != null) {
+            return found;
+        }
+        if (node.entry.start >= end) {
+            // Everything to the right starts even later
+            return null;
+        }
+        if (node.entry.end > start && !node.entry.id.equals(excludeId)) {
+            return node.entry;
+        }
+        return findFirst(node.right, start, end, excludeId);
+    }
+
+    private void collect(Node node, long start, long end, String excludeId, List<Entry> out) {
+        if (node == null || node.maxEnd <= start) {
+            return;
+        }
+        collect(node.left, start, end, excludeId, out);
+        if (node.entry.start >= end) {
+            return;
+        }
+        if (node.entry.end > start && !node.entry.id.equals(excludeId)) {
+            out.add(node.entry);
+        }
+        collect(node.right, start, end, excludeId, out);
+    }
+
+    private static int compare(Entry a, Entry b) {
+        int byStart = Long.compare(a.start, b.start);
+        return byStart != 0 ? byStart : a.id.compareTo(b.id);
+    }
+
+    private Node insert(Node node, Entry entry) {
+        if (node == null) {
+            return new Node(entry);
+        }
+        if (compare(entry, node.entry) < 0) {
+            node.left = insert(node.left, entry);
+        } else {
+            node.right = insert(node.right, entry);
+        }
+        return rebalance(node);
+    }
+
+    private Node delete(Node node, Entry entry) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(entry, node.entry);
+        if (cmp < 0) {
+            node.left = delete(node.left, entry);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, entry);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            // Replace with in-order successor
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.entry = successor.entry;
+            node.right = delete(node.right, successor.entry);
+        }
+        return rebalance(node);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long max = node.entry.end;
+        if (node.left != null && node.left.maxEnd > max) {
+            max = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd > max) {
+            max = node.right.maxEnd;
+        }
+        node.maxEnd = max;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rebalance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+}
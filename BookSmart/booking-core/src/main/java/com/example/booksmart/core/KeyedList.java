@@ -0,0 +1,302 @@
+package com.example.booksmart.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ordered, keyed list kept in sync from child-level deltas (added, changed,
+ * moved, removed) such as those of a Firebase ChildEventListener.
+ * Only values accepted by the filter are visible; every delta is turned into
+ * at most one granular event against the visible positions, so listeners
+ * (typically a RecyclerView adapter) rebind only what changed. Keys are
+ * looked up through position maps rather than scanned, so an in-order initial
+ * load costs constant time per child.
+ * Not thread-safe; feed and read it from one thread.
+ *
+ * @param <T> Value type
+ */
+public class KeyedList<T> {
+
+    /**
+     * Accepts or hides a value
+     */
+    public interface Filter<T> {
+        boolean accept(T value);
+    }
+
+    /**
+     * Tells whether a change is visible, so identical updates can be dropped
+     */
+    public interface ContentComparator<T> {
+        boolean sameContent(T oldValue, T newValue);
+    }
+
+    /**
+     * Receives granular changes to the visible positions
+     */
+    public interface Listener {
+        void onInserted(int position);
+
+        void onChanged(int position);
+
+        /**
+         * @param key Key of the value that left the visible positions, so per-key state can be dropped
+         */
+        void onRemoved(int position, String key);
+
+        void onMoved(int fromPosition, int toPosition);
+    }
+
+    // Every key in source order, visible or not, so "previous key" hints can be resolved
+    private final IndexedKeys order = new IndexedKeys();
+    private final Map<String, T> values = new HashMap<>();
+    private final IndexedKeys visible = new IndexedKeys();
+    private final List<Listener> listeners = new ArrayList<>();
+    private final Filter<T> filter;
+    private final ContentComparator<T> comparator;
+
+    public KeyedList() {
+        this(null, null);
+    }
+
+    /**
+     * @param filter     Values to show, all if null
+     * @param comparator Suppresses change events for equal content, never if null
+     */
+    public KeyedList(Filter<T> filter, ContentComparator<T> comparator) {
+        this.filter = filter;
+        this.comparator = comparator;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return Number of visible values
+     */
+    public int size() {
+        return visible.size();
+    }
+
+    public boolean isEmpty() {
+        return visible.isEmpty();
+    }
+
+    /**
+     * @return Visible value at a position
+     */
+    public T get(int position) {
+        return values.get(visible.get(position));
+    }
+
+    /**
+     * @return Visible position of a key, or -1 if it is absent or filtered out
+     */
+    public int positionOf(String key) {
+        return visible.indexOf(key);
+    }
+
+    /**
+     * @return Value for a key, visible or not, or null
+     */
+    public T find(String key) {
+        return values.get(key);
+    }
+
+    /**
+     * Inserts a value after another key, or first if previousKey is null
+     */
+    public void onAdded(String key, T value, String previousKey) {
+        if (values.containsKey(key)) {
+            onChanged(key, value);
+            onMoved(key, previousKey);
+            return;
+        }
+        order.add(orderIndexAfter(previousKey), key);
+        values.put(key, value);
+        if (accepts(value)) {
+            int position = visibleIndexFor(key);
+            visible.add(position, key);
+            for (Listener listener : listeners) {
+                listener.onInserted(position);
+            }
+        }
+    }
+
+    /**
+     * Adds a value after every key seen so far, e.g. the rows of a page
+     */
+    public void append(String key, T value) {
+        onAdded(key, value, order.isEmpty() ? null : order.get(order.size() - 1));
+    }
+
+    /**
+     * Replaces a value in place
+     */
+    public void onChanged(String key, T value) {
+        T old = values.put(key, value);
+        if (old == null) {
+            // Unknown key: treat as an append so the delta is not lost
+            values.remove(key);
+            append(key, value);
+            return;
+        }
+        boolean wasVisible = accepts(old);
+        boolean isVisible = accepts(value);
+        if (wasVisible && isVisible) {
+            if (comparator == null || !comparator.sameContent(old, value)) {
+                int position = visible.indexOf(key);
+                for (Listener listener : listeners) {
+                    listener.onChanged(position);
+                }
+            }
+        } else if (wasVisible) {
+            int position = visible.indexOf(key);
+            visible.remove(position);
+            for (Listener listener : listeners) {
+                listener.onRemoved(position, key);
+            }
+        } else if (isVisible) {
+            int position = visibleIndexFor(key);
+            visible.add(position, key);
+            for (Listener listener : listeners) {
+                listener.onInserted(position);
+            }
+        }
+    }
+
+    /**
+     * Moves a key after another key, or first if previousKey is null
+     */
+    public void onMoved(String key, String previousKey) {
+        int from = order.indexOf(key);
+        // Already in place, as when the initial load confirms seeded keys in order
+        if (from < 0 || orderIndexAfter(previousKey) == from) {
+            return;
+        }
+        order.remove(from);
+        order.add(orderIndexAfter(previousKey), key);
+
+        int fromPosition = visible.indexOf(key);
+        if (fromPosition < 0) {
+            return;
+        }
+        visible.remove(fromPosition);
+        int toPosition = visibleIndexFor(key);
+        visible.add(toPosition, key);
+        if (fromPosition != toPosition) {
+            for (Listener listener : listeners) {
+                listener.onMoved(fromPosition, toPosition);
+            }
+        }
+    }
+
+    public void onRemoved(String key) {
+        if (values.remove(key) == null) {
+            return;
+        }
+        order.remove(order.indexOf(key));
+        int position = visible.indexOf(key);
+        if (position >= 0) {
+            visible.remove(position);
+            for (Listener listener : listeners) {
+                listener.onRemoved(position, key);
+            }
+        }
+    }
+
+    /**
+     * Drops everything without emitting per-item events
+     */
+    public void clear() {
+        order.clear();
+        values.clear();
+        visible.clear();
+    }
+
+    private boolean accepts(T value) {
+        return filter == null || filter.accept(value);
+    }
+
+    private int orderIndexAfter(String previousKey) {
+        if (previousKey == null) {
+            return 0;
+        }
+        int index = order.indexOf(previousKey);
+        return index < 0 ? order.size() : index + 1;
+    }
+
+    /**
+     * Visible position a key should occupy, from the nearest visible key before it
+     */
+    private int visibleIndexFor(String key) {
+        int index = order.indexOf(key);
+        if (index == order.size() - 1) {
+            return visible.size();
+        }
+        for (int i = index - 1; i >= 0; i--) {
+            int position = visible.indexOf(order.get(i));
+            if (position >= 0) {
+                return position + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Distinct keys in a list, each with its index kept in a map. Inserting or
+     * removing renumbers only the keys after it, so changes at the tail are cheap.
+     */
+    private static final class IndexedKeys {
+        private final List<String> keys = new ArrayList<>();
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        int size() {
+            return keys.size();
+        }
+
+        boolean isEmpty() {
+            return keys.isEmpty();
+        }
+
+        String get(int index) {
+            return keys.get(index);
+        }
+
+        /**
+         * @return Index of the key, or -1 if it is absent
+         */
+        int indexOf(String key) {
+            Integer index = indexes.get(key);
+            return index == null ? -1 : index;
+        }
+
+        void add(int index, String key) {
+            keys.add(index, key);
+            renumberFrom(index);
+        }
+
+        void remove(int index) {
+            indexes.remove(keys.remove(index));
+            renumberFrom(index);
+        }
+
+        void clear() {
+            keys.clear();
+            indexes.clear();
+        }
+
+        private void renumberFrom(int index) {
+            for (int i = index; i < keys.size(); i++) {
+                indexes.put(keys.get(i), i);
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.booksmart.core;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Daily opening hours of a space, [openMinute, closeMinute) in minutes from
+ * local midnight. Times are resolved through the calendar rather than by
+ * adding minutes to midnight, so a day with a DST change still opens at its
+ * wall-clock time.
+ */
+public final class OpeningHours {
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    /** Open around the clock */
+    public static final OpeningHours ALWAYS = new OpeningHours(0, MINUTES_PER_DAY);
+
+    private final int openMinute;
+    private final int closeMinute;
+
+    /**
+     * @throws IllegalArgumentException Unless 0 <= openMinute < closeMinute <= 1440
+     */
+    public OpeningHours(int openMinute, int closeMinute) {
+        if (openMinute < 0 || closeMinute > MINUTES_PER_DAY || openMinute >= closeMinute) {
+            throw new IllegalArgumentException("Bad opening hours: " + openMinute + "-" + closeMinute);
+        }
+        this.openMinute = openMinute;
+        this.closeMinute = closeMinute;
+    }
+
+    public int getOpenMinute() {
+        return openMinute;
+    }
+
+    public int getCloseMinute() {
+        return closeMinute;
+    }
+
+    public boolean isAlwaysOpen() {
+        return openMinute == 0 && closeMinute == MINUTES_PER_DAY;
+    }
+
+    /**
+     * Whether [startMillis, endMillis) lies within one day's opening hours.
+     * A space open around the clock covers any range.
+     */
+    public boolean covers(long startMillis, long endMillis, TimeZone zone) {
+        if (isAlwaysOpen()) {
+            return true;
+        }
+        Calendar day = startOfDay(startMillis, zone);
+        return startMillis >= at(day, openMinute) && endMillis <= at(day, closeMinute);
+    }
+
+    /**
+     * Opening hours of consecutive days as free-search windows
+     *
+     * @param fromMillis Any time on the first day
+     * @param days       Number of days
+     * @param notBefore  Windows are clipped to start no earlier than this, e.g. now
+     * @return Sorted, disjoint windows; adjacent days of an always-open space merge into one
+     */
+    public List<SlotFinder.Window> windows(long fromMillis, int days, TimeZone zone, long notBefore) {
+        List<SlotFinder.Window> windows = new ArrayList<>();
+        Calendar day = startOfDay(fromMillis, zone);
+        for (int i = 0; i < days; i++) {
+            long open = Math.max(at(day, openMinute), notBefore);
+            long close = at(day, closeMinute);
+            if (open < close) {
+                int last = windows.size() - 1;
+                if (last >= 0 && windows.get(last).getEndMillis() == open) {
+                    windows.set(last, new SlotFinder.Window(windows.get(last).getStartMillis(), close));
+                } else {
+                    windows.add(new SlotFinder.Window(open, close));
+                }
+            }
+            day.add(Calendar.DAY_OF_MONTH, 1);
+        }
+        return windows;
+    }
+
+    /**
+     * As shown to users, e.g. "08:00-20:00"
+     */
+    @Override
+    public String toString() {
+        return isAlwaysOpen() ? "24 hours" : clock(openMinute) + "-" + clock(closeMinute);
+    }
+
+    private static String clock(int minute) {
+        return String.format(Locale.US, "%02d:%02d", minute / 60, minute % 60);
+    }
+
+    private static Calendar startOfDay(long millis, TimeZone zone) {
+        Calendar day = Calendar.getInstance(zone, Locale.US);
+        day.setTimeInMillis(millis);
+        day.set(Calendar.HOUR_OF_DAY, 0);
+        day.set(Calendar.MINUTE, 0);
+        day.set(Calendar.SECOND, 0);
+        day.set(Calendar.MILLISECOND, 0);
+        return day;
+    }
+
+    /**
+     * Wall-clock minute of a day; 1440 is the next midnight
+     */
+    private static long at(Calendar day, int minute) {
+        Calendar time = (Calendar) day.clone();
+        if (minute == MINUTES_PER_DAY) {
+            time.add(Calendar.DAY_OF_MONTH, 1);
+        } else {
+            time.set(Calendar.HOUR_OF_DAY, minute / 60);
+            time.set(Calendar.MINUTE, minute % 60);
+        }
+        return time.getTimeInMillis();
+    }
+}
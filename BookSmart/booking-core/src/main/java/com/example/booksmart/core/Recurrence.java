@@ -0,0 +1,378 @@
+package com.example.booksmart.core;
+
+import java.util.Calendar;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.TimeZone;
+
+/**
+ * A repeat rule for booking templates, written as a subset of an iCalendar
+ * RRULE: FREQ=DAILY|WEEKLY with optional INTERVAL, BYDAY (plain weekdays),
+ * and either COUNT or UNTIL.
+ * Occurrences are expanded lazily in the series' own time zone, so a 09:00
+ * booking stays at 09:00 across DST changes and an unbounded rule costs
+ * nothing until it is iterated. Instances are immutable.
+ */
+public final class Recurrence {
+
+    public enum Frequency {
+        DAILY, WEEKLY
+    }
+
+    /**
+     * One expanded occurrence, [startMillis, endMillis)
+     */
+    public static final class Occurrence {
+        private final long startMillis;
+        private final long endMillis;
+
+        Occurrence(long startMillis, long endMillis) {
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+        }
+
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        public long getEndMillis() {
+            return endMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + startMillis + ", " + endMillis + ")";
+        }
+    }
+
+    private static final String[] WEEKDAYS = {"SU", "MO", "TU", "WE", "TH", "FR", "SA"};
+    private static final long MILLIS_PER_MINUTE = 60 * 1000L;
+    private static final int NO_UNTIL_DATE = Integer.MAX_VALUE;
+    private static final long NO_UNTIL = Long.MAX_VALUE;
+    // Stops the scan for rules whose BYDAY never lines up with their interval
+    private static final int MAX_SCAN_DAYS = 10 * 366;
+
+    private final Frequency frequency;
+    private final int interval;
+    // Bit (1 << Calendar.DAY_OF_WEEK) per allowed weekday; 0 for any
+    private final int byDay;
+    private final int count;
+    private final int untilDate;
+    private final long untilMillis;
+
+    private Recurrence(Frequency frequency, int interval, int byDay, int count, int untilDate, long untilMillis) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.byDay = byDay;
+        this.count = count;
+        this.untilDate = untilDate;
+        this.untilMillis = untilMillis;
+    }
+
+    /**
+     * Parses a rule such as "FREQ=WEEKLY;BYDAY=MO,WE;COUNT=8"
+     *
+     * @throws IllegalArgumentException If the rule is malformed or outside the supported subset
+     */
+    public static Recurrence parse(String rule) {
+        if (rule == null || rule.isEmpty()) {
+            throw new IllegalArgumentException("Empty recurrence rule");
+        }
+        String body = rule.startsWith("RRULE:") ? rule.substring(6) : rule;
+        Frequency frequency = null;
+        int interval = 1;
+        int byDay = 0;
+        int count = 0;
+        int untilDate = NO_UNTIL_DATE;
+        long untilMillis = NO_UNTIL;
+        for (String part : body.split(";")) {
+            int eq = part.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Malformed rule part: " + part);
+            }
+            String name = part.substring(0, eq);
+            String value = part.substring(eq + 1);
+            switch (name) {
+                case "FREQ":
+                    frequency = parseFrequency(value);
+                    break;
+                case "INTERVAL":
+                    interval = parsePositive(name, value);
+                    break;
+                case "BYDAY":
+                    byDay = parseWeekdays(value);
+                    break;
+                case "COUNT":
+                    count = parsePositive(name, value);
+                    break;
+                case "UNTIL":
+                    if (value.length() == 8) {
+                        untilDate = parsePositive(name, value);
+                    } else {
+                        untilMillis = parseUtcDateTime(value);
+                    }
+                    break;
+                case "WKST":
+                    // Weeks always start on Monday, the iCalendar default
+                    if (!"MO".equals(value)) {
+                        throw new IllegalArgumentException("Unsupported WKST: " + value);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported rule part: " + name);
+            }
+        }
+        if (frequency == null) {
+            throw new IllegalArgumentException("FREQ is required");
+        }
+        if (count > 0 && (untilDate != NO_UNTIL_DATE || untilMillis != NO_UNTIL)) {
+            throw new IllegalArgumentException("COUNT and UNTIL cannot both be set");
+        }
+        return new Recurrence(frequency, interval, byDay, count, untilDate, untilMillis);
+    }
+
+    /**
+     * Every interval-th day or week, limited to count occurrences
+     *
+     * @param weekdays Calendar.DAY_OF_WEEK values to keep; none keeps every day
+     *                 (daily) or the first day's weekday (weekly)
+     */
+    public static Recurrence every(Frequency frequency, int interval, int count, int... weekdays) {
+        if (interval < 1 || count < 1) {
+            throw new IllegalArgumentException("Interval and count must be positive");
+        }
+        int byDay = 0;
+        for (int weekday : weekdays) {
+            byDay |= 1 << weekday;
+        }
+        return new Recurrence(frequency, interval, byDay, count, NO_UNTIL_DATE, NO_UNTIL);
+    }
+
+    /**
+     * Formats the rule back into RRULE syntax, without the "RRULE:" prefix
+     */
+    public String toRule() {
+        StringBuilder rule = new StringBuilder("FREQ=").append(frequency.name());
+        if (interval != 1) {
+            rule.append(";INTERVAL=").append(interval);
+        }
+        if (byDay != 0) {
+            rule.append(";BYDAY=");
+            boolean first = true;
+            // Monday first, as weeks start
+            for (int i = 1; i <= 7; i++) {
+                int weekday = i % 7 + 1;
+                if ((byDay & (1 << weekday)) != 0) {
+                    if (!first) {
+                        rule.append(',');
+                    }
+                    rule.append(WEEKDAYS[weekday - 1]);
+                    first = false;
+                }
+            }
+        }
+        if (count > 0) {
+            rule.append(";COUNT=").append(count);
+        }
+        if (untilDate != NO_UNTIL_DATE) {
+            rule.append(";UNTIL=").append(untilDate);
+        } else if (untilMillis != NO_UNTIL) {
+            rule.append(";UNTIL=").append(formatUtcDateTime(untilMillis));
+        }
+        return rule.toString();
+    }
+
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * @return Occurrence limit, or 0 if the rule has none
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Whether the rule ends by itself, through COUNT or UNTIL
+     */
+    public boolean isBounded() {
+        return count > 0 || untilDate != NO_UNTIL_DATE || untilMillis != NO_UNTIL;
+    }
+
+    /**
+     * Expands the rule lazily from a first day. Like an iCalendar DTSTART, the
+     * first day counts towards COUNT when it matches.
+     *
+     * @param firstDayMillis Any time on the first day of the series
+     * @param startOffset    Start as an offset from local midnight
+     * @param endOffset      End as an offset from local midnight; at or before the
+     *                       start means the next day
+     * @param timeZone       Zone the series is anchored in
+     * @return Occurrences in start order; unbounded rules iterate for up to ten years
+     */
+    public Iterable<Occurrence> occurrences(long firstDayMillis, long startOffset, long endOffset,
+            TimeZone timeZone) {
+        return () -> new OccurrenceIterator(firstDayMillis, startOffset, endOffset, timeZone);
+    }
+
+    private final class OccurrenceIterator implements Iterator<Occurrence> {
+        private final Calendar day;
+        private final long startOffset;
+        private final long endOffset;
+        private final int weekdayMask;
+        // Days from the first day to the start of its Monday-based week
+        private final int weekLead;
+        private int dayIndex;
+        private int emitted;
+        private boolean done;
+        private Occurrence next;
+
+        OccurrenceIterator(long firstDayMillis, long startOffset, long endOffset, TimeZone timeZone) {
+            this.day = Calendar.getInstance(timeZone);
+            day.setTimeInMillis(firstDayMillis);
+            day.set(Calendar.HOUR_OF_DAY, 0);
+            day.set(Calendar.MINUTE, 0);
+            day.set(Calendar.SECOND, 0);
+            day.set(Calendar.MILLISECOND, 0);
+            this.startOffset = startOffset;
+            this.endOffset = endOffset;
+            int firstWeekday = day.get(Calendar.DAY_OF_WEEK);
+            this.weekdayMask = byDay != 0 || frequency == Frequency.DAILY ? byDay : 1 << firstWeekday;
+            this.weekLead = (firstWeekday + 5) % 7;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !done) {
+                advance();
+            }
+            return next != null;
+        }
+
+        @Override
+        public Occurrence next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Occurrence occurrence = next;
+            next = null;
+            return occurrence;
+        }
+
+        private void advance() {
+            if ((count > 0 && emitted >= count) || dayIndex > MAX_SCAN_DAYS || dateOf(day) > untilDate) {
+                done = true;
+                return;
+            }
+            if (matches()) {
+                long start = at(startOffset, false);
+                if (start > untilMillis) {
+                    done = true;
+                    return;
+                }
+                next = new Occurrence(start, at(endOffset, endOffset <= startOffset));
+                emitted++;
+            }
+            day.add(Calendar.DAY_OF_MONTH, 1);
+            dayIndex++;
+        }
+
+        private boolean matches() {
+            int period = frequency == Frequency.DAILY ? dayIndex : (dayIndex + weekLead) / 7;
+            return period % interval == 0
+                    && (weekdayMask == 0 || (weekdayMask & (1 << day.get(Calendar.DAY_OF_WEEK))) != 0);
+        }
+
+        /**
+         * Wall-clock time on the current day, so DST shifts do not move it
+         */
+        private long at(long offset, boolean nextDay) {
+            Calendar time = (Calendar) day.clone();
+            if (nextDay) {
+                time.add(Calendar.DAY_OF_MONTH, 1);
+            }
+            int minuteOfDay = (int) (offset / MILLIS_PER_MINUTE);
+            time.set(Calendar.HOUR_OF_DAY, minuteOfDay / 60);
+            time.set(Calendar.MINUTE, minuteOfDay % 60);
+            return time.getTimeInMillis();
+        }
+    }
+
+    private static int dateOf(Calendar day) {
+        return day.get(Calendar.YEAR) * 10000 + (day.get(Calendar.MONTH) + 1) * 100 + day.get(Calendar.DAY_OF_MONTH);
+    }
+
+    private static Frequency parseFrequency(String value) {
+        switch (value) {
+            case "DAILY":
+                return Frequency.DAILY;
+            case "WEEKLY":
+                return Frequency.WEEKLY;
+            default:
+                throw new IllegalArgumentException("Unsupported FREQ: " + value);
+        }
+    }
+
+    private static int parsePositive(String name, String value) {
+        int parsed;
+        try {
+            parsed = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed " + name + ": " + value);
+        }
+        if (parsed < 1) {
+            throw new IllegalArgumentException(name + " must be positive: " + value);
+        }
+        return parsed;
+    }
+
+    private static int parseWeekdays(String value) {
+        int mask = 0;
+        for (String token : value.split(",")) {
+            int weekday = -1;
+            for (int i = 0; i < WEEKDAYS.length; i++) {
+                if (WEEKDAYS[i].equals(token)) {
+                    weekday = i + 1;
+                }
+            }
+            if (weekday < 0) {
+                throw new IllegalArgumentException("Unsupported BYDAY value: " + token);
+            }
+            mask |= 1 << weekday;
+        }
+        return mask;
+    }
+
+    /**
+     * Parses "yyyyMMdd'T'HHmmss'Z'"
+     */
+    private static long parseUtcDateTime(String value) {
+        if (value.length() != 16 || value.charAt(8) != 'T' || value.charAt(15) != 'Z') {
+            throw new IllegalArgumentException("Malformed UNTIL: " + value);
+        }
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        utc.clear();
+        try {
+            utc.set(Integer.parseInt(value.substring(0, 4)), Integer.parseInt(value.substring(4, 6)) - 1,
+                    Integer.parseInt(value.substring(6, 8)), Integer.parseInt(value.substring(9, 11)),
+                    Integer.parseInt(value.substring(11, 13)), Integer.parseInt(value.substring(13, 15)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed UNTIL: " + value);
+        }
+        return utc.getTimeInMillis();
+    }
+
+    private static String formatUtcDateTime(long millis) {
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        utc.setTimeInMillis(millis);
+        return String.format(Locale.ROOT, "%04d%02d%02dT%02d%02d%02dZ",
+                utc.get(Calendar.YEAR), utc.get(Calendar.MONTH) + 1, utc.get(Calendar.DAY_OF_MONTH),
+                utc.get(Calendar.HOUR_OF_DAY), utc.get(Calendar.MINUTE), utc.get(Calendar.SECOND));
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.booksmart.core;
+
+import com.example.booksmart.models.Booking;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides which booking reminders should exist and how the queued set differs.
+ * Reconciliation compares due times per booking, so only reminders whose booking
+ * was added, moved or dropped are touched; an unchanged booking costs nothing.
+ */
+public final class ReminderPlan {
+
+    /**
+     * Due time of a booking that should have no reminder
+     */
+    public static final long NONE = Long.MIN_VALUE;
+
+    /**
+     * Booking ids whose reminder must be added, moved to a new due time, or removed
+     */
+    public static final class Diff {
+        private final List<String> added;
+        private final List<String> moved;
+        private final List<String> removed;
+
+        Diff(List<String> added, List<String> moved, List<String> removed) {
+            this.added = Collections.unmodifiableList(added);
+            this.moved = Collections.unmodifiableList(moved);
+            this.removed = Collections.unmodifiableList(removed);
+        }
+
+        public List<String> getAdded() {
+            return added;
+        }
+
+        public List<String> getMoved() {
+            return moved;
+        }
+
+        public List<String> getRemoved() {
+            return removed;
+        }
+
+        public boolean isEmpty() {
+            return added.isEmpty() && moved.isEmpty() && removed.isEmpty();
+        }
+    }
+
+    private final long leadMillis;
+
+    /**
+     * @param leadMillis How long before the start a reminder is due
+     */
+    public ReminderPlan(long leadMillis) {
+        this.leadMillis = leadMillis;
+    }
+
+    /**
+     * @return When the booking's reminder is due, or {@link #NONE} if it is
+     *         cancelled, already started or has no id
+     */
+    public long dueAt(Booking booking, long now) {
+        if (booking.getBookingId() == null
+                || "cancelled".equalsIgnoreCase(booking.getStatus())
+                || booking.getStartMillis() <= now) {
+            return NONE;
+        }
+        return booking.getStartMillis() - leadMillis;
+    }
+
+    /**
+     * Due times of the reminders a set of bookings should have, by booking id
+     */
+    public Map<String, Long> desired(Iterable<Booking> bookings, long now) {
+        Map<String, Long> desired = new HashMap<>();
+        for (Booking booking : bookings) {
+            long due = dueAt(booking, now);
+            if (due != NONE) {
+                desired.put(booking.getBookingId(), due);
+            }
+        }
+        return desired;
+    }
+
+    /**
+     * Compares the reminders that should exist with those queued
+     *
+     * @param desired Due time per booking id that should have a reminder
+     * @param queued  Due time per booking id that has one
+     */
+    public static Diff diff(Map<String, Long> desired, Map<String, Long> queued) {
+        List<String> added = new ArrayList<>();
+        List<String> moved = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : desired.entrySet()) {
+            Long current = queued.get(entry.getKey());
+            if (current == null) {
+                added.add(entry.getKey());
+            } else if (!current.equals(entry.getValue())) {
+                moved.add(entry.getKey());
+            }
+        }
+        for (String bookingId : queued.keySet()) {
+            if (!desired.containsKey(bookingId)) {
+                removed.add(bookingId);
+            }
+        }
+        return new Diff(added, moved, removed);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.booksmart.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Conflict check for every occurrence of a recurring booking at once.
+ * The occurrences and the space's bookings over the whole series are each
+ * sorted by start and swept together, so checking a series costs one pass over
+ * the two lists rather than one query per occurrence.
+ */
+public final class SeriesConflicts {
+
+    private SeriesConflicts() {
+    }
+
+    /**
+     * Finds the bookings each occurrence overlaps
+     *
+     * @param occurrences Occurrences in start order
+     * @param busy        Active bookings of the space over the series, in any order
+     * @return Conflicts per occurrence, index for index; empty where it is free
+     */
+    public static List<List<BookedInterval>> find(List<Recurrence.Occurrence> occurrences,
+            List<BookedInterval> busy) {
+        List<BookedInterval> sorted = new ArrayList<>(busy);
+        Collections.sort(sorted, (a, b) -> Long.compare(a.getStartMillis(), b.getStartMillis()));
+
+        List<List<BookedInterval>> conflicts = new ArrayList<>(occurrences.size());
+        // Bookings that started before the current occurrence ends and may still overlap it
+        List<BookedInterval> active = new ArrayList<>();
+        int b = 0;
+        for (Recurrence.Occurrence occurrence : occurrences) {
+            while (b < sorted.size() && sorted.get(b).getStartMillis() < occurrence.getEndMillis()) {
+                active.add(sorted.get(b++));
+            }
+            List<BookedInterval> overlapping = Collections.emptyList();
+            for (Iterator<BookedInterval> it = active.iterator(); it.hasNext(); ) {
+                BookedInterval interval = it.next();
+                if (interval.getEndMillis() <= occurrence.getStartMillis()) {
+                    // Later occurrences start later still
+                    it.remove();
+                } else if (interval.overlaps(occurrence.getStartMillis(), occurrence.getEndMillis())) {
+                    if (overlapping.isEmpty()) {
+                        overlapping = new ArrayList<>();
+                    }
+                    overlapping.add(interval);
+                }
+            }
+            conflicts.add(overlapping);
+        }
+        return conflicts;
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.booksmart.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds free intervals of a given length near a desired start.
+ * Busy intervals are rounded out to whole reservation slots, merged, and swept
+ * against the open windows in one pass, so a search costs O(n log n) in the
+ * bookings of the window however far it spans. Each free gap offers at most one
+ * suggestion, its placement closest to the desired start, so alternatives are
+ * genuinely different rather than the same gap shifted by a slot.
+ */
+public final class SlotFinder {
+
+    /**
+     * A time range [startMillis, endMillis)
+     */
+    public static final class Window {
+        private final long startMillis;
+        private final long endMillis;
+
+        public Window(long startMillis, long endMillis) {
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+        }
+
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        public long getEndMillis() {
+            return endMillis;
+        }
+    }
+
+    /**
+     * A suggested free interval in a space
+     */
+    public static final class Slot {
+        private final String spaceType;
+        private final long startMillis;
+        private final long endMillis;
+        private final long distanceMillis;
+
+        Slot(String spaceType, long startMillis, long endMillis, long distanceMillis) {
+            this.spaceType = spaceType;
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+            this.distanceMillis = distanceMillis;
+        }
+
+        public String getSpaceType() {
+            return spaceType;
+        }
+
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        public long getEndMillis() {
+            return endMillis;
+        }
+
+        /**
+         * How far the start is from the desired start
+         */
+        public long getDistanceMillis() {
+            return distanceMillis;
+        }
+
+        @Override
+        public String toString() {
+            return spaceType + "[" + startMillis + ", " + endMillis + ")";
+        }
+    }
+
+    private static final Comparator<Slot> NEAREST_FIRST = (a, b) -> {
+        int byDistance = Long.compare(a.distanceMillis, b.distanceMillis);
+        return byDistance != 0 ? byDistance : Long.compare(a.startMillis, b.startMillis);
+    };
+
+    private final long stepMillis;
+
+    /**
+     * Suggestions start on the reservation slot grid
+     */
+    public SlotFinder() {
+        this(BookingSlots.SLOT_MILLIS);
+    }
+
+    /**
+     * @param stepMillis Grid suggestions start on; busy time is rounded out to it
+     */
+    public SlotFinder(long stepMillis) {
+        this.stepMillis = stepMillis;
+    }
+
+    /**
+     * Finds the free intervals in one space nearest to a desired start
+     *
+     * @param busy         Active bookings of the space, in any order
+     * @param open         Times the space can be booked, sorted and disjoint
+     * @param desiredStart Start the user asked for
+     * @param duration     Length of the wanted interval
+     * @param limit        Maximum number of suggestions
+     * @return Up to limit slots, nearest first
+     */
+    public List<Slot> nearest(String spaceType, List<BookedInterval> busy, List<Window> open,
+            long desiredStart, long duration, int limit) {
+        List<Slot> slots = new ArrayList<>();
+        if (duration <= 0 || limit <= 0) {
+            return slots;
+        }
+        long[] merged = mergeBusy(busy);
+        int busyCount = merged.length / 2;
+        int b = 0;
+        for (Window window : open) {
+            long cursor = window.startMillis;
+            // Skip busy time that ends before this window
+            while (b < busyCount && merged[2 * b + 1] <= cursor) {
+                b++;
+            }
+            int i = b;
+            while (cursor < window.endMillis) {
+                long gapEnd = window.endMillis;
+                if (i < busyCount && merged[2 * i] < gapEnd) {
+                    gapEnd = Math.max(cursor, merged[2 * i]);
+                }
+                addPlacement(spaceType, cursor, gapEnd, desiredStart, duration, slots);
+                if (i >= busyCount || merged[2 * i] >= window.endMillis) {
+                    break;
+                }
+                cursor = merged[2 * i + 1];
+                i++;
+            }
+        }
+        Collections.sort(slots, NEAREST_FIRST);
+        return slots.size() > limit ? new ArrayList<>(slots.subList(0, limit)) : slots;
+    }
+
+    /**
+     * Finds the free interval nearest to the desired start in each space
+     *
+     * @param busyBySpace Active bookings per space; every key is searched
+     * @return At most one slot per space, nearest first
+     */
+    public List<Slot> acrossSpaces(Map<String, List<BookedInterval>> busyBySpace, List<Window> open,
+            long desiredStart, long duration) {
+        List<Slot> slots = new ArrayList<>();
+        for (Map.Entry<String, List<BookedInterval>> space : busyBySpace.entrySet()) {
+            slots.addAll(nearest(space.getKey(), space.getValue(), open, desiredStart, duration, 1));
+        }
+        Collections.sort(slots, NEAREST_FIRST);
+        return slots;
+    }
+
+    /**
+     * As {@link #acrossSpaces(Map, List, long, long)}, with each space searched
+     * in its own open windows, e.g. its opening hours
+     *
+     * @param openBySpace Open windows per space; spaces without an entry are skipped
+     */
+    public List<Slot> acrossSpaces(Map<String, List<BookedInterval>> busyBySpace,
+            Map<String, List<Window>> openBySpace, long desiredStart, long duration) {
+        List<Slot> slots = new ArrayList<>();
+        for (Map.Entry<String, List<BookedInterval>> space : busyBySpace.entrySet()) {
+            List<Window> open = openBySpace.get(space.getKey());
+            if (open != null) {
+                slots.addAll(nearest(space.getKey(), space.getValue(), open, desiredStart, duration, 1));
+            }
+        }
+        Collections.sort(slots, NEAREST_FIRST);
+        return slots;
+    }
+
+    /**
+     * Rounds busy intervals out to the grid and merges overlaps
+     *
+     * @return Flattened [start0, end0, start1, end1, ...] in time order
+     */
+    private long[] mergeBusy(List<BookedInterval> busy) {
+        int n = busy.size();
+        long[] starts = new long[n];
+        long[] ends = new long[n];
+        List<BookedInterval> sorted = new ArrayList<>(busy);
+        Collections.sort(sorted, (x, y) -> Long.compare(x.getStartMillis(), y.getStartMillis()));
+        int count = 0;
+        for (BookedInterval interval : sorted) {
+            long start = floor(interval.getStartMillis());
+            long end = ceil(interval.getEndMillis());
+            if (count > 0 && start <= ends[count - 1]) {
+                ends[count - 1] = Math.max(ends[count - 1], end);
+            } else {
+                starts[count] = start;
+                ends[count] = end;
+                count++;
+            }
+        }
+        long[] merged = new long[2 * count];
+        for (int i = 0; i < count; i++) {
+            merged[2 * i] = starts[i];
+            merged[2 * i + 1] = ends[i];
+        }
+        return merged;
+    }
+
+    /**
+     * Adds the grid-aligned placement in [gapStart, gapEnd) closest to the desired start
+     */
+    private void addPlacement(String spaceType, long gapStart, long gapEnd, long desiredStart, long duration,
+            List<Slot> slots) {
+        long latest = gapEnd - duration;
+        long target = Math.max(gapStart, Math.min(desiredStart, latest));
+        long up = ceil(target);
+        long down = floor(target);
+        boolean upFits = up >= gapStart && up <= latest;
+        boolean downFits = down >= gapStart && down <= latest;
+        long start;
+        if (upFits && downFits) {
+            start = Math.abs(up - desiredStart) <= Math.abs(down - desiredStart) ? up : down;
+        } else if (upFits) {
+            start = up;
+        } else if (downFits) {
+            start = down;
+        } else {
+            return;
+        }
+        slots.add(new Slot(spaceType, start, start + duration, Math.abs(start - desiredStart)));
+    }
+
+    private long floor(long millis) {
+        return Math.floorDiv(millis, stepMillis) * stepMillis;
+    }
+
+    private long ceil(long millis) {
+        return -Math.floorDiv(-millis, stepMillis) * stepMillis;
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.booksmart.models;
+
+import com.example.booksmart.core.BookingTimeCodec;
+
+/**
+ * Model class representing a space booking.
+ * Contains booking details including space type, timing, and status.
+ * startMillis/endMillis are the canonical times; the formatted strings are kept
+ * for display and for records written before the numeric fields existed.
+ * Plain Java so it can be shared with booking-core and benchmarked off-device;
+ * every public getter is a Firebase property.
+ * version counts edits so a stale edit can be rejected by the database rules;
+ * it is 0 on records written before it existed.
+ */
+public class Booking {
+    private String bookingId;
+    private String userId;
+    private String spaceType;
+    private String userEmail;
+    private String startTime;
+    private String endTime;
+    private long startMillis;
+    private long endMillis;
+    private String timeZoneId;
+    private String status;
+    private long version;
+
+    /**
+     * Required empty constructor for Firebase deserialization
+     */
+    public Booking() {
+    }
+
+    /**
+     * Creates a new booking with specified parameters
+     * 
+     * @param userId    User who created the booking
+     * @param spaceType Type of space booked
+     * @param userEmail User's email
+     * @param startTime Booking start time
+     * @param endTime   Booking end time
+     */
+    public Booking(String userId, String spaceType, String userEmail, String startTime, String endTime) {
+        this.userId = userId;
+        this.spaceType = spaceType;
+        this.userEmail = userEmail;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.status = "pending";
+    }
+
+    /**
+     * Creates a new booking with canonical epoch times
+     *
+     * @param userId      User who created the booking
+     * @param spaceType   Type of space booked
+     * @param userEmail   User's email
+     * @param startMillis Booking start in epoch milliseconds
+     * @param endMillis   Booking end in epoch milliseconds
+     * @param timeZoneId  Time zone the booking was made in
+     */
+    public Booking(String userId, String spaceType, String userEmail, long startMillis, long endMillis,
+            String timeZoneId) {
+        this(userId, spaceType, userEmail,
+                formatLegacy(startMillis, timeZoneId), formatLegacy(endMillis, timeZoneId));
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+        this.timeZoneId = timeZoneId;
+        this.version = 1;
+    }
+
+    // Getters and Setters
+    public String getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(String bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getSpaceType() {
+        return spaceType;
+    }
+
+    public void setSpaceType(String spaceType) {
+        this.spaceType = spaceType;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public void setUserEmail(String userEmail) {
+        this.userEmail = userEmail;
+    }
+
+    public String getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(String startTime) {
+        this.startTime = startTime;
+    }
+
+    public String getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(String endTime) {
+        this.endTime = endTime;
+    }
+
+    /**
+     * Returns the start time in milliseconds, parsing the legacy string only
+     * for records that have not been migrated yet
+     *
+     * @return Start time in milliseconds, or 0 if parsing fails
+     */
+    public long getStartMillis() {
+        return startMillis > 0 ? startMillis : parseLegacy(startTime, timeZoneId);
+    }
+
+    public void setStartMillis(long startMillis) {
+        this.startMillis = startMillis;
+    }
+
+    /**
+     * Returns the end time in milliseconds, parsing the legacy string only
+     * for records that have not been migrated yet
+     *
+     * @return End time in milliseconds, or 0 if parsing fails
+     */
+    public long getEndMillis() {
+        return endMillis > 0 ? endMillis : parseLegacy(endTime, timeZoneId);
+    }
+
+    public void setEndMillis(long endMillis) {
+        this.endMillis = endMillis;
+    }
+
+    public String getTimeZoneId() {
+        return timeZoneId;
+    }
+
+    public void setTimeZoneId(String timeZoneId) {
+        this.timeZoneId = timeZoneId;
+    }
+
+    /**
+     * Updates both the canonical and the display times
+     */
+    public void setTimes(long startMillis, long endMillis, String timeZoneId) {
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+        this.timeZoneId = timeZoneId;
+        this.startTime = formatLegacy(startMillis, timeZoneId);
+        this.endTime = formatLegacy(endMillis, timeZoneId);
+    }
+
+    /**
+     * Whether the numeric time fields have been populated
+     */
+    public boolean hasEpochTimes() {
+        return startMillis > 0 && endMillis > 0;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Parses a legacy "yyyy-MM-dd HH:mm" string
+     *
+     * @param timeZoneId Zone to interpret the string in, device default if null
+     * @return Epoch milliseconds, or 0 if the string cannot be parsed
+     */
+    public static long parseLegacy(String value, String timeZoneId) {
+        long millis = BookingTimeCodec.forZoneId(timeZoneId).parseDateTime(value);
+        return millis == BookingTimeCodec.INVALID ? 0 : millis;
+    }
+
+    private static String formatLegacy(long millis, String timeZoneId) {
+        return BookingTimeCodec.forZoneId(timeZoneId).formatDateTime(millis);
+    }
+}
\ No newline at end of file
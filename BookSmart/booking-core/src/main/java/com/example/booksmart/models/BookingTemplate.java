@@ -1,8 +1,16 @@
 package com.example.booksmart.models;
 
+import com.example.booksmart.core.BookingTimeCodec;
+import com.example.booksmart.core.Recurrence;
+
+import java.util.TimeZone;
+
 /**
  * Model class representing a booking template.
  * Templates allow users to save and reuse common booking configurations.
+ * Because a template has no date, startMillis/endMillis are offsets from local
+ * midnight in the template's time zone. A template may also repeat, in which
+ * case recurrence holds an RRULE understood by {@link Recurrence}.
  */
 public class BookingTemplate {
     private String templateId;
@@ -11,6 +19,10 @@ public class BookingTemplate {
     private String spaceType;
     private String startTime;
     private String endTime;
+    private long startMillis;
+    private long endMillis;
+    private String timeZoneId;
+    private String recurrence;
 
     /**
      * Required empty constructor for Firebase deserialization
@@ -34,6 +46,9 @@ public class BookingTemplate {
         this.spaceType = spaceType;
         this.startTime = startTime;
         this.endTime = endTime;
+        this.startMillis = parseTimeOfDay(startTime);
+        this.endMillis = parseTimeOfDay(endTime);
+        this.timeZoneId = TimeZone.getDefault().getID();
     }
 
     // Getters and Setters
@@ -84,4 +99,57 @@ public class BookingTemplate {
     public void setEndTime(String endTime) {
         this.endTime = endTime;
     }
-}
\ No newline at end of file
+
+    /**
+     * Start offset from midnight, falling back to the "HH:mm" string for
+     * templates saved before the numeric fields existed
+     */
+    public long getStartMillis() {
+        return startMillis > 0 ? startMillis : parseTimeOfDay(startTime);
+    }
+
+    public void setStartMillis(long startMillis) {
+        this.startMillis = startMillis;
+    }
+
+    /**
+     * End offset from midnight, falling back to the "HH:mm" string for
+     * templates saved before the numeric fields existed
+     */
+    public long getEndMillis() {
+        return endMillis > 0 ? endMillis : parseTimeOfDay(endTime);
+    }
+
+    public void setEndMillis(long endMillis) {
+        this.endMillis = endMillis;
+    }
+
+    public String getTimeZoneId() {
+        return timeZoneId;
+    }
+
+    public void setTimeZoneId(String timeZoneId) {
+        this.timeZoneId = timeZoneId;
+    }
+
+    /**
+     * Repeat rule in RRULE syntax, or null for a one-off template
+     */
+    public String getRecurrence() {
+        return recurrence;
+    }
+
+    public void setRecurrence(String recurrence) {
+        this.recurrence = recurrence;
+    }
+
+    /**
+     * Converts "HH:mm" to milliseconds since midnight
+     *
+     * @return Offset in milliseconds, or 0 if the value is malformed
+     */
+    public static long parseTimeOfDay(String value) {
+        long offset = BookingTimeCodec.parseTimeOfDay(value);
+        return offset == BookingTimeCodec.INVALID ? 0 : offset;
+    }
+}
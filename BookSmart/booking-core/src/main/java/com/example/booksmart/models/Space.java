@@ -0,0 +1,121 @@
+package com.example.booksmart.models;
+
+import com.example.booksmart.core.OpeningHours;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A bookable space, as stored under spaces/{id}.
+ * The id is the space type written on bookings and used as the key of the
+ * availability and slot buckets, so it never changes; the name is what users see.
+ * Opening hours are minutes from local midnight and apply every day;
+ * 0 to 1440 means always open.
+ */
+public class Space {
+    private String id;
+    private String name;
+    private String description;
+    private int capacity;
+    private List<String> features = new ArrayList<>();
+    private int openMinute = 0;
+    private int closeMinute = OpeningHours.MINUTES_PER_DAY;
+    private int position;
+
+    /**
+     * Required empty constructor for Firebase deserialization
+     */
+    public Space() {
+    }
+
+    public Space(String id, String name, String description, int capacity, List<String> features,
+            int openMinute, int closeMinute, int position) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.capacity = capacity;
+        this.features = features;
+        this.openMinute = openMinute;
+        this.closeMinute = closeMinute;
+        this.position = position;
+    }
+
+    /**
+     * Opening hours of the space; malformed hours count as always open
+     * rather than locking the space
+     */
+    public OpeningHours openingHours() {
+        if (openMinute < 0 || closeMinute > OpeningHours.MINUTES_PER_DAY || openMinute >= closeMinute) {
+            return OpeningHours.ALWAYS;
+        }
+        return new OpeningHours(openMinute, closeMinute);
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public List<String> getFeatures() {
+        return features;
+    }
+
+    public void setFeatures(List<String> features) {
+        this.features = features;
+    }
+
+    public int getOpenMinute() {
+        return openMinute;
+    }
+
+    public void setOpenMinute(int openMinute) {
+        this.openMinute = openMinute;
+    }
+
+    public int getCloseMinute() {
+        return closeMinute;
+    }
+
+    public void setCloseMinute(int closeMinute) {
+        this.closeMinute = closeMinute;
+    }
+
+    /**
+     * Where the space is listed, lowest first
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    public void setPosition(int position) {
+        this.position = position;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.booksmart.core;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link BookingDays}.
+ */
+public class BookingDaysTest {
+    private static final long HOUR = 60 * 60 * 1000;
+    private static final long DAY = 24 * HOUR;
+
+    @Test
+    public void dayKeys_endIsExclusive() {
+        assertEquals(Arrays.asList("1970-01-01"), BookingDays.dayKeys(9 * HOUR, DAY));
+    }
+
+    @Test
+    public void dayKeys_spansMidnight() {
+        assertEquals(Arrays.asList("1970-01-01", "1970-01-02"),
+                BookingDays.dayKeys(22 * HOUR, DAY + 2 * HOUR));
+    }
+
+    @Test
+    public void dayKeys_emptyForEmptyInterval() {
+        assertTrue(BookingDays.dayKeys(DAY, DAY).isEmpty());
+    }
+}
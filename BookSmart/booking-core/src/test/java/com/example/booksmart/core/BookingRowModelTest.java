@@ -0,0 +1,62 @@
+package com.example.booksmart.core;
+
+import com.example.booksmart.models.Booking;
+
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link BookingRowModel}.
+ */
+public class BookingRowModelTest {
+    private static final BookingTimeCodec UTC = BookingTimeCodec.create(TimeZone.getTimeZone("UTC"), Locale.US);
+    // 2023-11-14 21:00 UTC
+    private static final long START = 1_699_995_600_000L;
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    @Test
+    public void of_formatsConfirmedBooking() {
+        Booking booking = new Booking("alice", "Study Room", "alice@example.com", START, START + HOUR, "UTC");
+        booking.setStatus("confirmed");
+
+        BookingRowModel model = BookingRowModel.of(booking, UTC);
+
+        assertEquals("Study Room", model.getSpaceText());
+        assertEquals("CONFIRMED", model.getStatusText());
+        assertEquals(BookingRowModel.Status.CONFIRMED, model.getStatus());
+        assertEquals(UTC.formatDisplayDate(START), model.getDateText());
+        assertEquals(UTC.formatTime(START) + " - " + UTC.formatTime(START + HOUR), model.getTimeText());
+        assertTrue(model.isCancellable());
+    }
+
+    @Test
+    public void of_fallsBackForMissingFields() {
+        BookingRowModel model = BookingRowModel.of(new Booking(), UTC);
+
+        assertEquals("N/A", model.getSpaceText());
+        assertEquals("PENDING", model.getStatusText());
+        assertEquals(BookingRowModel.Status.PENDING, model.getStatus());
+        assertEquals("Date not set", model.getDateText());
+        assertFalse(model.isCancellable());
+    }
+
+    @Test
+    public void isFor_tracksVersionAndStatus() {
+        Booking booking = new Booking("alice", "Study Room", "alice@example.com", START, START + HOUR, "UTC");
+        booking.setStatus("confirmed");
+        BookingRowModel model = BookingRowModel.of(booking, UTC);
+        assertTrue(model.isFor(booking));
+
+        booking.setStatus("cancelled");
+        assertFalse(model.isFor(booking));
+
+        BookingRowModel cancelled = BookingRowModel.of(booking, UTC);
+        booking.setVersion(booking.getVersion() + 1);
+        assertFalse(cancelled.isFor(booking));
+        assertFalse(cancelled.isFor(new Booking()));
+    }
+}
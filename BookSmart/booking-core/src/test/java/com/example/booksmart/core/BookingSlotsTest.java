@@ -0,0 +1,71 @@
+package com.example.booksmart.core;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link BookingSlots}.
+ */
+public class BookingSlotsTest {
+    private static final long MINUTE = 60 * 1000;
+    private static final long HOUR = 60 * MINUTE;
+
+    @Test
+    public void slotKeys_coversPartialGranules() {
+        assertEquals(Arrays.asList("1970-01-01/36", "1970-01-01/37"),
+                BookingSlots.slotKeys(9 * HOUR + 5 * MINUTE, 9 * HOUR + 20 * MINUTE));
+    }
+
+    @Test
+    public void slotKeys_backToBackBookingsShareNoSlot() {
+        assertEquals(Arrays.asList("1970-01-01/00", "1970-01-01/01"), BookingSlots.slotKeys(0, 30 * MINUTE));
+        assertEquals(Arrays.asList("1970-01-01/02"), BookingSlots.slotKeys(30 * MINUTE, 45 * MINUTE));
+    }
+
+    @Test
+    public void slotKeys_backToBackAtOddMinutesWouldShareASlot() {
+        // 09:00-09:50 and 09:50-10:30 do not overlap, yet both touch 09:45-10:00
+        List<String> first = BookingSlots.slotKeys(9 * HOUR, 9 * HOUR + 50 * MINUTE);
+        List<String> second = BookingSlots.slotKeys(9 * HOUR + 50 * MINUTE, 10 * HOUR + 30 * MINUTE);
+        assertFalse(Collections.disjoint(first, second));
+        assertFalse(BookingSlots.isAligned(9 * HOUR, 9 * HOUR + 50 * MINUTE));
+        assertFalse(BookingSlots.isAligned(9 * HOUR + 50 * MINUTE, 10 * HOUR + 30 * MINUTE));
+    }
+
+    @Test
+    public void snap_keepsBackToBackBookingsApartAtOddMinutes() {
+        long boundary = BookingSlots.snap(9 * HOUR + 50 * MINUTE);
+        assertEquals(9 * HOUR + 45 * MINUTE, boundary);
+        long firstStart = BookingSlots.snap(9 * HOUR + 2 * MINUTE);
+        long secondEnd = BookingSlots.snap(10 * HOUR + 38 * MINUTE);
+        assertEquals(9 * HOUR, firstStart);
+        assertEquals(10 * HOUR + 45 * MINUTE, secondEnd);
+        assertTrue(BookingSlots.isAligned(firstStart, boundary));
+        assertTrue(BookingSlots.isAligned(boundary, secondEnd));
+        assertTrue(Collections.disjoint(BookingSlots.slotKeys(firstStart, boundary),
+                BookingSlots.slotKeys(boundary, secondEnd)));
+    }
+
+    @Test
+    public void slotKeys_rollsOverAtUtcMidnight() {
+        assertEquals(Arrays.asList("1970-01-01/95", "1970-01-02/00"),
+                BookingSlots.slotKeys(23 * HOUR + 45 * MINUTE, 24 * HOUR + 15 * MINUTE));
+    }
+
+    @Test
+    public void entry_readsBackAndBareIdsReadAsVersionZero() {
+        Object stamped = BookingSlots.entry("b1", "u1", 3, 1000);
+        assertEquals("b1", BookingSlots.bookingIdOf(stamped));
+        assertEquals(3, BookingSlots.versionOf(stamped));
+        assertEquals(1000, BookingSlots.claimedAtOf(stamped));
+
+        assertEquals("b2", BookingSlots.bookingIdOf("b2"));
+        assertEquals(0, BookingSlots.versionOf("b2"));
+        assertNull(BookingSlots.bookingIdOf(null));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.booksmart.core;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link BookingTimeCodec}, checked against SimpleDateFormat.
+ */
+public class BookingTimeCodecTest {
+    private static final String[] ZONES = {"UTC", "Europe/London", "America/New_York", "Asia/Kolkata"};
+
+    @Test
+    public void parseAndFormat_matchSimpleDateFormat() throws Exception {
+        Random random = new Random(42);
+        for (String zone : ZONES) {
+            TimeZone timeZone = TimeZone.getTimeZone(zone);
+            BookingTimeCodec codec = BookingTimeCodec.create(timeZone, Locale.US);
+            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.US);
+            sdf.setTimeZone(timeZone);
+
+            for (int i = 0; i < 5000; i++) {
+                // Minute-aligned instants between 2000 and 2040
+                long millis = (946684800L + random.nextInt(40 * 365 * 24 * 60) * 60L) * 1000L;
+                String expected = sdf.format(new Date(millis));
+                assertEquals(expected, codec.formatDateTime(millis));
+                assertEquals(sdf.parse(expected).getTime(), codec.parseDateTime(expected));
+            }
+        }
+    }
+
+    @Test
+    public void formatDisplayDate_usesShortMonthNames() {
+        BookingTimeCodec codec = BookingTimeCodec.create(TimeZone.getTimeZone("UTC"), Locale.US);
+        long millis = codec.parseDateTime("2024-03-05 14:30");
+        assertEquals("Mar 05, 2024", codec.formatDisplayDate(millis));
+        assertEquals("14:30", codec.formatTime(millis));
+        assertEquals("2024-03-05", codec.formatDate(millis));
+    }
+
+    @Test
+    public void parse_rejectsMalformedInput() {
+        BookingTimeCodec codec = BookingTimeCodec.create(TimeZone.getTimeZone("UTC"), Locale.US);
+        assertEquals(BookingTimeCodec.INVALID, codec.parseDateTime(null));
+        assertEquals(BookingTimeCodec.INVALID, codec.parseDateTime("2024-02-30 10:00"));
+        assertEquals(BookingTimeCodec.INVALID, codec.parseDateTime("2024-01-01T10:00"));
+        assertEquals(BookingTimeCodec.INVALID, codec.parseDateTime("2024-01-01 24:00"));
+        assertEquals(BookingTimeCodec.INVALID, BookingTimeCodec.parseTimeOfDay("9:00"));
+        assertEquals(9 * 60 * 60 * 1000L, BookingTimeCodec.parseTimeOfDay("09:00"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.booksmart.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ConflictEngine}.
+ */
+public class ConflictEngineTest {
+    private static final long HOUR = 60 * 60 * 1000;
+
+    private ConflictEngine engine;
+
+    @Before
+    public void setUp() {
+        engine = new ConflictEngine();
+        engine.put(new BookedInterval("a", "Conference Room", 9 * HOUR, 10 * HOUR));
+        engine.put(new BookedInterval("b", "Conference Room", 11 * HOUR, 13 * HOUR));
+        engine.put(new BookedInterval("c", "Study Room", 9 * HOUR, 17 * HOUR));
+    }
+
+    @Test
+    public void findConflicts_returnsEveryOverlapInStartOrder() {
+        List<BookedInterval> conflicts = engine.findConflicts("Conference Room", 9 * HOUR, 12 * HOUR, null);
+        assertEquals(2, conflicts.size());
+        assertEquals("a", conflicts.get(0).getBookingId());
+        assertEquals("b", conflicts.get(1).getBookingId());
+    }
+
+    @Test
+    public void findConflicts_backToBackIsFree() {
+        assertTrue(engine.isFree("Conference Room", 10 * HOUR, 11 * HOUR, null));
+    }
+
+    @Test
+    public void findConflicts_skipsExcludedBooking() {
+        List<BookedInterval> conflicts = engine.findConflicts("Conference Room", 9 * HOUR, 10 * HOUR, "a");
+        assertTrue(conflicts.isEmpty());
+    }
+
+    @Test
+    public void put_replacesExistingInterval() {
+        engine.put(new BookedInterval("a", "Conference Room", 14 * HOUR, 15 * HOUR));
+        assertTrue(engine.isFree("Conference Room", 9 * HOUR, 10 * HOUR, null));
+        assertFalse(engine.isFree("Conference Room", 14 * HOUR, 14 * HOUR + 1, null));
+    }
+
+    @Test
+    public void remove_freesTheSlot() {
+        assertTrue(engine.remove("c"));
+        assertTrue(engine.isFree("Study Room", 9 * HOUR, 17 * HOUR, null));
+        assertFalse(engine.remove("c"));
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.booksmart.core;
+
+import com.example.booksmart.models.Booking;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link InMemoryBookingRepository}.
+ */
+public class InMemoryBookingRepositoryTest {
+    private static final long MINUTE = 60 * 1000;
+    private static final long HOUR = 60 * MINUTE;
+
+    private InMemoryBookingRepository repository;
+
+    @Before
+    public void setUp() {
+        repository = new InMemoryBookingRepository();
+    }
+
+    @Test
+    public void create_rejectsOverlap() {
+        Booking first = create(booking("alice", 9, 10)).result;
+        Recorder<Booking> second = create(booking("bob", 9, 11));
+
+        assertEquals(BookingException.Reason.SLOT_TAKEN, second.error.getReason());
+        assertEquals(first.getBookingId(), second.error.getConflictingBookingId());
+    }
+
+    @Test
+    public void reschedule_rejectsStaleVersion() {
+        Booking created = create(booking("alice", 9, 10)).result;
+        Recorder<Booking> moved = new Recorder<>();
+        repository.reschedule(created, 11 * HOUR, 12 * HOUR, "UTC", moved);
+        assertEquals(2, moved.result.getVersion());
+
+        Recorder<Booking> stale = new Recorder<>();
+        repository.reschedule(created, 13 * HOUR, 14 * HOUR, "UTC", stale);
+        assertEquals(BookingException.Reason.STALE_VERSION, stale.error.getReason());
+    }
+
+    @Test
+    public void create_refusesTimesOffTheSlotGrid() {
+        Booking oddEnd = booking("alice", 9, 10);
+        oddEnd.setTimes(9 * HOUR, 9 * HOUR + 50 * MINUTE, "UTC");
+
+        assertEquals(BookingException.Reason.OFF_GRID, create(oddEnd).error.getReason());
+        assertEquals(0, repository.size());
+    }
+
+    @Test
+    public void create_allowsBackToBackOnTheSlotGrid() {
+        Booking first = booking("alice", 9, 10);
+        first.setTimes(9 * HOUR, 9 * HOUR + 45 * MINUTE, "UTC");
+        Booking second = booking("bob", 10, 11);
+        second.setTimes(9 * HOUR + 45 * MINUTE, 10 * HOUR + 30 * MINUTE, "UTC");
+
+        assertNotNull(create(first).result);
+        assertNotNull(create(second).result);
+    }
+
+    @Test
+    public void create_refusesTimesOutsideOpeningHours() {
+        repository.setOpeningHours("Study Room", new OpeningHours(8 * 60, 20 * 60));
+
+        assertNotNull(create(booking("alice", 8, 9)).result);
+        assertEquals(BookingException.Reason.CLOSED, create(booking("bob", 19, 21)).error.getReason());
+    }
+
+    @Test
+    public void cancel_rejectsStaleVersion() {
+        Booking created = create(booking("alice", 9, 10)).result;
+        Recorder<Booking> moved = new Recorder<>();
+        repository.reschedule(created, 11 * HOUR, 12 * HOUR, "UTC", moved);
+
+        Recorder<Booking> stale = new Recorder<>();
+        repository.cancel(created, stale);
+        assertEquals(BookingException.Reason.STALE_VERSION, stale.error.getReason());
+
+        Recorder<Booking> cancelled = new Recorder<>();
+        repository.cancel(moved.result, cancelled);
+        assertEquals(3, cancelled.result.getVersion());
+    }
+
+    @Test
+    public void cancel_freesTheTime() {
+        Booking created = create(booking("alice", 9, 10)).result;
+        repository.cancel(created, new Recorder<>());
+
+        Recorder<List<BookedInterval>> conflicts = new Recorder<>();
+        repository.findConflicts("Study Room", 9 * HOUR, 10 * HOUR, null, conflicts);
+        assertTrue(conflicts.result.isEmpty());
+
+        Recorder<List<Booking>> owned = new Recorder<>();
+        repository.listForUser("alice", owned);
+        assertEquals("cancelled", owned.result.get(0).getStatus());
+    }
+
+    @Test
+    public void createAll_allOrNothingWritesNothingOnConflict() {
+        Booking existing = create(booking("alice", 9, 10)).result;
+        Recorder<BookingBatch> batch = new Recorder<>();
+        repository.createAll(Arrays.asList(booking("bob", 11, 12), booking("bob", 9, 10)),
+                BookingBatch.Mode.ALL_OR_NOTHING, batch);
+
+        List<BookingBatch.Outcome> outcomes = batch.result.getOutcomes();
+        assertEquals(BookingException.Reason.BATCH_ABORTED, outcomes.get(0).getError().getReason());
+        assertEquals(existing.getBookingId(), outcomes.get(1).getError().getConflictingBookingId());
+        assertFalse(batch.result.isComplete());
+        assertEquals(1, repository.size());
+    }
+
+    @Test
+    public void createAll_bestEffortWritesWhatIsFree() {
+        Booking hall = booking("bob", 9, 12);
+        hall.setSpaceType("Event Hall");
+        Recorder<BookingBatch> batch = new Recorder<>();
+        // Two Study Room requests overlap each other; the later one loses
+        repository.createAll(Arrays.asList(hall, booking("bob", 9, 10), booking("bob", 9, 11)),
+                BookingBatch.Mode.BEST_EFFORT, batch);
+
+        List<BookingBatch.Outcome> outcomes = batch.result.getOutcomes();
+        assertTrue(outcomes.get(0).isBooked());
+        assertTrue(outcomes.get(1).isBooked());
+        assertEquals(outcomes.get(1).getBooking().getBookingId(),
+                outcomes.get(2).getError().getConflictingBookingId());
+        assertEquals(2, batch.result.getBooked().size());
+        assertEquals(2, repository.size());
+    }
+
+    @Test
+    public void injectedFailuresLeaveNoTrace() throws InterruptedException {
+        repository.setLatency(1, 2);
+        repository.setFailureRate(1);
+        CountDownLatch done = new CountDownLatch(1);
+        final BookingException[] error = {null};
+        repository.create(booking("alice", 9, 10), new BookingRepository.Callback<Booking>() {
+            @Override
+            public void onSuccess(Booking result) {
+                done.countDown();
+            }
+
+            @Override
+            public void onFailure(BookingException e) {
+                error[0] = e;
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        repository.shutdown();
+
+        assertEquals(BookingException.Reason.UNAVAILABLE, error[0].getReason());
+        assertEquals(0, repository.size());
+    }
+
+    private static Booking booking(String userId, int startHour, int endHour) {
+        Booking booking = new Booking(userId, "Study Room", userId + "@example.com",
+                startHour * HOUR, endHour * HOUR, "UTC");
+        booking.setStatus("confirmed");
+        return booking;
+    }
+
+    private Recorder<Booking> create(Booking booking) {
+        Recorder<Booking> recorder = new Recorder<>();
+        repository.create(booking, recorder);
+        return recorder;
+    }
+
+    /**
+     * Captures the answer of the latency-free repository, which arrives before the call returns
+     */
+    private static final class Recorder<T> implements BookingRepository.Callback<T> {
+        T result;
+        BookingException error;
+
+        @Override
+        public void onSuccess(T result) {
+            this.result = result;
+        }
+
+        @Override
+        public void onFailure(BookingException error) {
+            this.error = error;
+        }
+    }
+}
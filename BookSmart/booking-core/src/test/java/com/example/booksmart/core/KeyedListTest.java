@@ -0,0 +1,161 @@
+package com.example.booksmart.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link KeyedList}.
+ */
+public class KeyedListTest {
+
+    /**
+     * Replays the granular events onto a plain list, the way an adapter would
+     */
+    private static final class Mirror implements KeyedList.Listener {
+        final KeyedList<String> source;
+        final List<String> rows = new ArrayList<>();
+        final List<String> removedKeys = new ArrayList<>();
+        int changes;
+        int moves;
+
+        Mirror(KeyedList<String> source) {
+            this.source = source;
+            source.addListener(this);
+        }
+
+        @Override
+        public void onInserted(int position) {
+            rows.add(position, source.get(position));
+        }
+
+        @Override
+        public void onChanged(int position) {
+            rows.set(position, source.get(position));
+            changes++;
+        }
+
+        @Override
+        public void onRemoved(int position, String key) {
+            rows.remove(position);
+            removedKeys.add(key);
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            rows.add(toPosition, rows.remove(fromPosition));
+            moves++;
+        }
+    }
+
+    @Test
+    public void filteredValuesStayHiddenButKeepTheirPlace() {
+        KeyedList<String> list = new KeyedList<>(value -> !value.startsWith("x"), null);
+        Mirror mirror = new Mirror(list);
+        list.onAdded("a", "a1", null);
+        list.onAdded("b", "x-b", "a");
+        list.onAdded("c", "c1", "b");
+        assertEquals(Arrays.asList("a1", "c1"), mirror.rows);
+        assertEquals(-1, list.positionOf("b"));
+
+        // b becomes visible between a and c
+        list.onChanged("b", "b1");
+        assertEquals(Arrays.asList("a1", "b1", "c1"), mirror.rows);
+        assertEquals(1, list.positionOf("b"));
+
+        list.onChanged("a", "x-a");
+        assertEquals(Arrays.asList("b1", "c1"), mirror.rows);
+    }
+
+    @Test
+    public void equalContentIsNotRebound() {
+        KeyedList<String> list = new KeyedList<>(null, String::equals);
+        Mirror mirror = new Mirror(list);
+        list.onAdded("a", "a1", null);
+        list.onChanged("a", "a1");
+        assertEquals(0, mirror.changes);
+        list.onChanged("a", "a2");
+        assertEquals(1, mirror.changes);
+    }
+
+    @Test
+    public void removalsNameTheKeyThatLeft() {
+        KeyedList<String> list = new KeyedList<>(value -> !value.startsWith("x"), null);
+        Mirror mirror = new Mirror(list);
+        list.onAdded("a", "a1", null);
+        list.onAdded("b", "b1", "a");
+        list.onChanged("b", "x-b");
+        list.onRemoved("a");
+        assertEquals(Arrays.asList("b", "a"), mirror.removedKeys);
+    }
+
+    @Test
+    public void appendedPagesStayBelowLiveChildren() {
+        KeyedList<String> list = new KeyedList<>();
+        Mirror mirror = new Mirror(list);
+        list.onAdded("u1", "u1", null);
+        list.append("h1", "h1");
+        list.append("h2", "h2");
+        // A new live child after the last live one lands before the appended page
+        list.onAdded("u2", "u2", "u1");
+        assertEquals(Arrays.asList("u1", "u2", "h1", "h2"), mirror.rows);
+    }
+
+    @Test
+    public void confirmingSeededKeysInOrderMovesNothing() {
+        KeyedList<String> list = new KeyedList<>(null, String::equals);
+        Mirror mirror = new Mirror(list);
+        for (String key : Arrays.asList("a", "b", "c")) {
+            list.append(key, key);
+        }
+        String previousKey = null;
+        for (String key : Arrays.asList("a", "b", "c")) {
+            list.onAdded(key, key, previousKey);
+            previousKey = key;
+        }
+        assertEquals(Arrays.asList("a", "b", "c"), mirror.rows);
+        assertEquals(0, mirror.moves);
+        assertEquals(0, mirror.changes);
+    }
+
+    @Test
+    public void randomDeltasMatchTheSourceOrder() {
+        Random random = new Random(1);
+        KeyedList<String> list = new KeyedList<>(value -> value.hashCode() % 3 != 0, null);
+        Mirror mirror = new Mirror(list);
+        List<String> order = new ArrayList<>();
+
+        for (int step = 0; step < 5000; step++) {
+            int op = random.nextInt(4);
+            if (op == 0 || order.isEmpty()) {
+                String key = "k" + step;
+                int at = random.nextInt(order.size() + 1);
+                list.onAdded(key, "v" + random.nextInt(100), at == 0 ? null : order.get(at - 1));
+                order.add(at, key);
+            } else if (op == 1) {
+                list.onChanged(order.get(random.nextInt(order.size())), "v" + random.nextInt(100));
+            } else if (op == 2) {
+                String key = order.remove(random.nextInt(order.size()));
+                int at = random.nextInt(order.size() + 1);
+                list.onMoved(key, at == 0 ? null : order.get(at - 1));
+                order.add(at, key);
+            } else {
+                list.onRemoved(order.remove(random.nextInt(order.size())));
+            }
+
+            List<String> expected = new ArrayList<>();
+            for (String key : order) {
+                String value = list.find(key);
+                if (value.hashCode() % 3 != 0) {
+                    expected.add(value);
+                }
+            }
+            assertEquals("step " + step, expected, mirror.rows);
+        }
+    }
+}
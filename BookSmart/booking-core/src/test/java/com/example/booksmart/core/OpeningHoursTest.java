@@ -0,0 +1,75 @@
+package com.example.booksmart.core;
+
+import com.example.booksmart.models.Space;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link OpeningHours}.
+ */
+public class OpeningHoursTest {
+    private static final long MINUTE = 60 * 1000L;
+    private static final long HOUR = 60 * MINUTE;
+    private static final TimeZone LONDON = TimeZone.getTimeZone("Europe/London");
+    private static final OpeningHours EIGHT_TO_EIGHT = new OpeningHours(8 * 60, 20 * 60);
+
+    @Test
+    public void covers_onlyRangesWithinOneDaysHours() {
+        long day = midnight(2024, Calendar.MARCH, 12);
+        assertTrue(EIGHT_TO_EIGHT.covers(day + 8 * HOUR, day + 20 * HOUR, LONDON));
+        assertFalse(EIGHT_TO_EIGHT.covers(day + 7 * HOUR + 59 * MINUTE, day + 9 * HOUR, LONDON));
+        assertFalse(EIGHT_TO_EIGHT.covers(day + 19 * HOUR, day + 20 * HOUR + 1, LONDON));
+        // Spanning the night is never within one day's hours
+        assertFalse(EIGHT_TO_EIGHT.covers(day + 19 * HOUR, day + 33 * HOUR, LONDON));
+        assertTrue(OpeningHours.ALWAYS.covers(day + 19 * HOUR, day + 33 * HOUR, LONDON));
+    }
+
+    @Test
+    public void covers_keepsWallClockHoursAcrossDstChange() {
+        // Clocks go forward at 01:00 on 31 March 2024, so the day is 23 hours long
+        long day = midnight(2024, Calendar.MARCH, 31);
+        assertTrue(EIGHT_TO_EIGHT.covers(day + 7 * HOUR, day + 8 * HOUR, LONDON));
+        assertFalse(EIGHT_TO_EIGHT.covers(day + 6 * HOUR, day + 8 * HOUR, LONDON));
+    }
+
+    @Test
+    public void windows_clipToNowAndSkipClosedDays() {
+        long day = midnight(2024, Calendar.MARCH, 12);
+        List<SlotFinder.Window> windows = EIGHT_TO_EIGHT.windows(day + 12 * HOUR, 3, LONDON, day + 21 * HOUR);
+        assertEquals(2, windows.size());
+        assertEquals(day + 32 * HOUR, windows.get(0).getStartMillis());
+        assertEquals(day + 44 * HOUR, windows.get(0).getEndMillis());
+        assertEquals(day + 56 * HOUR, windows.get(1).getStartMillis());
+    }
+
+    @Test
+    public void windows_mergeWhenAlwaysOpen() {
+        long day = midnight(2024, Calendar.MARCH, 12);
+        List<SlotFinder.Window> windows = OpeningHours.ALWAYS.windows(day, 3, LONDON, day + HOUR);
+        assertEquals(1, windows.size());
+        assertEquals(day + HOUR, windows.get(0).getStartMillis());
+        assertEquals(day + 72 * HOUR, windows.get(0).getEndMillis());
+    }
+
+    @Test
+    public void space_treatsMalformedHoursAsAlwaysOpen() {
+        Space space = new Space("Lab", "Lab", "", 4, Collections.<String>emptyList(), 20 * 60, 8 * 60, 0);
+        assertTrue(space.openingHours().isAlwaysOpen());
+        space.setCloseMinute(22 * 60);
+        assertEquals("20:00-22:00", space.openingHours().toString());
+    }
+
+    private static long midnight(int year, int month, int dayOfMonth) {
+        Calendar calendar = Calendar.getInstance(LONDON);
+        calendar.clear();
+        calendar.set(year, month, dayOfMonth);
+        return calendar.getTimeInMillis();
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.booksmart.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link Recurrence} and {@link SeriesConflicts}.
+ */
+public class RecurrenceTest {
+    private static final long MINUTE = 60 * 1000L;
+    private static final long HOUR = 60 * MINUTE;
+    private static final TimeZone LONDON = TimeZone.getTimeZone("Europe/London");
+
+    @Test
+    public void parse_roundTripsSupportedRules() {
+        assertEquals("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE,SU;COUNT=6",
+                Recurrence.parse("RRULE:FREQ=WEEKLY;BYDAY=SU,MO,WE;INTERVAL=2;COUNT=6").toRule());
+        assertEquals("FREQ=DAILY;UNTIL=20240131", Recurrence.parse("FREQ=DAILY;UNTIL=20240131").toRule());
+        assertEquals("FREQ=DAILY;UNTIL=20240131T120000Z",
+                Recurrence.parse("FREQ=DAILY;UNTIL=20240131T120000Z").toRule());
+        assertFalse(Recurrence.parse("FREQ=DAILY").isBounded());
+    }
+
+    @Test
+    public void parse_rejectsUnsupportedRules() {
+        for (String rule : Arrays.asList("", "BYDAY=MO", "FREQ=MONTHLY", "FREQ=WEEKLY;BYDAY=1MO",
+                "FREQ=DAILY;COUNT=0", "FREQ=DAILY;COUNT=2;UNTIL=20240101", "FREQ=DAILY;BYHOUR=9")) {
+            try {
+                Recurrence.parse(rule);
+                fail("Accepted " + rule);
+            } catch (IllegalArgumentException expected) {
+                // Rejected as it should be
+            }
+        }
+    }
+
+    @Test
+    public void weekly_byDayHonoursIntervalAndCount() {
+        // Wednesday 2024-01-03; every other week on Monday and Wednesday
+        Recurrence rule = Recurrence.parse("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE;COUNT=4");
+
+        List<String> days = days(rule.occurrences(at(2024, 1, 3, 0), 9 * HOUR, 10 * HOUR, LONDON));
+
+        // The first week's Monday is before the series starts, so it is skipped
+        assertEquals(Arrays.asList("2024-01-03", "2024-01-15", "2024-01-17", "2024-01-29"), days);
+    }
+
+    @Test
+    public void daily_untilIsInclusiveAndWeekdaysFilter() {
+        // Friday 2024-01-05 to Tuesday 2024-01-09, weekdays only
+        Recurrence rule = Recurrence.parse("FREQ=DAILY;BYDAY=MO,TU,WE,TH,FR;UNTIL=20240109");
+
+        List<String> days = days(rule.occurrences(at(2024, 1, 5, 0), 9 * HOUR, 10 * HOUR, LONDON));
+
+        assertEquals(Arrays.asList("2024-01-05", "2024-01-08", "2024-01-09"), days);
+    }
+
+    @Test
+    public void occurrences_keepWallClockTimeAcrossDst() {
+        // Clocks go forward on Sunday 2024-03-31 in London
+        Recurrence rule = Recurrence.parse("FREQ=DAILY;COUNT=3");
+        List<Recurrence.Occurrence> occurrences =
+                list(rule.occurrences(at(2024, 3, 30, 0), 9 * HOUR, 10 * HOUR, LONDON));
+
+        assertEquals(at(2024, 3, 30, 9), occurrences.get(0).getStartMillis());
+        assertEquals(at(2024, 3, 31, 9), occurrences.get(1).getStartMillis());
+        assertEquals(at(2024, 4, 1, 9), occurrences.get(2).getStartMillis());
+        assertEquals(HOUR, occurrences.get(1).getEndMillis() - occurrences.get(1).getStartMillis());
+    }
+
+    @Test
+    public void occurrences_endingAtOrBeforeStartRunPastMidnight() {
+        Recurrence rule = Recurrence.parse("FREQ=DAILY;COUNT=1");
+        Recurrence.Occurrence occurrence =
+                rule.occurrences(at(2024, 1, 5, 0), 22 * HOUR, HOUR, LONDON).iterator().next();
+
+        assertEquals(at(2024, 1, 6, 1), occurrence.getEndMillis());
+    }
+
+    @Test
+    public void unboundedRulesStopScanningWhenNothingCanMatch() {
+        // Every 7 days from a Friday never lands on a Monday
+        Recurrence rule = Recurrence.parse("FREQ=DAILY;INTERVAL=7;BYDAY=MO");
+
+        assertFalse(rule.occurrences(at(2024, 1, 5, 0), 9 * HOUR, 10 * HOUR, LONDON).iterator().hasNext());
+    }
+
+    @Test
+    public void seriesConflicts_reportsOverlapsPerOccurrence() {
+        List<Recurrence.Occurrence> occurrences = list(Recurrence.parse("FREQ=DAILY;COUNT=4")
+                .occurrences(at(2024, 1, 1, 0), 9 * HOUR, 10 * HOUR, LONDON));
+        BookedInterval longBlock = new BookedInterval("block", "Study Room", at(2024, 1, 1, 8), at(2024, 1, 3, 9));
+        BookedInterval touching = new BookedInterval("touch", "Study Room", at(2024, 1, 4, 10), at(2024, 1, 4, 11));
+        BookedInterval late = new BookedInterval("late", "Study Room", at(2024, 1, 4, 9) + 30 * MINUTE,
+                at(2024, 1, 4, 12));
+
+        List<List<BookedInterval>> conflicts =
+                SeriesConflicts.find(occurrences, Arrays.asList(late, touching, longBlock));
+
+        assertEquals(Collections.singletonList(longBlock), conflicts.get(0));
+        assertEquals(Collections.singletonList(longBlock), conflicts.get(1));
+        // The block ends exactly when the third occurrence starts
+        assertTrue(conflicts.get(2).isEmpty());
+        assertEquals(Collections.singletonList(late), conflicts.get(3));
+    }
+
+    private static long at(int year, int month, int day, int hour) {
+        Calendar calendar = Calendar.getInstance(LONDON);
+        calendar.clear();
+        calendar.set(year, month - 1, day, hour, 0);
+        return calendar.getTimeInMillis();
+    }
+
+    private static List<Recurrence.Occurrence> list(Iterable<Recurrence.Occurrence> occurrences) {
+        List<Recurrence.Occurrence> list = new ArrayList<>();
+        for (Recurrence.Occurrence occurrence : occurrences) {
+            list.add(occurrence);
+        }
+        return list;
+    }
+
+    private static List<String> days(Iterable<Recurrence.Occurrence> occurrences) {
+        List<String> days = new ArrayList<>();
+        Calendar calendar = Calendar.getInstance(LONDON);
+        for (Recurrence.Occurrence occurrence : occurrences) {
+            calendar.setTimeInMillis(occurrence.getStartMillis());
+            days.add(String.format("%04d-%02d-%02d", calendar.get(Calendar.YEAR),
+                    calendar.get(Calendar.MONTH) + 1, calendar.get(Calendar.DAY_OF_MONTH)));
+        }
+        return days;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.booksmart.core;
+
+import com.example.booksmart.models.Booking;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ReminderPlan}.
+ */
+public class ReminderPlanTest {
+    private static final long MINUTE = 60 * 1000L;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long NOW = 100 * HOUR;
+
+    private final ReminderPlan plan = new ReminderPlan(30 * MINUTE);
+
+    @Test
+    public void dueAt_isLeadBeforeStart() {
+        assertEquals(NOW + 90 * MINUTE, plan.dueAt(booking("a", NOW + 2 * HOUR, "confirmed"), NOW));
+    }
+
+    @Test
+    public void dueAt_skipsCancelledStartedAndUnsavedBookings() {
+        assertEquals(ReminderPlan.NONE, plan.dueAt(booking("a", NOW + HOUR, "cancelled"), NOW));
+        assertEquals(ReminderPlan.NONE, plan.dueAt(booking("b", NOW, "confirmed"), NOW));
+        assertEquals(ReminderPlan.NONE, plan.dueAt(booking(null, NOW + HOUR, "confirmed"), NOW));
+    }
+
+    @Test
+    public void desired_keepsOnlyBookingsThatNeedReminders() {
+        Map<String, Long> desired = plan.desired(Arrays.asList(
+                booking("a", NOW + HOUR, "confirmed"),
+                booking("b", NOW + HOUR, "cancelled")), NOW);
+
+        assertEquals(Collections.singletonMap("a", NOW + 30 * MINUTE), desired);
+    }
+
+    @Test
+    public void diff_touchesOnlyDifferences() {
+        Map<String, Long> desired = new HashMap<>();
+        desired.put("same", 1L);
+        desired.put("moved", 5L);
+        desired.put("new", 7L);
+        Map<String, Long> queued = new HashMap<>();
+        queued.put("same", 1L);
+        queued.put("moved", 2L);
+        queued.put("gone", 3L);
+
+        ReminderPlan.Diff diff = ReminderPlan.diff(desired, queued);
+
+        assertEquals(Collections.singletonList("new"), diff.getAdded());
+        assertEquals(Collections.singletonList("moved"), diff.getMoved());
+        assertEquals(Collections.singletonList("gone"), diff.getRemoved());
+        assertFalse(diff.isEmpty());
+        assertTrue(ReminderPlan.diff(queued, queued).isEmpty());
+    }
+
+    private static Booking booking(String id, long start, String status) {
+        Booking booking = new Booking("alice", "Study Room", "alice@example.com", start, start + HOUR, "UTC");
+        booking.setBookingId(id);
+        booking.setStatus(status);
+        return booking;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.booksmart.core;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link SlotFinder}.
+ */
+public class SlotFinderTest {
+    private static final long MINUTE = 60 * 1000L;
+    private static final long HOUR = 60 * MINUTE;
+    private static final List<SlotFinder.Window> DAY =
+            Collections.singletonList(new SlotFinder.Window(8 * HOUR, 22 * HOUR));
+
+    private final SlotFinder finder = new SlotFinder();
+
+    @Test
+    public void nearest_offersOnePlacementPerGapNearestFirst() {
+        List<BookedInterval> busy = Arrays.asList(
+                interval("a", 9 * HOUR, 11 * HOUR),
+                interval("b", 12 * HOUR, 15 * HOUR));
+
+        List<SlotFinder.Slot> slots = finder.nearest("Study Room", busy, DAY, 10 * HOUR, HOUR, 5);
+
+        assertEquals(3, slots.size());
+        // 11:00-12:00 is an hour away, 08:00-09:00 two hours, 15:00-16:00 five
+        assertEquals(11 * HOUR, slots.get(0).getStartMillis());
+        assertEquals(8 * HOUR, slots.get(1).getStartMillis());
+        assertEquals(15 * HOUR, slots.get(2).getStartMillis());
+    }
+
+    @Test
+    public void nearest_roundsBusyTimeOutToWholeSlots() {
+        // Ends at 10:50, so the 10:45 slot is taken and 11:00 is the first free start
+        List<BookedInterval> busy = Collections.singletonList(interval("a", 8 * HOUR, 10 * HOUR + 50 * MINUTE));
+
+        List<SlotFinder.Slot> slots = finder.nearest("Study Room", busy, DAY, 10 * HOUR, HOUR, 1);
+
+        assertEquals(11 * HOUR, slots.get(0).getStartMillis());
+    }
+
+    @Test
+    public void nearest_skipsGapsTooShortAndClosedTime() {
+        List<BookedInterval> busy = Arrays.asList(
+                interval("a", 8 * HOUR, 12 * HOUR),
+                interval("b", 12 * HOUR + 30 * MINUTE, 22 * HOUR));
+
+        assertTrue(finder.nearest("Study Room", busy, DAY, 12 * HOUR, HOUR, 3).isEmpty());
+    }
+
+    @Test
+    public void acrossSpaces_prefersTheSameTimeElsewhere() {
+        Map<String, List<BookedInterval>> busy = new LinkedHashMap<>();
+        busy.put("Meeting Room", Collections.singletonList(interval("a", 10 * HOUR, 11 * HOUR)));
+        busy.put("Event Hall", Collections.<BookedInterval>emptyList());
+
+        List<SlotFinder.Slot> slots = finder.acrossSpaces(busy, DAY, 10 * HOUR, HOUR);
+
+        assertEquals("Event Hall", slots.get(0).getSpaceType());
+        assertEquals(0, slots.get(0).getDistanceMillis());
+        assertEquals("Meeting Room", slots.get(1).getSpaceType());
+        assertEquals(HOUR, slots.get(1).getDistanceMillis());
+    }
+
+    private static BookedInterval interval(String id, long start, long end) {
+        return new BookedInterval(id, "Study Room", start, end);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.booksmart.macrobenchmark;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import kotlin.Unit;
+
+/**
+ * Records the classes and methods used from launch through the booking and
+ * confirmation pages; the output replaces app/src/main/baseline-prof.txt.
+ * Needs API 33 or later, or a rooted device on older versions.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BaselineProfileGenerator {
+
+    @Rule
+    public BaselineProfileRule baselineProfileRule = new BaselineProfileRule();
+
+    @Test
+    public void generate() {
+        baselineProfileRule.collect(Journeys.TARGET_PACKAGE, scope -> {
+            scope.pressHome();
+            scope.startActivityAndWait();
+            Journeys.browseBookingPages(scope);
+            return Unit.INSTANCE;
+        });
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.booksmart.macrobenchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Frame times of the booking page, from opening it through scrolling the
+ * space list. Needs a signed-in user on the device.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BookingPageBenchmark {
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @Test
+    public void openAndScrollSpaces() {
+        benchmarkRule.measureRepeated(
+                Journeys.TARGET_PACKAGE,
+                Collections.singletonList(new FrameTimingMetric()),
+                new CompilationMode.Partial(BaselineProfileMode.Require),
+                StartupMode.WARM,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    if (Journeys.openBookingPage(scope.getDevice())) {
+                        Journeys.scrollSpaces(scope.getDevice());
+                    }
+                    return Unit.INSTANCE;
+                });
+    }
+}
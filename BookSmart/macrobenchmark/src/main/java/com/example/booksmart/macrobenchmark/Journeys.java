@@ -0,0 +1,80 @@
+package com.example.booksmart.macrobenchmark;
+
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+/**
+ * UI steps shared by the benchmarks and the profile generator
+ */
+final class Journeys {
+    static final String TARGET_PACKAGE = "com.example.booksmart";
+
+    private static final long TIMEOUT_MILLIS = 5_000;
+
+    private Journeys() {
+    }
+
+    /**
+     * From the launcher screen to the booking page, scrolling the spaces and
+     * opening the templates sheet and the confirmation page on the way. Needs a signed-in user;
+     * otherwise it stops at the login screen.
+     */
+    static void browseBookingPages(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        if (!openBookingPage(device)) {
+            return;
+        }
+
+        scrollSpaces(device);
+
+        click(device, "savedTemplatesButton");
+        device.wait(Until.hasObject(By.res(TARGET_PACKAGE, "templatesRecyclerView")), TIMEOUT_MILLIS);
+        device.pressBack();
+
+        click(device, "quickBookButton");
+        device.wait(Until.hasObject(By.res(TARGET_PACKAGE, "confirmBookingButton")), TIMEOUT_MILLIS);
+        device.waitForIdle();
+        device.pressBack();
+    }
+
+    /**
+     * Taps Get Started and waits for the space list to settle
+     *
+     * @return Whether the booking page was reached
+     */
+    static boolean openBookingPage(UiDevice device) {
+        click(device, "getStartedButton");
+        if (!device.wait(Until.hasObject(By.res(TARGET_PACKAGE, "spacesRecyclerView")), TIMEOUT_MILLIS)) {
+            return false;
+        }
+        device.waitForIdle();
+        return true;
+    }
+
+    /**
+     * Flings the space list to the end and back
+     */
+    static void scrollSpaces(UiDevice device) {
+        UiObject2 list = device.findObject(By.res(TARGET_PACKAGE, "spacesRecyclerView"));
+        if (list == null) {
+            return;
+        }
+        // Keep clear of the gesture navigation area
+        list.setGestureMargin(device.getDisplayWidth() / 5);
+        list.fling(Direction.DOWN);
+        device.waitForIdle();
+        list.fling(Direction.UP);
+        device.waitForIdle();
+    }
+
+    private static void click(UiDevice device, String resourceId) {
+        UiObject2 view = device.wait(Until.findObject(By.res(TARGET_PACKAGE, resourceId)), TIMEOUT_MILLIS);
+        if (view != null) {
+            view.click();
+        }
+    }
+}
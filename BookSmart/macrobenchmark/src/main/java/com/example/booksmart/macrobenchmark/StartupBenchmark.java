@@ -0,0 +1,77 @@
+package com.example.booksmart.macrobenchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Time to initial display of the launcher activity for cold, warm and hot
+ * starts, with and without the baseline profile, so the two can be compared
+ * in one run.
+ */
+@RunWith(Parameterized.class)
+public class StartupBenchmark {
+    private static final int ITERATIONS = 10;
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> compilationModes() {
+        return Arrays.asList(new Object[][]{
+                {"noProfile", new CompilationMode.None()},
+                {"baselineProfile", new CompilationMode.Partial(BaselineProfileMode.Require)},
+        });
+    }
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    private final CompilationMode compilationMode;
+
+    public StartupBenchmark(String name, CompilationMode compilationMode) {
+        this.compilationMode = compilationMode;
+    }
+
+    @Test
+    public void coldStart() {
+        startup(StartupMode.COLD);
+    }
+
+    @Test
+    public void warmStart() {
+        startup(StartupMode.WARM);
+    }
+
+    @Test
+    public void hotStart() {
+        startup(StartupMode.HOT);
+    }
+
+    private void startup(StartupMode startupMode) {
+        benchmarkRule.measureRepeated(
+                Journeys.TARGET_PACKAGE,
+                Collections.singletonList(new StartupTimingMetric()),
+                compilationMode,
+                startupMode,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait();
+                    return Unit.INSTANCE;
+                });
+    }
+}